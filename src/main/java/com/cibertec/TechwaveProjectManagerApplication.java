@@ -3,9 +3,11 @@ package com.cibertec;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling // Tareas periódicas; tamaño del planificador en spring.task.scheduling.pool.size
 public class TechwaveProjectManagerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,83 @@
+package com.cibertec.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cibertec.dto.CacheRegionStatsDTO;
+import com.cibertec.dto.EventStreamMetricsDTO;
+import com.cibertec.dto.PasswordHashMetricsDTO;
+import com.cibertec.dto.ThumbnailMetricsDTO;
+import com.cibertec.event.ProjectEventBus;
+import com.cibertec.security.BoundedPasswordEncoder;
+import com.cibertec.service.CacheMetricsService;
+import com.cibertec.storage.ThumbnailGenerator;
+
+/**
+ * Métricas operativas de la aplicación. Solo accesible por usuarios con el rol 'ADMIN'.
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMetricsController {
+
+    private final CacheMetricsService cacheMetricsService;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final ProjectEventBus projectEventBus;
+
+    @Autowired
+    public AdminMetricsController(CacheMetricsService cacheMetricsService, ThumbnailGenerator thumbnailGenerator,
+                                  BoundedPasswordEncoder passwordEncoder, ProjectEventBus projectEventBus) {
+        this.cacheMetricsService = cacheMetricsService;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.passwordEncoder = passwordEncoder;
+        this.projectEventBus = projectEventBus;
+    }
+
+    /**
+     * Aciertos, fallos y escrituras de cada región de la caché de segundo nivel (Role, User, Project)
+     * y de las consultas cacheadas (findByNombre, findOneByEmail).
+     * GET /api/admin/metrics/cache
+     * @return ResponseEntity con la lista de CacheRegionStatsDTOs y estado HTTP 200 (OK).
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheMetricsService.getCacheRegionStats());
+    }
+
+    /**
+     * Profundidad de la cola, trabajadores activos, generadas, omitidas, reintentos, fallos y rechazadas (cola llena) del generador de miniaturas.
+     * GET /api/admin/metrics/thumbnails
+     * @return ResponseEntity con el ThumbnailMetricsDTO y estado HTTP 200 (OK).
+     */
+    @GetMapping("/thumbnails")
+    public ResponseEntity<ThumbnailMetricsDTO> getThumbnailStats() {
+        return ResponseEntity.ok(thumbnailGenerator.getMetrics());
+    }
+
+    /**
+     * Estado del pool de BCrypt: cola, rechazos (429), tiempo medio y máximo de espera en cola y de cálculo del hash.
+     * GET /api/admin/metrics/password-hashing
+     * @return ResponseEntity con el PasswordHashMetricsDTO y estado HTTP 200 (OK).
+     */
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashMetricsDTO> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getMetrics());
+    }
+
+    /**
+     * Suscriptores SSE conectados, eventos publicados y entregados, y clientes lentos desconectados.
+     * GET /api/admin/metrics/events
+     * @return ResponseEntity con el EventStreamMetricsDTO y estado HTTP 200 (OK).
+     */
+    @GetMapping("/events")
+    public ResponseEntity<EventStreamMetricsDTO> getEventStreamStats() {
+        return ResponseEntity.ok(projectEventBus.getMetrics());
+    }
+}
@@ -1,10 +1,13 @@
 package com.cibertec.controller;
 
-import java.util.List;
+import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,11 +15,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.cibertec.dto.AttachmentDTO;
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.StorageStatsDTO;
 import com.cibertec.service.AttachmentService; // Importa la INTERFAZ
+import com.cibertec.storage.BlobDownload;
+import com.cibertec.storage.BlobStore;
+import com.cibertec.storage.ThumbnailGenerator;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -24,11 +37,13 @@ import jakarta.validation.Valid;
 public class AttachmentController {
 
     private final AttachmentService attachmentService;
+    private final BlobStore blobStore;
 
     // Inyección por constructor (recomendada)
     @Autowired
-    public AttachmentController(AttachmentService attachmentService) {
+    public AttachmentController(AttachmentService attachmentService, BlobStore blobStore) {
         this.attachmentService = attachmentService;
+        this.blobStore = blobStore;
     }
 
     /**
@@ -43,6 +58,80 @@ public class AttachmentController {
         return new ResponseEntity<>(createdAttachment, HttpStatus.CREATED);
     }
 
+    /**
+     * Sube el contenido de un archivo adjunto (multipart/form-data) y registra sus metadatos.
+     * El archivo se recibe en disco (file-size-threshold=0) y se copia por bloques al BlobStore,
+     * por lo que su tamaño no depende de la memoria disponible. Si ya existe un archivo con el mismo
+     * contenido (SHA-256), solo se registran los metadatos y se reutiliza el almacenado.
+     * POST /api/attachments (Content-Type: multipart/form-data; partes: file, taskId?, projectId?)
+     * @param file El archivo a subir.
+     * @param taskId ID de la tarea asociada (opcional).
+     * @param projectId ID del proyecto asociado (opcional).
+     * @param authentication Usuario autenticado (queda registrado como quien subió el archivo).
+     * @return ResponseEntity con el AttachmentDTO creado y estado HTTP 201 (Created).
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AttachmentDTO> uploadAttachment(@RequestPart("file") MultipartFile file,
+                                                          @RequestParam(required = false) Long taskId,
+                                                          @RequestParam(required = false) Long projectId,
+                                                          Authentication authentication) {
+        AttachmentDTO createdAttachment = attachmentService.uploadAttachment(file, taskId, projectId, authentication.getName());
+        return new ResponseEntity<>(createdAttachment, HttpStatus.CREATED);
+    }
+
+    /**
+     * Descarga el contenido de un archivo adjunto. Soporta la cabecera Range (un solo rango, respuesta 206).
+     * GET /api/attachments/{id}/content
+     * @param id El ID del archivo adjunto.
+     */
+    @GetMapping("/{id}/content")
+    public void downloadAttachmentContent(@PathVariable Long id, HttpServletRequest request,
+                                          HttpServletResponse response) throws IOException {
+        AttachmentDTO attachment = attachmentService.getAttachmentWithContent(id);
+        BlobDownload.write(blobStore, attachment.getStoragePath(), attachment.getContentType(), attachment.getFileName(),
+                request, response);
+    }
+
+    /**
+     * Miniatura PNG (máximo 256 px) de un adjunto de imagen, generada en segundo plano al subirlo.
+     * GET /api/attachments/{id}/thumbnail
+     * @param id El ID del archivo adjunto.
+     */
+    @GetMapping("/{id}/thumbnail")
+    public void getAttachmentThumbnail(@PathVariable Long id, HttpServletRequest request,
+                                       HttpServletResponse response) throws IOException {
+        writeDerived(id, ThumbnailGenerator.THUMBNAIL, request, response);
+    }
+
+    /**
+     * Vista previa PNG (máximo 1024 px) de un adjunto de imagen.
+     * GET /api/attachments/{id}/preview
+     * @param id El ID del archivo adjunto.
+     */
+    @GetMapping("/{id}/preview")
+    public void getAttachmentPreview(@PathVariable Long id, HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        writeDerived(id, ThumbnailGenerator.PREVIEW, request, response);
+    }
+
+    private void writeDerived(Long id, String variant, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        String key = attachmentService.getDerivedContentKey(id, variant);
+        BlobDownload.writeInline(blobStore, key, MediaType.IMAGE_PNG_VALUE, variant + "-" + id + ".png", request, response);
+    }
+
+    /**
+     * Estado del almacén deduplicado: contenidos distintos, referencias y bytes ahorrados.
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * GET /api/attachments/storage/stats
+     * @return ResponseEntity con el StorageStatsDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/storage/stats")
+    public ResponseEntity<StorageStatsDTO> getStorageStats() {
+        return ResponseEntity.ok(attachmentService.getStorageStats());
+    }
+
     /**
      * Obtiene un archivo adjunto por su ID.
      * GET /api/attachments/{id}
@@ -57,13 +146,16 @@ public class AttachmentController {
 
     /**
      * Obtiene todos los archivos adjuntos.
-     * GET /api/attachments
-     * @return ResponseEntity con una lista de AttachmentDTOs y estado HTTP 200 (OK).
+     * GET /api/attachments?cursor=...&size=50
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @return ResponseEntity con una página de AttachmentDTOs y estado HTTP 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<AttachmentDTO>> getAllAttachments() {
-        List<AttachmentDTO> attachments = attachmentService.getAllAttachments();
-        if (attachments.isEmpty()) {
+    public ResponseEntity<CursorPageDTO<AttachmentDTO>> getAllAttachments(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size) {
+        CursorPageDTO<AttachmentDTO> attachments = attachmentService.getAllAttachments(cursor, size);
+        if (attachments.getItems().isEmpty() && cursor == null) {
             return ResponseEntity.noContent().build(); // Devuelve 204 No Content si no hay adjuntos
         }
         return ResponseEntity.ok(attachments);
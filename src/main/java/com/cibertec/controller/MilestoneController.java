@@ -1,7 +1,7 @@
 package com.cibertec.controller;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +14,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.MilestoneDTO;
+import com.cibertec.dto.OverdueItemDTO;
 import com.cibertec.service.MilestoneService;
+import com.cibertec.service.OverdueService;
 
 import jakarta.validation.Valid;
 
@@ -25,9 +29,11 @@ import jakarta.validation.Valid;
 public class MilestoneController {
 
     private final MilestoneService milestoneService;
+    private final OverdueService overdueService;
 
-    public MilestoneController(MilestoneService milestoneService) {
+    public MilestoneController(MilestoneService milestoneService, OverdueService overdueService) {
         this.milestoneService = milestoneService;
+        this.overdueService = overdueService;
     }
 
     /**
@@ -44,24 +50,41 @@ public class MilestoneController {
 
     /**
      * Obtiene un hito por su ID.
+     * Admite If-None-Match / If-Modified-Since: si no cambió responde 304 sin cargar ni serializar el hito.
      * GET /api/milestones/{id}
      * @param id El ID del hito.
      * @return ResponseEntity con el MilestoneDTO y estado HTTP 200 (OK).
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MilestoneDTO> getMilestoneById(@PathVariable Long id) {
+    public ResponseEntity<MilestoneDTO> getMilestoneById(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (milestoneService.getMilestoneVersion(id).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
         MilestoneDTO milestone = milestoneService.getMilestoneById(id);
         return ResponseEntity.ok(milestone);
     }
 
     /**
      * Obtiene todos los hitos.
-     * GET /api/milestones
-     * @return ResponseEntity con una lista de MilestoneDTOs y estado HTTP 200 (OK).
+     * Admite If-None-Match / If-Modified-Since: si la colección no cambió responde 304 sin cargar la página.
+     * GET /api/milestones?cursor=...&size=50&fields=name,status
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @param fields Campos a devolver separados por comas (opcional); solo se leen esas columnas, el id siempre se incluye.
+     * @return ResponseEntity con una página de MilestoneDTOs (o de los campos pedidos) y estado HTTP 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<MilestoneDTO>> getAllMilestones() {
-        List<MilestoneDTO> milestones = milestoneService.getAllMilestones();
+    public ResponseEntity<CursorPageDTO<?>> getAllMilestones(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(required = false) String fields,
+                                                             ServletWebRequest webRequest) {
+        if (milestoneService.getAllMilestonesVersion(cursor, size).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(milestoneService.getMilestoneFields(fields, Map.of(), cursor, size));
+        }
+        CursorPageDTO<MilestoneDTO> milestones = milestoneService.getAllMilestones(cursor, size);
         return ResponseEntity.ok(milestones);
     }
 
@@ -92,36 +115,95 @@ public class MilestoneController {
 
     /**
      * Busca hitos por el ID del proyecto.
+     * Admite If-None-Match / If-Modified-Since: si la colección no cambió responde 304 sin cargar la página.
      * GET /api/milestones/search/by-project/{projectId}
      * @param projectId El ID del proyecto.
-     * @return Lista de MilestoneDTOs que coinciden.
+     * @return Página de MilestoneDTOs que coinciden.
      */
     @GetMapping("/search/by-project/{projectId}")
-    public ResponseEntity<List<MilestoneDTO>> getMilestonesByProjectId(@PathVariable Long projectId) {
-        List<MilestoneDTO> milestones = milestoneService.getMilestonesByProjectId(projectId);
+    public ResponseEntity<CursorPageDTO<?>> getMilestonesByProjectId(@PathVariable Long projectId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     @RequestParam(required = false) String fields,
+                                                                     ServletWebRequest webRequest) {
+        if (milestoneService.getMilestonesByProjectIdVersion(projectId).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(milestoneService.getMilestoneFields(fields, Map.of("projectId", projectId), cursor, size));
+        }
+        CursorPageDTO<MilestoneDTO> milestones = milestoneService.getMilestonesByProjectId(projectId, cursor, size);
         return ResponseEntity.ok(milestones);
     }
 
     /**
      * Busca hitos pendientes (no completados).
      * GET /api/milestones/search/pending
-     * @return Lista de MilestoneDTOs pendientes.
+     * @return Página de MilestoneDTOs pendientes.
      */
     @GetMapping("/search/pending")
-    public ResponseEntity<List<MilestoneDTO>> getPendingMilestones() {
-        List<MilestoneDTO> milestones = milestoneService.getPendingMilestones();
+    public ResponseEntity<CursorPageDTO<?>> getPendingMilestones(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(milestoneService.getMilestoneFields(fields, Map.of("completed", false), cursor, size));
+        }
+        CursorPageDTO<MilestoneDTO> milestones = milestoneService.getPendingMilestones(cursor, size);
         return ResponseEntity.ok(milestones);
     }
 
     /**
-     * Busca hitos con una fecha límite anterior o igual a la fecha dada.
+     * Busca hitos con una fecha límite anterior o igual a la fecha dada, ordenados por fecha límite e id
+     * (índice fecha_limite); con 'fields=' la respuesta incluye siempre 'dueDate', que forma parte del cursor.
      * GET /api/milestones/search/due-date-before-or-equal?date=YYYY-MM-DD
      * @param date La fecha límite máxima.
-     * @return Lista de MilestoneDTOs que cumplen la condición.
+     * @return Página de MilestoneDTOs que cumplen la condición.
      */
     @GetMapping("/search/due-date-before-or-equal")
-    public ResponseEntity<List<MilestoneDTO>> getMilestonesByDueDateLessThanEqual(@RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date) {
-        List<MilestoneDTO> milestones = milestoneService.getMilestonesByDueDateLessThanEqual(date);
+    public ResponseEntity<CursorPageDTO<?>> getMilestonesByDueDateLessThanEqual(@RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                                @RequestParam(required = false) String cursor,
+                                                                                @RequestParam(required = false) Integer size,
+                                                                                @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(milestoneService.getMilestoneFields(fields, Map.of("dueDate", date), cursor, size));
+        }
+        CursorPageDTO<MilestoneDTO> milestones = milestoneService.getMilestonesByDueDateLessThanEqual(date, cursor, size);
         return ResponseEntity.ok(milestones);
     }
+
+    /**
+     * Busca hitos pendientes con fecha límite anterior o igual a la fecha dada
+     * (índice compuesto completado, fecha_limite), ordenados por fecha límite e id; con 'fields=' la respuesta
+     * incluye siempre 'dueDate', que forma parte del cursor.
+     * GET /api/milestones/search/pending-due-before?date=YYYY-MM-DD
+     * @param date La fecha límite máxima.
+     * @return Página de MilestoneDTOs que cumplen la condición.
+     */
+    @GetMapping("/search/pending-due-before")
+    public ResponseEntity<CursorPageDTO<?>> getPendingMilestonesDueBefore(@RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(milestoneService.getMilestoneFields(fields, Map.of("completed", false, "dueDate", date), cursor, size));
+        }
+        CursorPageDTO<MilestoneDTO> milestones = milestoneService.getPendingMilestonesDueUntil(date, cursor, size);
+        return ResponseEntity.ok(milestones);
+    }
+
+    /**
+     * Obtiene los hitos vencidos (no completados con fecha límite pasada) detectados por el escaneo periódico.
+     * Lectura indexada de elementos_vencidos: puede ir hasta un intervalo de escaneo por detrás de los cambios.
+     * GET /api/milestones/overdue?projectId=1&cursor=...&size=50
+     * @param projectId Solo los hitos de este proyecto (opcional).
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @return Página de OverdueItemDTOs.
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<CursorPageDTO<OverdueItemDTO>> getOverdueMilestones(@RequestParam(required = false) Long projectId,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(overdueService.getOverdueMilestones(projectId, cursor, size));
+    }
 }
@@ -1,9 +1,14 @@
 package com.cibertec.controller;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +20,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam; // Ya está importado, pero lo mantengo
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.cibertec.dto.ArchivedProjectDTO;
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.ProjectDeletionDTO;
+import com.cibertec.dto.ProjectStatsDTO;
+import com.cibertec.dto.ProjectStatsRebuildDTO;
+import com.cibertec.dto.ProjectSummaryDTO;
 import com.cibertec.dto.ProjectDTO; // Asegúrate de que este ProjectDTO tiene 'Long managerId'
+import com.cibertec.event.ProjectEventBus;
+import com.cibertec.export.ExportFormat;
+import com.cibertec.export.ExportRowWriter;
+import com.cibertec.service.ProjectDeletionService;
 import com.cibertec.service.ProjectService;
+import com.cibertec.service.ProjectStatsService;
 
 import jakarta.validation.Valid;
 
@@ -26,9 +45,16 @@ import jakarta.validation.Valid;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ProjectStatsService projectStatsService;
+    private final ProjectEventBus projectEventBus;
+    private final ProjectDeletionService projectDeletionService;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectStatsService projectStatsService,
+                             ProjectEventBus projectEventBus, ProjectDeletionService projectDeletionService) {
         this.projectService = projectService;
+        this.projectStatsService = projectStatsService;
+        this.projectEventBus = projectEventBus;
+        this.projectDeletionService = projectDeletionService;
     }
 
     /**
@@ -48,13 +74,17 @@ public class ProjectController {
     /**
      * Obtiene un proyecto por su ID.
      * Accesible por cualquier usuario autenticado.
+     * Admite If-None-Match / If-Modified-Since: si no cambió responde 304 sin cargar ni serializar el proyecto.
      * GET /api/projects/{id}
      * @param id El ID del proyecto.
      * @return ResponseEntity con el ProjectDTO y estado HTTP 200 (OK).
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id) {
+    public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (projectService.getProjectVersion(id).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
         ProjectDTO project = projectService.getProjectById(id);
         return ResponseEntity.ok(project);
     }
@@ -62,15 +92,27 @@ public class ProjectController {
     /**
      * Obtiene todos los proyectos.
      * Accesible por cualquier usuario autenticado.
-     * GET /api/projects
-     * @return ResponseEntity con una lista de ProjectDTOs y estado HTTP 200 (OK).
+     * Admite If-None-Match / If-Modified-Since: si la colección no cambió responde 304 sin cargar la página.
+     * GET /api/projects?cursor=...&size=50&fields=name,status
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @param fields Campos a devolver separados por comas (opcional); solo se leen esas columnas, el id siempre se incluye.
+     * @return ResponseEntity con una página de ProjectDTOs (o de los campos pedidos) y estado HTTP 200 (OK).
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
-        List<ProjectDTO> projects = projectService.getAllProjects();
+    public ResponseEntity<CursorPageDTO<?>> getAllProjects(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(required = false) String fields,
+                                                           ServletWebRequest webRequest) {
+        if (projectService.getAllProjectsVersion(cursor, size).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        CursorPageDTO<?> projects = fields != null
+                ? projectService.getProjectFields(fields, Map.of(), cursor, size)
+                : projectService.getAllProjects(cursor, size);
         // Opcional: Si no hay proyectos, devolver 204 No Content en lugar de 200 OK con lista vacía
-        if (projects.isEmpty()) {
+        if (projects.getItems().isEmpty() && cursor == null) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(projects);
@@ -92,53 +134,284 @@ public class ProjectController {
     }
 
     /**
-     * Elimina un proyecto por su ID.
+     * Elimina un proyecto por su ID junto con sus tareas, hitos y adjuntos.
+     * Con async=true la eliminación se hace por lotes en segundo plano (proyectos grandes).
      * Solo accesible por usuarios con el rol 'ADMIN'.
-     * DELETE /api/projects/{id}
+     * DELETE /api/projects/{id}?async=true
      * @param id El ID del proyecto a eliminar.
-     * @return ResponseEntity con estado HTTP 204 (No Content).
+     * @param async Si es true, responde de inmediato con el progreso de la eliminación.
+     * @return 204 (No Content), o 202 (Accepted) con el progreso y la URL para consultarlo en Location.
      */
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
+    public ResponseEntity<ProjectDeletionDTO> deleteProject(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            ProjectDeletionDTO deletion = projectDeletionService.startDeletion(id);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/projects/" + id + "/deletion")
+                    .body(deletion);
+        }
         projectService.deleteProject(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    /**
+     * Obtiene el progreso de una eliminación asíncrona (en curso o terminada recientemente).
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * GET /api/projects/{id}/deletion
+     * @param id El ID del proyecto en eliminación.
+     * @return ResponseEntity con el ProjectDeletionDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<ProjectDeletionDTO> getProjectDeletion(@PathVariable Long id) {
+        return ResponseEntity.ok(projectDeletionService.getDeletion(id));
+    }
+
+    // --- Archivo de proyectos completados ---
+
+    /**
+     * Archiva un proyecto completado: el proyecto, sus tareas, hitos y adjuntos pasan a las tablas de archivo
+     * y dejan de aparecer en todas las consultas.
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * POST /api/projects/{id}/archive
+     * @param id El ID del proyecto (estado COMPLETADO) a archivar.
+     * @return ResponseEntity con el ArchivedProjectDTO y estado HTTP 200 (OK); 409 si el proyecto no está completado.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/archive")
+    public ResponseEntity<ArchivedProjectDTO> archiveProject(@PathVariable Long id) {
+        return ResponseEntity.ok(projectService.archiveProject(id));
+    }
+
+    /**
+     * Lista los proyectos archivados.
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * GET /api/projects/archived?cursor=...&size=50
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @return ResponseEntity con una página de ArchivedProjectDTOs y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/archived")
+    public ResponseEntity<CursorPageDTO<ArchivedProjectDTO>> getArchivedProjects(@RequestParam(required = false) String cursor,
+                                                                                @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(projectService.getArchivedProjects(cursor, size));
+    }
+
+    /**
+     * Obtiene un proyecto archivado por su ID.
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * GET /api/projects/archived/{id}
+     * @param id El ID del proyecto archivado.
+     * @return ResponseEntity con el ArchivedProjectDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/archived/{id}")
+    public ResponseEntity<ArchivedProjectDTO> getArchivedProject(@PathVariable Long id) {
+        return ResponseEntity.ok(projectService.getArchivedProject(id));
+    }
+
+    /**
+     * Devuelve un proyecto archivado, con sus tareas, hitos y adjuntos, a las tablas activas.
+     * Las tareas asignadas a usuarios eliminados se restauran sin asignar; si ya no existe el gerente del proyecto
+     * o el usuario que subió alguno de sus adjuntos, responde 409 (Conflict) sin modificar nada.
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * POST /api/projects/archived/{id}/restore
+     * @param id El ID del proyecto archivado.
+     * @return ResponseEntity con el ProjectDTO restaurado y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/archived/{id}/restore")
+    public ResponseEntity<ProjectDTO> restoreProject(@PathVariable Long id) {
+        return ResponseEntity.ok(projectService.restoreProject(id));
+    }
+
     // --- Métodos de Búsqueda Adicionales (Descomentados e implementados) ---
 
     /**
      * Busca proyectos por nombre (parcial, ignorando mayúsculas/minúsculas).
      * GET /api/projects/search/by-name?name=valor
      * @param name El nombre parcial del proyecto.
-     * @return Lista de ProjectDTOs que coinciden.
+     * @return Página de ProjectDTOs que coinciden.
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/search/by-name")
-    public ResponseEntity<List<ProjectDTO>> searchProjectsByName(@RequestParam String name) {
-        // Necesitas añadir este método a tu ProjectService.java y ProjectServiceImplement.java
-        // Por ejemplo: List<ProjectDTO> findByNameContainingIgnoreCase(String name);
-        // List<ProjectDTO> projects = projectService.findProjectsByNameContainingIgnoreCase(name);
-        // return ResponseEntity.ok(projects);
-        // Retorno de ejemplo si el método no está implementado aún:
-        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build(); // O implementa la lógica real
+    public ResponseEntity<CursorPageDTO<?>> searchProjectsByName(@RequestParam String name,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size,
+                                                                 @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projectService.getProjectFields(fields, Map.of("name", name), cursor, size));
+        }
+        CursorPageDTO<ProjectDTO> projects = projectService.findProjectsByNameContainingIgnoreCase(name, cursor, size);
+        return ResponseEntity.ok(projects);
     }
 
     /**
      * Busca proyectos que inician en o después de una fecha dada.
      * GET /api/projects/search/start-date-after?date=YYYY-MM-DD
      * @param date La fecha mínima de inicio.
-     * @return Lista de ProjectDTOs que cumplen la condición.
+     * @return Página de ProjectDTOs que cumplen la condición.
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/search/start-date-after")
-    public ResponseEntity<List<ProjectDTO>> searchProjectsByStartDateAfter(
-            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date) {
-        // Necesitas añadir este método a tu ProjectService.java y ProjectServiceImplement.java
-        // Por ejemplo: List<ProjectDTO> findByStartDateGreaterThanEqual(LocalDate date);
-        // List<ProjectDTO> projects = projectService.findProjectsByStartDateGreaterThanEqual(date);
-        // return ResponseEntity.ok(projects);
-        // Retorno de ejemplo si el método no está implementado aún:
-        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build(); // O implementa la lógica real
-    }
-}
\ No newline at end of file
+    public ResponseEntity<CursorPageDTO<?>> searchProjectsByStartDateAfter(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projectService.getProjectFields(fields, Map.of("startDate", date), cursor, size));
+        }
+        CursorPageDTO<ProjectDTO> projects = projectService.findProjectsByStartDateGreaterThanEqual(date, cursor, size);
+        return ResponseEntity.ok(projects);
+    }
+
+    /**
+     * Busca proyectos por estado (índice idx_proyectos_estado).
+     * GET /api/projects/search/by-status?status=EN_PROGRESO
+     * @param status El estado del proyecto.
+     * @return Página de ProjectDTOs que cumplen la condición.
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/search/by-status")
+    public ResponseEntity<CursorPageDTO<?>> searchProjectsByStatus(@RequestParam String status,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projectService.getProjectFields(fields, Map.of("status", status), cursor, size));
+        }
+        CursorPageDTO<ProjectDTO> projects = projectService.findProjectsByStatus(status, cursor, size);
+        return ResponseEntity.ok(projects);
+    }
+
+    /**
+     * Flujo Server-Sent Events con los cambios confirmados del proyecto y de sus tareas e hitos
+     * (eventos 'task.created', 'task.updated', 'task.deleted', 'task.removed', 'task.bulk', 'milestone.*', 'project.*').
+     * Sustituye al sondeo periódico de GET /api/tasks/by-project/{id}: el cliente carga el estado una vez y aplica los cambios.
+     * Si el cliente no consume a tiempo se cierra la conexión; al reconectar debe recargar el estado completo.
+     * GET /api/projects/{id}/events
+     * @param id El ID del proyecto.
+     * @return SseEmitter que permanece abierto hasta que el cliente se desconecta o vence 'app.events.timeout-ms'.
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProjectEvents(@PathVariable Long id) {
+        projectService.getProjectById(id); // 404 si el proyecto no existe
+        return projectEventBus.subscribe(id);
+    }
+
+    /**
+     * Obtiene los indicadores agregados de un proyecto: tareas por estado y prioridad, tareas vencidas,
+     * avance de hitos y totales de adjuntos. Se calculan en la base de datos con consultas GROUP BY.
+     * GET /api/projects/{id}/summary
+     * @param id El ID del proyecto.
+     * @return ResponseEntity con el ProjectSummaryDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ProjectSummaryDTO> getProjectSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(projectService.getProjectSummary(id));
+    }
+
+    /**
+     * Exporta las tareas, hitos y metadatos de adjuntos de un proyecto (NDJSON o CSV) para reportes.
+     * Las filas se leen con un cursor del servidor y se escriben en la respuesta a medida que llegan,
+     * por lo que la memoria usada no depende del tamaño del proyecto.
+     * GET /api/projects/{id}/export?format=ndjson
+     * @param id El ID del proyecto.
+     * @param format 'ndjson' (por defecto) o 'csv'.
+     * @return ResponseEntity con el archivo escrito en streaming y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportProject(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "ndjson") String format) {
+        return export(List.of(id), ExportFormat.parse(format), "project-" + id);
+    }
+
+    /**
+     * Exporta varios proyectos en un solo archivo (filas ordenadas por proyecto dentro de cada tipo).
+     * GET /api/projects/export?ids=1,2,3&format=csv
+     * @param ids Lista de IDs de proyectos (todos deben existir).
+     * @param format 'ndjson' (por defecto) o 'csv'.
+     * @return ResponseEntity con el archivo escrito en streaming y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProjects(@RequestParam List<Long> ids,
+                                                                @RequestParam(defaultValue = "ndjson") String format) {
+        return export(ids.stream().distinct().toList(), ExportFormat.parse(format), "projects");
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(List<Long> projectIds, ExportFormat format, String baseName) {
+        // Los errores (400/404) se devuelven antes de comprometer la respuesta
+        projectService.checkExportableProjects(projectIds);
+        StreamingResponseBody body = outputStream -> {
+            try (ExportRowWriter writer = format.open(outputStream)) {
+                projectService.exportProjects(projectIds, writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(baseName + "-export." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Obtiene los indicadores agregados de varios proyectos en una sola llamada (máximo 500).
+     * Los IDs inexistentes se omiten de la respuesta.
+     * GET /api/projects/summary?ids=1,2,3
+     * @param ids Lista de IDs de proyectos.
+     * @return ResponseEntity con la lista de ProjectSummaryDTOs y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/summary")
+    public ResponseEntity<List<ProjectSummaryDTO>> getProjectSummaries(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(projectService.getProjectSummaries(ids));
+    }
+
+    /**
+     * Obtiene las estadísticas materializadas de un proyecto (lectura de una sola fila).
+     * GET /api/projects/{id}/stats
+     * @param id El ID del proyecto.
+     * @return ResponseEntity con el ProjectStatsDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProjectStatsDTO> getProjectStats(@PathVariable Long id) {
+        return ResponseEntity.ok(projectStatsService.getProjectStats(id));
+    }
+
+    /**
+     * Obtiene las estadísticas materializadas de todos los proyectos (vista de portafolio).
+     * GET /api/projects/stats?cursor=...&size=50
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @return ResponseEntity con una página de ProjectStatsDTOs y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/stats")
+    public ResponseEntity<CursorPageDTO<ProjectStatsDTO>> getAllProjectStats(@RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(projectStatsService.getAllProjectStats(cursor, size));
+    }
+
+    /**
+     * Recalcula las estadísticas de todos los proyectos desde cero y reporta la deriva corregida.
+     * Solo accesible por usuarios con el rol 'ADMIN'. La misma reconstrucción se ejecuta cada día.
+     * POST /api/projects/stats/rebuild
+     * @return ResponseEntity con el ProjectStatsRebuildDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<ProjectStatsRebuildDTO> rebuildProjectStats() {
+        return ResponseEntity.ok(projectStatsService.rebuild());
+    }
+}
@@ -0,0 +1,60 @@
+package com.cibertec.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cibertec.dto.SearchRebuildDTO;
+import com.cibertec.dto.SearchResultsDTO;
+import com.cibertec.service.SearchService;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @Autowired
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Búsqueda de texto completo en nombres y descripciones de tareas, proyectos e hitos, ordenada por relevancia.
+     * Cada palabra debe aparecer completa o como prefijo ("plan" encuentra "planificación"); no distingue tildes ni mayúsculas.
+     * Accesible por cualquier usuario autenticado.
+     * GET /api/search?q=texto&type=task&projectId=1&status=PENDIENTE&limit=20
+     * @param q Texto a buscar.
+     * @param type Tipo de resultado: task, project o milestone (opcional).
+     * @param projectId Solo resultados de este proyecto (opcional).
+     * @param status Solo resultados con este estado (opcional; los hitos usan COMPLETADO o PENDIENTE).
+     * @param limit Máximo de resultados (opcional, por defecto 20, máximo 100).
+     * @return ResponseEntity con el SearchResultsDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping
+    public ResponseEntity<SearchResultsDTO> search(@RequestParam String q,
+                                                   @RequestParam(required = false) String type,
+                                                   @RequestParam(required = false) Long projectId,
+                                                   @RequestParam(required = false) String status,
+                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, type, projectId, status, limit));
+    }
+
+    /**
+     * Reconstruye el índice de búsqueda desde la base de datos. Las búsquedas siguen usando el índice
+     * anterior hasta que termina. Solo accesible por usuarios con el rol 'ADMIN'.
+     * POST /api/search/rebuild
+     * @return ResponseEntity con el SearchRebuildDTO y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rebuild")
+    public ResponseEntity<SearchRebuildDTO> rebuild() {
+        return ResponseEntity.ok(searchService.rebuild());
+    }
+}
@@ -1,11 +1,23 @@
 package com.cibertec.controller;
 
+import com.cibertec.dto.BulkTaskResultDTO;
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.OverdueItemDTO;
+import com.cibertec.dto.OverdueScanDTO;
 import com.cibertec.dto.TaskDTO;
+import com.cibertec.dto.TaskTransitionDTO;
+import com.cibertec.dto.TaskTransitionResultDTO;
+import com.cibertec.service.OverdueService;
 import com.cibertec.service.TaskService;
 import com.cibertec.service.ProjectService; // Importar ProjectService
+import com.cibertec.util.JsonArrayStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // Importar para excepciones de acceso denegado
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,8 +25,12 @@ import org.springframework.security.core.Authentication; // Importar Authenticat
 import org.springframework.security.core.GrantedAuthority; // Importar GrantedAuthority
 import org.springframework.security.core.context.SecurityContextHolder; // Importar SecurityContextHolder
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors; // Importar Collectors para el stream
 
 import org.slf4j.Logger; // Importar Logger
@@ -28,11 +44,16 @@ public class TaskController {
 
     private final TaskService taskService;
     private final ProjectService projectService; // ¡Ahora inyectamos ProjectService!
+    private final ObjectMapper objectMapper;
+    private final OverdueService overdueService;
 
     // Constructor actualizado para inyectar TaskService Y ProjectService
-    public TaskController(TaskService taskService, ProjectService projectService) {
+    public TaskController(TaskService taskService, ProjectService projectService, ObjectMapper objectMapper,
+                          OverdueService overdueService) {
         this.taskService = taskService;
         this.projectService = projectService; // Inicializamos projectService
+        this.objectMapper = objectMapper;
+        this.overdueService = overdueService;
     }
 
     /**
@@ -97,16 +118,105 @@ public class TaskController {
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
+    /**
+     * Crea o actualiza tareas de forma masiva (por ejemplo, al importar un plan desde otra herramienta).
+     * Las tareas sin 'id' se crean y las que tienen 'id' se actualizan; se escriben con sentencias JDBC por lotes.
+     * Cada tarea se valida antes del lote (restricciones del TaskDTO y referencias): las inválidas, incluidas las de
+     * proyectos inexistentes, se devuelven con resultado ERROR sin afectar al resto.
+     * Una actualización que envía 'version' solo se aplica si coincide con la actual; si no, se devuelve CONFLICT.
+     * Restricción: 'ADMIN', o 'PROJECT_MANAGER' de todos los proyectos involucrados.
+     * POST /api/tasks/bulk
+     * @param taskDTOs Lista de tareas a crear o actualizar.
+     * @return ResponseEntity con el resultado de cada tarea (en el mismo orden) y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'PROJECT_MANAGER')")
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkTaskResultDTO>> bulkSaveTasks(@RequestBody List<TaskDTO> taskDTOs) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        // Un PROJECT_MANAGER solo puede escribir en proyectos que gestiona (se verifica el conjunto con una consulta)
+        if (!isAdmin && !projectService.isProjectManagerForBulkTasks(taskDTOs, authentication.getName())) {
+            logger.warn("--- [TaskController] Acceso denegado en carga masiva: el usuario {} no gestiona todos los proyectos.", authentication.getName());
+            throw new AccessDeniedException("Acceso denegado: No es Project Manager de todos los proyectos de la carga masiva.");
+        }
+
+        List<BulkTaskResultDTO> results = taskService.bulkSaveTasks(taskDTOs);
+        logger.info("--- [TaskController] Carga masiva procesada: {} tareas.", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Cambia el estado, la prioridad y/o el usuario asignado de muchas tareas a la vez (por ejemplo, cerrar un sprint).
+     * La autorización del conjunto se resuelve con una consulta y el cambio se aplica con una sola sentencia UPDATE.
+     * El estado y la prioridad se validan con las mismas restricciones que en POST/PUT (400 si no las cumplen).
+     * Restricción: 'ADMIN', o gerente del proyecto / usuario asignado de cada una de las tareas.
+     * POST /api/tasks/transition
+     * @param transition IDs de las tareas y valores nuevos (los nulos no se modifican).
+     * @return ResponseEntity con las tareas modificadas y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping("/transition")
+    public ResponseEntity<TaskTransitionResultDTO> transitionTasks(@RequestBody TaskTransitionDTO transition) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+
+        if (!isAdmin && !taskService.canTransitionTasks(transition.getTaskIds(), authentication.getName())) {
+            logger.warn("--- [TaskController] Acceso denegado en transición masiva: el usuario {} no gestiona ni tiene asignadas todas las tareas.", authentication.getName());
+            throw new AccessDeniedException("Acceso denegado: No es Project Manager ni usuario asignado de todas las tareas.");
+        }
+
+        TaskTransitionResultDTO result = taskService.transitionTasks(transition);
+        logger.info("--- [TaskController] Transición masiva aplicada: {} tareas.", result.getUpdated());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Obtiene las tareas vencidas (abiertas con fecha límite pasada) detectadas por el escaneo periódico.
+     * Lectura indexada de elementos_vencidos: puede ir hasta un intervalo de escaneo por detrás de los cambios.
+     * Accesible por cualquier usuario autenticado.
+     * GET /api/tasks/overdue?projectId=1&cursor=...&size=50
+     * @param projectId Solo las tareas de este proyecto (opcional).
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @return ResponseEntity con una página de OverdueItemDTOs y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/overdue")
+    public ResponseEntity<CursorPageDTO<OverdueItemDTO>> getOverdueTasks(@RequestParam(required = false) Long projectId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(overdueService.getOverdueTasks(projectId, cursor, size));
+    }
+
+    /**
+     * Ejecuta de inmediato el escaneo de tareas e hitos vencidos (normalmente programado).
+     * Solo accesible por usuarios con el rol 'ADMIN'.
+     * POST /api/tasks/overdue/scan
+     * @return ResponseEntity con el OverdueScanDTO y estado HTTP 200 (OK); 409 si ya hay un escaneo en curso.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/overdue/scan")
+    public ResponseEntity<OverdueScanDTO> scanOverdue() {
+        return ResponseEntity.ok(overdueService.scan());
+    }
+
     /**
      * Obtiene una tarea por su ID.
      * Accesible por cualquier usuario autenticado.
+     * Admite If-None-Match / If-Modified-Since: si no cambió responde 304 sin cargar ni serializar la tarea.
      * GET /api/tasks/{id}
      * @param id El ID de la tarea.
      * @return ResponseEntity con el TaskDTO y estado HTTP 200 (OK).
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id, ServletWebRequest webRequest) {
+        if (taskService.getTaskVersion(id).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
         TaskDTO task = taskService.getTaskById(id);
         return ResponseEntity.ok(task);
     }
@@ -114,16 +224,57 @@ public class TaskController {
     /**
      * Obtiene todas las tareas.
      * Accesible por cualquier usuario autenticado.
-     * GET /api/tasks
-     * @return ResponseEntity con una lista de TaskDTOs y estado HTTP 200 (OK).
+     * Admite If-None-Match / If-Modified-Since: si la colección no cambió responde 304 sin cargar la página.
+     * GET /api/tasks?cursor=...&size=50&fields=name,status
+     * @param cursor Token opaco devuelto en 'nextCursor' por la página anterior (opcional).
+     * @param size Tamaño de página (opcional, máximo 500).
+     * @param fields Campos a devolver separados por comas (opcional); solo se leen esas columnas, el id siempre se incluye.
+     * @return ResponseEntity con una página de TaskDTOs (o de los campos pedidos) y estado HTTP 200 (OK).
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        List<TaskDTO> tasks = taskService.getAllTasks();
+    public ResponseEntity<CursorPageDTO<?>> getAllTasks(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(required = false) String fields,
+                                                        ServletWebRequest webRequest) {
+        if (taskService.getAllTasksVersion(cursor, size).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of(), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getAllTasks(cursor, size);
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Obtiene todas las tareas en un único arreglo JSON, sin paginar, para exportaciones e integraciones.
+     * Las filas se leen de la base de datos por bloques y se escriben en la respuesta a medida que llegan
+     * (transferencia chunked, comprimida con gzip si el cliente lo acepta).
+     * GET /api/tasks/stream
+     * @return ResponseEntity con el arreglo de TaskDTOs escrito en streaming y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllTasks() {
+        StreamingResponseBody body = JsonArrayStream.of(objectMapper, taskService::streamAllTasks);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Obtiene todas las tareas de un proyecto en un único arreglo JSON escrito en streaming.
+     * GET /api/tasks/by-project/{projectId}/stream
+     * @param projectId El ID del proyecto.
+     * @return ResponseEntity con el arreglo de TaskDTOs escrito en streaming y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/by-project/{projectId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamTasksByProjectId(@PathVariable Long projectId) {
+        StreamingResponseBody body = JsonArrayStream.<TaskDTO>of(objectMapper,
+                consumer -> taskService.streamTasksByProjectId(projectId, consumer));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * Actualiza una tarea existente.
      * Solo accesible por usuarios con el rol 'ADMIN', el 'PROJECT_MANAGER' del proyecto asociado a la tarea,
@@ -140,6 +291,25 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    /**
+     * Actualiza solo los campos enviados (JSON Merge Patch, RFC 7396): un campo ausente no cambia y un null lo borra.
+     * Control de concurrencia optimista: con 'If-Match' (ETag de GET /api/tasks/{id}) responde 412 si la tarea cambió;
+     * con 'version' en el cuerpo responde 409 si no es la actual. La respuesta incluye el ETag nuevo.
+     * Mismas restricciones de acceso que PUT.
+     * PATCH /api/tasks/{id}  (Content-Type: application/merge-patch+json)
+     * @param id El ID de la tarea a actualizar.
+     * @param patch Campos a modificar, por ejemplo {"status": "EN_PROGRESO"}.
+     * @param ifMatch ETag esperado de la tarea (opcional).
+     * @return ResponseEntity con el TaskDTO actualizado y estado HTTP 200 (OK).
+     */
+    @PreAuthorize("hasRole('ADMIN') or @projectService.isProjectManagerOfTask(#id, authentication.name) or @taskService.isTaskAssignedToUser(#id, authentication.name)")
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable Long id, @RequestBody Map<String, Object> patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO patchedTask = taskService.patchTask(id, patch, ifMatch);
+        return ResponseEntity.ok().eTag(taskService.getTaskVersion(id).etag()).body(patchedTask);
+    }
+
     /**
      * Elimina una tarea por su ID.
      * Solo accesible por usuarios con el rol 'ADMIN' o el 'PROJECT_MANAGER' del proyecto asociado a la tarea.
@@ -155,24 +325,95 @@ public class TaskController {
     }
 
     // Puedes añadir más endpoints de búsqueda aquí y aplicar PreAuthorize según sea necesario
+    // Los tableros consultan este endpoint periódicamente: con If-None-Match cuesta una consulta de versión por índice
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/by-project/{projectId}")
-    public ResponseEntity<List<TaskDTO>> getTasksByProjectId(@PathVariable Long projectId) {
-        List<TaskDTO> tasks = taskService.getTasksByProjectId(projectId);
+    public ResponseEntity<CursorPageDTO<?>> getTasksByProjectId(@PathVariable Long projectId,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size,
+                                                                @RequestParam(required = false) String fields,
+                                                                ServletWebRequest webRequest) {
+        if (taskService.getTasksByProjectIdVersion(projectId).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of("projectId", projectId), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByProjectId(projectId, cursor, size);
         return ResponseEntity.ok(tasks);
     }
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/by-assigned-user/{assignedUserId}")
-    public ResponseEntity<List<TaskDTO>> getTasksByAssignedUser(@PathVariable Long assignedUserId) {
-        List<TaskDTO> tasks = taskService.getTasksByAssignedToId(assignedUserId);
+    public ResponseEntity<CursorPageDTO<?>> getTasksByAssignedUser(@PathVariable Long assignedUserId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(required = false) String fields,
+                                                                   ServletWebRequest webRequest) {
+        if (taskService.getTasksByAssignedToIdVersion(assignedUserId).forPage(cursor, size, fields).isNotModified(webRequest)) {
+            return null; // 304 Not Modified
+        }
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of("assignedToId", assignedUserId), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByAssignedToId(assignedUserId, cursor, size);
         return ResponseEntity.ok(tasks);
     }
 
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/by-status")
-    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@RequestParam String status) {
-        List<TaskDTO> tasks = taskService.getTasksByStatus(status);
+    public ResponseEntity<CursorPageDTO<?>> getTasksByStatus(@RequestParam String status,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of("status", status), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByStatus(status, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Busca tareas de un proyecto con un estado dado (índice compuesto proyecto_id, estado).
+     * GET /api/tasks/search/by-project-and-status?projectId=1&status=PENDIENTE
+     * @param projectId El ID del proyecto.
+     * @param status El estado de la tarea.
+     * @return Página de TaskDTOs que coinciden.
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/search/by-project-and-status")
+    public ResponseEntity<CursorPageDTO<?>> getTasksByProjectAndStatus(@RequestParam Long projectId,
+                                                                       @RequestParam String status,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer size,
+                                                                       @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of("projectId", projectId, "status", status), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByProjectIdAndStatus(projectId, status, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Busca tareas asignadas a un usuario con fecha límite anterior o igual a la fecha dada
+     * (índice compuesto asignado_a_usuario_id, fecha_limite). Ordenadas por fecha límite e id, el orden del índice;
+     * con 'fields=' la respuesta incluye siempre 'dueDate', que forma parte del cursor.
+     * GET /api/tasks/search/by-assignee-due-before?assignedToId=1&date=YYYY-MM-DD
+     * @param assignedToId El ID del usuario asignado.
+     * @param date La fecha límite máxima.
+     * @return Página de TaskDTOs que coinciden.
+     */
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/search/by-assignee-due-before")
+    public ResponseEntity<CursorPageDTO<?>> getTasksByAssigneeDueBefore(@RequestParam Long assignedToId,
+                                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFields(fields, Map.of("assignedToId", assignedToId, "dueDate", date), cursor, size));
+        }
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByAssignedToIdAndDueDateUntil(assignedToId, date, cursor, size);
         return ResponseEntity.ok(tasks);
     }
 }
\ No newline at end of file
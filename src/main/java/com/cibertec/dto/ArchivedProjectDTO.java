@@ -0,0 +1,25 @@
+package com.cibertec.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de un proyecto archivado (tabla proyectos_archivados), con el número de filas que se movieron con él.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedProjectDTO {
+
+    private Long id;
+    private String name;
+    private String status;
+    private Long projectManagerId;
+    private long tasks;
+    private long milestones;
+    private long attachments;
+    private LocalDateTime archivedAt;
+}
@@ -20,5 +20,6 @@ public class AttachmentDTO {
     private Long uploadedById; // Solo el ID del usuario que subió el archivo
     private Long taskId; // Solo el ID de la tarea (puede ser nulo)
     private Long projectId; 
+    private String contentHash; // SHA-256 del contenido subido (solo lectura)
 
 }
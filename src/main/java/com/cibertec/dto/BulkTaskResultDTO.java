@@ -0,0 +1,25 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una tarea dentro de una operación masiva (POST /api/tasks/bulk).
+ * 'index' es la posición de la tarea en la lista enviada por el cliente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String ERROR = "ERROR";
+    public static final String CONFLICT = "CONFLICT"; // La versión enviada ya no es la actual: la tarea no se modificó
+
+    private int index;
+    private Long id;
+    private String result; // CREATED, UPDATED, CONFLICT o ERROR
+    private String message; // Motivo del error o del conflicto, null si la operación fue exitosa
+}
@@ -0,0 +1,22 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de una región de la caché de segundo nivel o de la caché de consultas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+
+    private String region;
+    private String type; // ENTITY o QUERY
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio; // hits / (hits + misses), 0 si no hubo accesos
+    private long elementsInMemory; // -1 si el proveedor no lo informa
+}
@@ -0,0 +1,22 @@
+package com.cibertec.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para respuestas paginadas por cursor (keyset).
+ * El cliente reenvía 'nextCursor' en el parámetro 'cursor' para obtener la siguiente página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+
+    private List<T> items;
+    private String nextCursor; // Token opaco; null cuando no hay más resultados
+    private boolean hasMore;
+    private int size; // Tamaño de página efectivamente aplicado
+}
@@ -0,0 +1,21 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado de los flujos SSE de proyectos (GET /api/admin/metrics/events).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventStreamMetricsDTO {
+
+    private int subscribers;
+    private int projectsWithSubscribers;
+    private int bufferSize; // Eventos pendientes permitidos por suscriptor
+    private long published;
+    private long delivered;
+    private long evicted; // Suscriptores desconectados por no consumir a tiempo
+}
@@ -0,0 +1,23 @@
+package com.cibertec.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de una tarea o un hito vencido (tabla elementos_vencidos). Solo lleva las columnas de la tabla:
+ * el detalle se obtiene con GET /api/tasks/{id} o GET /api/milestones/{id}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueItemDTO {
+
+    private Long id; // ID de la tarea o del hito
+    private Long projectId;
+    private LocalDate dueDate;
+    private LocalDateTime detectedAt; // Escaneo que lo marcó como vencido
+}
@@ -0,0 +1,19 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de un escaneo de vencimientos (POST /api/tasks/overdue/scan).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueScanDTO {
+
+    private long tasksFlagged; // Tareas abiertas con fecha límite pasada registradas (nuevas o modificadas)
+    private long milestonesFlagged;
+    private long flagsCleared; // Marcas retiradas: completadas, con nueva fecha límite o eliminadas
+    private long durationMillis;
+}
@@ -0,0 +1,27 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado del pool de BCrypt (GET /api/admin/metrics/password-hashing).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashMetricsDTO {
+
+    private int strength; // Coste BCrypt configurado
+    private int threads;
+    private int activeWorkers;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected; // Cola llena: respondido con 429 sin encolar
+    private long expired; // Esperaron en la cola más de lo permitido
+    private double avgQueueWaitMs;
+    private long maxQueueWaitMs;
+    private double avgHashMs;
+    private long maxHashMs;
+}
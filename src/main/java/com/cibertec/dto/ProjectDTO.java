@@ -24,4 +24,26 @@ public class ProjectDTO {
     private LocalDateTime createdAt;
     private LocalDateTime lastUpdated;
 
+    // Constructor usado por las proyecciones JPQL de ProjectRepository ("select new ..."):
+    // recibe los datos del gerente en columnas planas y arma el UserDTO anidado.
+    public ProjectDTO(Long id, String name, String description, LocalDate startDate, LocalDate expectedEndDate,
+                      String status, BigDecimal budget, Long managerId, String managerUsername, String managerEmail,
+                      LocalDateTime createdAt, LocalDateTime lastUpdated) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+        this.expectedEndDate = expectedEndDate;
+        this.status = status;
+        this.budget = budget;
+        if (managerId != null) {
+            UserDTO managerDTO = new UserDTO();
+            managerDTO.setId(managerId);
+            managerDTO.setUsername(managerUsername);
+            managerDTO.setEmail(managerEmail);
+            this.projectManager = managerDTO;
+        }
+        this.createdAt = createdAt;
+        this.lastUpdated = lastUpdated;
+    }
 }
\ No newline at end of file
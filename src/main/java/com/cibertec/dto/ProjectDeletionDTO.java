@@ -0,0 +1,31 @@
+package com.cibertec.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el progreso de la eliminación de un proyecto (DELETE /api/projects/{id}?async=true).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletionDTO {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private Long projectId;
+    private String state; // RUNNING, COMPLETED o FAILED
+    private long totalTasks; // Conteo al iniciar la eliminación
+    private long totalMilestones;
+    private long tasksDeleted;
+    private long milestonesDeleted;
+    private long attachmentsDeleted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
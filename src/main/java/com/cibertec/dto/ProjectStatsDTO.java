@@ -0,0 +1,27 @@
+package com.cibertec.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de las estadísticas materializadas de un proyecto (tabla estadisticas_proyectos).
+ * Lectura O(1) por proyecto para vistas de portafolio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatsDTO {
+
+    private Long projectId;
+    private long openTasks;
+    private long closedTasks;
+    private long overdueTasks; // Exacto tras cada escritura; las tareas que vencen por el paso del tiempo se suman en la reconstrucción diaria
+    private long totalMilestones;
+    private long completedMilestones;
+    private long attachmentCount;
+    private long attachmentBytes;
+    private LocalDateTime lastUpdated;
+}
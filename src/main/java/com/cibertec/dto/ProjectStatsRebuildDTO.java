@@ -0,0 +1,23 @@
+package com.cibertec.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una reconstrucción de estadisticas_proyectos: cuántos proyectos se revisaron
+ * y cuáles tenían valores distintos a los recalculados (deriva).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStatsRebuildDTO {
+
+    private long projectsChecked;
+    private long projectsCorrected;
+    private List<Long> driftedProjectIds = new ArrayList<>(); // Muestra acotada de proyectos corregidos
+    private long durationMillis;
+}
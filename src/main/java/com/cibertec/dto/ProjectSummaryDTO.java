@@ -0,0 +1,33 @@
+package com.cibertec.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los indicadores agregados de un proyecto (GET /api/projects/{id}/summary).
+ * Todos los valores se calculan en la base de datos con consultas GROUP BY.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDTO {
+
+    private Long projectId;
+    private long totalTasks;
+    private Map<String, Long> tasksByStatus = new LinkedHashMap<>();
+    private Map<String, Long> tasksByPriority = new LinkedHashMap<>();
+    private long overdueTasks; // Fecha límite vencida y estado distinto de COMPLETADO
+    private long totalMilestones;
+    private long completedMilestones;
+    private double milestoneCompletionRatio; // completados / total (0 si no hay hitos)
+    private long attachmentCount; // Adjuntos del proyecto y de sus tareas
+    private long attachmentTotalBytes;
+
+    public ProjectSummaryDTO(Long projectId) {
+        this.projectId = projectId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una reconstrucción del índice de búsqueda desde la base de datos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchRebuildDTO {
+
+    private long projectsIndexed;
+    private long tasksIndexed;
+    private long milestonesIndexed;
+    private long durationMillis;
+}
@@ -0,0 +1,21 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Un resultado de GET /api/search: tarea, proyecto o hito que coincide con la consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+
+    private String type; // task, project o milestone
+    private Long id;
+    private Long projectId;
+    private String name;
+    private String status;
+    private float score; // Relevancia (BM25 con más peso para coincidencias en el nombre)
+}
@@ -0,0 +1,20 @@
+package com.cibertec.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de GET /api/search: resultados ordenados por relevancia.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultsDTO {
+
+    private long totalHits; // Total de coincidencias (cota inferior si hay muchas)
+    private List<SearchResultDTO> items = new ArrayList<>();
+}
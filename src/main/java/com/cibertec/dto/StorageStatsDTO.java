@@ -0,0 +1,28 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado del almacén de contenidos deduplicado (GET /api/attachments/storage/stats).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStatsDTO {
+
+    private long blobCount; // Contenidos distintos almacenados
+    private long references; // Archivos adjuntos que apuntan a esos contenidos
+    private long storedBytes; // Bytes ocupados en disco
+    private long logicalBytes; // Bytes que ocuparían sin deduplicar
+    private long bytesSaved; // logicalBytes - storedBytes
+    private long unreferencedBlobs; // Pendientes del recolector
+    private long referenceDrift; // Liberaciones con menos referencias de las esperadas desde el arranque (ver BlobReferences)
+
+    // Usado por la consulta de AttachmentBlobRepository; referenceDrift lo completa el servicio
+    public StorageStatsDTO(long blobCount, long references, long storedBytes, long logicalBytes, long bytesSaved,
+                           long unreferencedBlobs) {
+        this(blobCount, references, storedBytes, logicalBytes, bytesSaved, unreferencedBlobs, 0);
+    }
+}
@@ -7,20 +7,34 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class TaskDTO {
 	
 	private Long id;
+
+    // Longitudes de las columnas de 'tareas'
+    @NotBlank(message = "El nombre de la tarea no puede estar vacío")
+    @Size(max = 255, message = "El nombre de la tarea no puede exceder los 255 caracteres")
     private String name;
+
     private String description;
     private LocalDate dueDate;
+
+    @Size(max = 50, message = "El estado no puede exceder los 50 caracteres")
     private String status;
+
+    @Size(max = 20, message = "La prioridad no puede exceder los 20 caracteres")
     private String priority;
+
     private Long projectId; // Solo el ID del proyecto para evitar ciclos
     private Long assignedToId; // Solo el ID del usuario asignado
     private LocalDateTime createdAt;
     private LocalDateTime lastUpdated;
+    private Long version; // Versión para el bloqueo optimista; si se envía en un PUT debe coincidir con la actual
 
 }
@@ -0,0 +1,22 @@
+package com.cibertec.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cambio masivo de estado / prioridad / usuario asignado (POST /api/tasks/transition).
+ * Los campos nulos no se modifican; debe indicarse al menos uno.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionDTO {
+
+    private List<Long> taskIds;
+    private String status;
+    private String priority;
+    private Long assignedToId;
+}
@@ -0,0 +1,19 @@
+package com.cibertec.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de POST /api/tasks/transition: las tareas modificadas por la sentencia UPDATE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTransitionResultDTO {
+
+    private int updated;
+    private List<Long> taskIds;
+}
@@ -0,0 +1,23 @@
+package com.cibertec.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado del generador de miniaturas (GET /api/admin/metrics/thumbnails).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThumbnailMetricsDTO {
+
+    private int queueDepth; // Trabajos esperando en la cola
+    private int queueCapacity;
+    private int activeWorkers;
+    private long generated;
+    private long skipped; // Formatos no soportados o imágenes demasiado grandes
+    private long retried;
+    private long failed; // Agotaron los reintentos
+    private long rejected; // Cola llena: el trabajo se descartó (se vuelve a solicitar en la siguiente descarga)
+}
@@ -10,7 +10,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "archivos_adjuntos")
+@Table(name = "archivos_adjuntos", indexes = {
+        @Index(name = "idx_archivos_adjuntos_hash_contenido", columnList = "hash_contenido")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,6 +33,9 @@ public class Attachment {
     @Column(name = "tamano_bytes")
     private Long sizeBytes;
 
+    @Column(name = "hash_contenido", length = 64) // SHA-256 del contenido subido (null para rutas externas)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "fecha_subida", updatable = false)
     private LocalDateTime uploadedAt;
@@ -40,6 +45,8 @@ public class Attachment {
     @EqualsAndHashCode.Exclude // Excluir para evitar ciclos con User (si User tiene Set<Attachment>)
     private User uploadedBy;
 
+    // Proyecto propietario del adjunto (estadísticas, resúmenes, exportación y archivado): el de su tarea si la tiene;
+    // solo los adjuntos sin tarea pertenecen a su 'project'. Así un adjunto de tarea se mueve siempre con ella.
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tarea_id")
     @EqualsAndHashCode.Exclude // Excluir para evitar ciclos con Task (si Task tiene Set<Attachment>)
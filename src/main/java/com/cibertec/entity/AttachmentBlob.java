@@ -0,0 +1,32 @@
+package com.cibertec.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Contenido almacenado en el BlobStore, identificado por su SHA-256.
+ * 'references' cuenta cuántos archivos adjuntos apuntan a él; con 0 referencias el recolector
+ * (BlobGarbageCollector) elimina la fila y el archivo.
+ */
+@Entity
+@Table(name = "contenidos_adjuntos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentBlob {
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "tamano_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "referencias", nullable = false)
+    private long references;
+
+    @Column(name = "fecha_creacion", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,7 +12,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "hitos")
+@Table(name = "hitos", indexes = {
+        @Index(name = "idx_hitos_completado_fecha_limite", columnList = "completado, fecha_limite"),
+        @Index(name = "idx_hitos_fecha_limite", columnList = "fecha_limite"),
+        // Versión de los hitos de un proyecto (conteo y sumas de id y versión, máximo de fecha) para los GET condicionales
+        @Index(name = "idx_hitos_proyecto_ultima_actualizacion", columnList = "proyecto_id, ultima_actualizacion, version"),
+        // Escaneo incremental de hitos vencidos (OverdueServiceImplement): hitos modificados desde el último escaneo
+        @Index(name = "idx_hitos_ultima_actualizacion", columnList = "ultima_actualizacion")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +54,11 @@ public class Milestone {
     @Column(name = "ultima_actualizacion") // Coincide con tu tabla
     private LocalDateTime lastUpdated;
 
+    // Cambia con cada UPDATE (ultima_actualizacion solo tiene precisión de segundos): base del ETag del hito
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor para inicializar 'completed' a false por defecto si no lo haces en DB
     public Milestone(String name, String description, LocalDate dueDate, Project project) {
         this.name = name;
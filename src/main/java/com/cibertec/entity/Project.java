@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.EqualsAndHashCode; // Importar esta anotación
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -15,11 +17,20 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "proyectos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos") // Caché de segundo nivel (ver application.conf)
+@Table(name = "proyectos", indexes = {
+        @Index(name = "idx_proyectos_estado", columnList = "estado"),
+        @Index(name = "idx_proyectos_fecha_inicio", columnList = "fecha_inicio")
+})
 @Data // Genera getters, setters, toString, equals, hashCode
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
+
+    // Solo los proyectos en este estado pueden archivarse
+    public static final String STATUS_COMPLETED = "COMPLETADO";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -56,6 +67,11 @@ public class Project {
     @Column(name = "ultima_actualizacion")
     private LocalDateTime lastUpdated;
 
+    // Cambia con cada UPDATE (ultima_actualizacion solo tiene precisión de segundos): base del ETag del proyecto
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relaciones @OneToMany: DEBEN ser excluidas de equals/hashCode
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @EqualsAndHashCode.Exclude // Excluir para evitar ConcurrentModificationException/ciclos
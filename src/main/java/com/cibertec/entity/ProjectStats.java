@@ -0,0 +1,51 @@
+package com.cibertec.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Estadísticas materializadas de un proyecto (una fila por proyecto).
+ * Se mantienen con incrementos desde los servicios de tareas, hitos y adjuntos
+ * (ver ProjectStatsRepository.applyDelta) y se recalculan desde cero con la reconstrucción periódica.
+ */
+@Entity
+@Table(name = "estadisticas_proyectos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStats {
+    @Id
+    @Column(name = "proyecto_id")
+    private Long projectId;
+
+    @Column(name = "tareas_abiertas", nullable = false)
+    private long openTasks;
+
+    @Column(name = "tareas_cerradas", nullable = false)
+    private long closedTasks;
+
+    @Column(name = "tareas_vencidas", nullable = false)
+    private long overdueTasks;
+
+    @Column(name = "hitos_total", nullable = false)
+    private long totalMilestones;
+
+    @Column(name = "hitos_completados", nullable = false)
+    private long completedMilestones;
+
+    @Column(name = "adjuntos_total", nullable = false)
+    private long attachmentCount;
+
+    @Column(name = "adjuntos_bytes", nullable = false)
+    private long attachmentBytes;
+
+    @Column(name = "ultima_actualizacion")
+    private LocalDateTime lastUpdated;
+
+    public ProjectStats(Long projectId) {
+        this.projectId = projectId;
+    }
+}
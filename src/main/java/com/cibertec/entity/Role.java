@@ -4,8 +4,12 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles") // Caché de segundo nivel (ver application.conf)
 @Table(name = "roles")
 @Data // Genera getters, setters, toString, equals, hashCode
 @NoArgsConstructor // Genera constructor sin argumentos
@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode; // Importar esta anotación
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -14,11 +15,28 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tareas")
+@Table(name = "tareas", indexes = {
+        // Índices compuestos para los filtros combinados de búsqueda (InnoDB añade el id al final de cada índice,
+        // por lo que también sirven para la paginación keyset "id > ? ORDER BY id")
+        @Index(name = "idx_tareas_proyecto_estado", columnList = "proyecto_id, estado"),
+        @Index(name = "idx_tareas_asignado_fecha_limite", columnList = "asignado_a_usuario_id, fecha_limite"),
+        @Index(name = "idx_tareas_estado", columnList = "estado"),
+        @Index(name = "idx_tareas_prioridad", columnList = "prioridad"),
+        // Versión de las tareas de un proyecto (conteo y sumas de id y versión, máximo de fecha) para los GET condicionales
+        @Index(name = "idx_tareas_proyecto_ultima_actualizacion", columnList = "proyecto_id, ultima_actualizacion, version"),
+        // Escaneo incremental de tareas vencidas (OverdueServiceImplement): rangos por fecha límite y por modificación
+        @Index(name = "idx_tareas_fecha_limite", columnList = "fecha_limite"),
+        @Index(name = "idx_tareas_ultima_actualizacion", columnList = "ultima_actualizacion")
+})
+@DynamicUpdate // El UPDATE incluye solo las columnas modificadas (PATCH de un campo = UPDATE de un campo)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
+
+    // Estado que marca una tarea como cerrada (el resto de estados se consideran abiertos)
+    public static final String STATUS_COMPLETED = "COMPLETADO";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -57,6 +75,11 @@ public class Task {
     @Column(name = "ultima_actualizacion")
     private LocalDateTime lastUpdated;
 
+    // Bloqueo optimista: cada UPDATE comprueba y aumenta la versión, así dos ediciones concurrentes no se pisan
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @EqualsAndHashCode.Exclude // Excluir para evitar ConcurrentModificationException/ciclos
     private Set<Attachment> attachments = new HashSet<>();
@@ -4,14 +4,19 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.EqualsAndHashCode; // Importar esta anotación
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set; // Si tienes colecciones OneToMany
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios") // Caché de segundo nivel (ver application.conf)
 @Table(name = "usuarios")
 @Data
 @NoArgsConstructor
@@ -40,6 +45,15 @@ public class User {
     @Column(name = "fecha_creacion", updatable = false)
     private LocalDateTime createdAt;
 
+    // Forman parte de la versión (ETag y Last-Modified) de los proyectos que gestiona: su ProjectDTO incluye nombre y email del gerente
+    @UpdateTimestamp
+    @Column(name = "ultima_actualizacion")
+    private LocalDateTime lastUpdated;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "activo", nullable = false)
     private Boolean active = true;
 
@@ -0,0 +1,27 @@
+package com.cibertec.event;
+
+/**
+ * Evento de dominio publicado por los servicios cuando cambia una tarea, un hito o el propio proyecto.
+ * ProjectEventBus lo recibe solo si la transacción se confirma y lo envía a los suscriptores
+ * de GET /api/projects/{projectId}/events.
+ * @param data DTO con el estado nuevo (TaskDTO, MilestoneDTO o ProjectDTO); en 'bulk' la lista de IDs de tareas; null al eliminar o archivar.
+ */
+public record ProjectChangeEvent(Long projectId, String entityType, String action, Long entityId, Object data) {
+
+    public static final String TASK = "task";
+    public static final String MILESTONE = "milestone";
+    public static final String PROJECT = "project";
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String REMOVED = "removed"; // La tarea o el hito se movió a otro proyecto
+    public static final String BULK = "bulk"; // Carga masiva: los clientes vuelven a leer las tareas indicadas
+    public static final String ARCHIVED = "archived"; // El proyecto y sus filas pasaron a las tablas de archivo
+    public static final String RESTORED = "restored";
+
+    /** Nombre del evento SSE, por ejemplo 'task.updated'. */
+    public String eventName() {
+        return entityType + "." + action;
+    }
+}
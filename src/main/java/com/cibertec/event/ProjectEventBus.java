@@ -0,0 +1,175 @@
+package com.cibertec.event;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cibertec.dto.EventStreamMetricsDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bus en memoria que reparte los ProjectChangeEvent confirmados entre los suscriptores SSE de cada proyecto.
+ * Cada suscriptor tiene su propia cola acotada y se vacía en un hilo virtual: quien publica (el hilo que hizo
+ * el commit) nunca espera a la red. Si un cliente lento llena su cola, se le desconecta; EventSource vuelve
+ * a conectarse solo y el cliente recarga el estado completo una vez.
+ */
+@Component
+public class ProjectEventBus {
+
+    private final Map<Long, Set<Subscriber>> subscribersByProject = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public SseEmitter subscribe(Long projectId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream subscribers, try again later.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(projectId, emitter);
+        subscribersByProject.compute(projectId, (id, subscribers) -> {
+            Set<Subscriber> target = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    // Solo eventos de transacciones confirmadas; sin transacción (p. ej. un job) se entregan de inmediato
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChange(ProjectChangeEvent event) {
+        published.increment();
+        Set<Subscriber> subscribers = subscribersByProject.get(event.projectId());
+        if (subscribers == null) {
+            return;
+        }
+        String id = Long.toString(sequence.incrementAndGet());
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().id(id).name(event.eventName()).data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Mantiene viva la conexión a través de proxies y detecta clientes desconectados
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : subscribersByProject.values()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    public EventStreamMetricsDTO getMetrics() {
+        return new EventStreamMetricsDTO(subscriberCount.get(), subscribersByProject.size(), bufferSize,
+                published.sum(), delivered.sum(), evicted.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> subscribers : subscribersByProject.values()) {
+            subscribers.forEach(Subscriber::close);
+        }
+        dispatcher.shutdown();
+    }
+
+    private final class Subscriber {
+
+        private final Long projectId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long projectId, SseEmitter emitter) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Cliente lento: se desconecta en lugar de acumular eventos sin límite
+                evicted.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    SseEmitter.SseEventBuilder event = queue.poll();
+                    if (event == null) {
+                        draining.set(false);
+                        // Un evento pudo llegar entre poll() y set(false) sin lanzar otro drenado
+                        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    emitter.send(event);
+                    delivered.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Conexión cerrada por el cliente o emisor ya completado
+                close();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribersByProject.computeIfPresent(projectId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            subscriberCount.decrementAndGet();
+            queue.clear();
+            // complete() puede esperar a un send() bloqueado: nunca en el hilo que publica
+            dispatcher.execute(emitter::complete);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.cibertec.exception;
 
 import com.cibertec.dto.ErrorDetails; // Importar el DTO para los detalles del error
+import com.cibertec.security.PasswordHashingRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // Importar para manejar AccessDeniedException
@@ -36,6 +39,82 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Maneja excepciones BadRequestException.
+     * Esta excepción se lanza cuando los parámetros de la solicitud son inválidos (por ejemplo, un cursor de paginación corrupto).
+     * @param exception La excepción BadRequestException que se ha lanzado.
+     * @param webRequest La solicitud web actual.
+     * @return ResponseEntity con los detalles del error y el estado HTTP 400 (BAD_REQUEST).
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorDetails> handleBadRequestException(
+            BadRequestException exception,
+            WebRequest webRequest){
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(), webRequest.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones ConflictException.
+     * Esta excepción se lanza cuando la versión enviada por el cliente no es la actual (otra edición se guardó antes).
+     * @param exception La excepción ConflictException que se ha lanzado.
+     * @param webRequest La solicitud web actual.
+     * @return ResponseEntity con los detalles del error y el estado HTTP 409 (CONFLICT).
+     */
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorDetails> handleConflictException(
+            ConflictException exception,
+            WebRequest webRequest){
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(), webRequest.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones OptimisticLockingFailureException.
+     * Hibernate la lanza al guardar si otra transacción modificó la fila entre la lectura y el UPDATE (@Version).
+     * @param exception La excepción OptimisticLockingFailureException que se ha lanzado.
+     * @param webRequest La solicitud web actual.
+     * @return ResponseEntity con los detalles del error y el estado HTTP 409 (CONFLICT).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException exception,
+            WebRequest webRequest){
+        ErrorDetails errorDetails = new ErrorDetails(new Date(),
+                "The resource was modified concurrently. Reload it and try again.", webRequest.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones PreconditionFailedException.
+     * Esta excepción se lanza cuando la cabecera If-Match no coincide con el ETag actual del recurso.
+     * @param exception La excepción PreconditionFailedException que se ha lanzado.
+     * @param webRequest La solicitud web actual.
+     * @return ResponseEntity con los detalles del error y el estado HTTP 412 (PRECONDITION_FAILED).
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailedException(
+            PreconditionFailedException exception,
+            WebRequest webRequest){
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(), webRequest.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Maneja excepciones PasswordHashingRejectedException.
+     * Esta excepción se lanza cuando el pool de BCrypt está saturado al crear o modificar la contraseña de un usuario.
+     * @param exception La excepción PasswordHashingRejectedException que se ha lanzado.
+     * @param webRequest La solicitud web actual.
+     * @return ResponseEntity con los detalles del error y el estado HTTP 429 (TOO_MANY_REQUESTS).
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorDetails> handlePasswordHashingRejectedException(
+            PasswordHashingRejectedException exception,
+            WebRequest webRequest){
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), exception.getMessage(), webRequest.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(errorDetails);
+    }
+
     /**
      * Maneja excepciones AccessDeniedException.
      * Esta excepción se lanza cuando un usuario autenticado intenta acceder a un recurso sin los permisos necesarios.
@@ -0,0 +1,45 @@
+package com.cibertec.export;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.cibertec.exception.BadRequestException;
+
+/**
+ * Formatos de GET /api/projects/{id}/export.
+ */
+public enum ExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static ExportFormat parse(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format '" + format + "'. Use 'ndjson' or 'csv'.");
+        }
+    }
+
+    public ExportRowWriter open(OutputStream outputStream) {
+        return this == CSV ? new CsvExportRowWriter(outputStream) : new NdjsonExportRowWriter(outputStream);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,43 @@
+package com.cibertec.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escribe las filas de una exportación directamente en el flujo de la respuesta, con un búfer de tamaño fijo.
+ * Todas las filas (tareas, hitos y adjuntos) comparten las columnas de COLUMNS; 'type' indica el tipo de fila
+ * y las columnas que no aplican van vacías. close() vacía el búfer pero no cierra el flujo de la respuesta.
+ */
+public interface ExportRowWriter extends Closeable {
+
+    String TASK = "task";
+    String MILESTONE = "milestone";
+    String ATTACHMENT = "attachment";
+
+    String[] COLUMNS = {
+            "type", "id", "projectId", "taskId", "name", "description", "status", "priority", "dueDate",
+            "completed", "assignedToId", "fileName", "contentType", "sizeBytes", "uploadedById", "createdAt", "lastUpdated"
+    };
+
+    // Posiciones en COLUMNS (el arreglo de valores de cada fila se indexa con ellas)
+    int TYPE = 0;
+    int ID = 1;
+    int PROJECT_ID = 2;
+    int TASK_ID = 3;
+    int NAME = 4;
+    int DESCRIPTION = 5;
+    int STATUS = 6;
+    int PRIORITY = 7;
+    int DUE_DATE = 8;
+    int COMPLETED = 9;
+    int ASSIGNED_TO_ID = 10;
+    int FILE_NAME = 11;
+    int CONTENT_TYPE = 12;
+    int SIZE_BYTES = 13;
+    int UPLOADED_BY_ID = 14;
+    int CREATED_AT = 15;
+    int LAST_UPDATED = 16;
+
+    /** @param values Valores indexados como COLUMNS; el arreglo se reutiliza entre filas. */
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,56 @@
+package com.cibertec.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.temporal.Temporal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * NDJSON: un objeto JSON por línea, sin las columnas nulas. El JsonGenerator escribe con su propio búfer fijo.
+ */
+class NdjsonExportRowWriter implements ExportRowWriter {
+
+    // Sin el espacio que Jackson escribe por defecto entre valores raíz: cada línea empieza con '{'
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().setRootValueSeparator(null);
+
+    private final JsonGenerator generator;
+
+    NdjsonExportRowWriter(OutputStream outputStream) {
+        try {
+            this.generator = JSON_FACTORY.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            generator.writeFieldName(COLUMNS[i]);
+            if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                generator.writeBoolean(flag);
+            } else if (value instanceof Temporal) {
+                generator.writeString(value.toString()); // ISO-8601, igual que los DTO
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
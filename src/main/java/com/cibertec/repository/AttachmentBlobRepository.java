@@ -0,0 +1,63 @@
+package com.cibertec.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.cibertec.dto.StorageStatsDTO;
+import com.cibertec.entity.AttachmentBlob;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    /**
+     * Suma una referencia al contenido (crea la fila si es la primera). La sentencia bloquea la fila,
+     * de modo que no puede ejecutarse a la vez que el recolector elimina ese mismo contenido.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "contenidos_adjuntos"))
+    @Query(nativeQuery = true, value = "INSERT INTO contenidos_adjuntos (hash, tamano_bytes, referencias, fecha_creacion) "
+            + "VALUES (:hash, :sizeBytes, 1, NOW()) ON DUPLICATE KEY UPDATE referencias = referencias + 1")
+    int addReference(@Param("hash") String hash, @Param("sizeBytes") long sizeBytes);
+
+    // Devuelve 0 si el conteo se había desviado (menos referencias que las liberadas): ver clearReferences
+    @Modifying
+    @Query("update AttachmentBlob b set b.references = b.references - :count where b.hash = :hash and b.references >= :count")
+    int removeReferences(@Param("hash") String hash, @Param("count") long count);
+
+    // Deja en 0 un conteo desviado para que el recolector pueda eliminar el contenido
+    @Modifying
+    @Query("update AttachmentBlob b set b.references = 0 where b.hash = :hash and b.references > 0")
+    int clearReferences(@Param("hash") String hash);
+
+    // Candidatos para el recolector (se vuelven a comprobar con bloqueo antes de borrar)
+    @Query("select b.hash from AttachmentBlob b where b.references <= 0 and b.hash > :afterHash order by b.hash")
+    List<String> findUnreferencedHashes(@Param("afterHash") String afterHash, Pageable pageable);
+
+    // Además del conteo, comprueba que ningún adjunto (activo o archivado) use el contenido: un conteo desviado
+    // que se dejó en 0 (clearReferences) no puede hacer que se borre un archivo en uso
+    @Query(nativeQuery = true, value = "SELECT b.* FROM contenidos_adjuntos b WHERE b.hash = :hash AND b.referencias <= 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM archivos_adjuntos a WHERE a.hash_contenido = b.hash) "
+            + "AND NOT EXISTS (SELECT 1 FROM archivos_adjuntos_archivados a WHERE a.hash_contenido = b.hash) FOR UPDATE")
+    Optional<AttachmentBlob> lockIfUnreferenced(@Param("hash") String hash);
+
+    // Bloquea la fila o, si no existe, el hueco del índice: una subida del mismo contenido espera en su INSERT
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from AttachmentBlob b where b.hash = :hash")
+    Optional<AttachmentBlob> lockByHash(@Param("hash") String hash);
+
+    @Query("select new com.cibertec.dto.StorageStatsDTO(count(b), coalesce(sum(b.references), 0), coalesce(sum(b.sizeBytes), 0), "
+            + "coalesce(sum(b.sizeBytes * b.references), 0), coalesce(sum(b.sizeBytes * b.references), 0) - coalesce(sum(b.sizeBytes), 0), "
+            + "coalesce(sum(case when b.references <= 0 then 1 else 0 end), 0)) from AttachmentBlob b")
+    StorageStatsDTO getStorageStats();
+}
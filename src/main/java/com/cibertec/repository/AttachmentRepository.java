@@ -1,11 +1,21 @@
 package com.cibertec.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cibertec.dto.AttachmentDTO;
 import com.cibertec.entity.Attachment;
+import com.cibertec.repository.projection.AttachmentTotals;
+import com.cibertec.repository.projection.ContentHashCount;
+import com.cibertec.repository.projection.TaskAttachmentTotals;
 
 @Repository
 public interface AttachmentRepository extends JpaRepository<Attachment, Long>{
@@ -15,4 +25,85 @@ public interface AttachmentRepository extends JpaRepository<Attachment, Long>{
 	List<Attachment> findByUploadedById(Long uploadedById);
 	List<Attachment> findByContentType(String contentType);
 
+	// --- Proyecciones a AttachmentDTO (una sola consulta, sin hidratar User/Task/Project LAZY) ---
+	// Paginación por cursor (keyset): id > afterId ORDER BY id, limitado por el Pageable
+
+	String ATTACHMENT_DTO_SELECT = "select new com.cibertec.dto.AttachmentDTO(a.id, a.fileName, a.contentType, a.storagePath, a.sizeBytes, "
+			+ "a.uploadedAt, a.uploadedBy.id, t.id, p.id, a.contentHash) from Attachment a left join a.task t left join a.project p ";
+
+	@Query(ATTACHMENT_DTO_SELECT + "where a.id = :id")
+	Optional<AttachmentDTO> findDtoById(@Param("id") Long id);
+
+	@Query(ATTACHMENT_DTO_SELECT + "where a.id > :afterId order by a.id")
+	List<AttachmentDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	// --- Agregado para el resumen de proyectos (propietario de cada adjunto: ver Attachment.task) ---
+	// Dos agregados que usan cada uno su índice: adjuntos sin tarea por proyecto_id, y adjuntos de las tareas
+	// del proyecto por tarea_id. Un OR entre ambos caminos obligaría a recorrer la tabla completa.
+	@Query(nativeQuery = true, value = "SELECT x.projectId AS projectId, CAST(SUM(x.total) AS SIGNED) AS total, "
+			+ "CAST(SUM(x.totalBytes) AS SIGNED) AS totalBytes FROM ("
+			+ "SELECT a.proyecto_id AS projectId, COUNT(*) AS total, COALESCE(SUM(a.tamano_bytes), 0) AS totalBytes "
+			+ "FROM archivos_adjuntos a WHERE a.proyecto_id IN (:projectIds) AND a.tarea_id IS NULL GROUP BY a.proyecto_id "
+			+ "UNION ALL SELECT t.proyecto_id, COUNT(*), COALESCE(SUM(a.tamano_bytes), 0) "
+			+ "FROM tareas t JOIN archivos_adjuntos a ON a.tarea_id = t.id WHERE t.proyecto_id IN (:projectIds) GROUP BY t.proyecto_id"
+			+ ") x GROUP BY x.projectId")
+	List<AttachmentTotals> totalsByProject(@Param("projectIds") Collection<Long> projectIds);
+
+	// Adjuntos de una tarea: todos cuentan para el proyecto de la tarea (se eliminan en cascada con ella)
+	@Query("select t.project.id as projectId, count(a) as total, coalesce(sum(a.sizeBytes), 0) as totalBytes "
+			+ "from Attachment a join a.task t where t.id = :taskId group by t.project.id")
+	List<AttachmentTotals> totalsByTaskId(@Param("taskId") Long taskId);
+
+	// Adjuntos de varias tareas: cuentan para el proyecto de su tarea y se mueven con ella
+	@Query("select a.task.id as taskId, count(a) as total, coalesce(sum(a.sizeBytes), 0) as totalBytes "
+			+ "from Attachment a where a.task.id in :taskIds group by a.task.id")
+	List<TaskAttachmentTotals> totalsByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+	// --- Referencias al contenido deduplicado de los adjuntos que se eliminan en cascada ---
+
+	@Query("select a.contentHash as contentHash, count(a) as total from Attachment a "
+			+ "where a.task.id = :taskId and a.contentHash is not null group by a.contentHash")
+	List<ContentHashCount> countContentHashesByTaskId(@Param("taskId") Long taskId);
+
+	// Adjuntos que se eliminan con el proyecto: los de sus tareas y los suyos sin tarea (ver Attachment.task)
+	@Query("select a.contentHash as contentHash, count(a) as total from Attachment a left join a.task t "
+			+ "where ((a.project.id = :projectId and a.task is null) or t.project.id = :projectId) and a.contentHash is not null "
+			+ "group by a.contentHash")
+	List<ContentHashCount> countContentHashesByProjectId(@Param("projectId") Long projectId);
+
+	// --- Eliminación de proyectos con sentencias por conjunto (sin cargar las entidades ni recorrer las cascadas) ---
+
+	@Query("select a.contentHash as contentHash, count(a) as total from Attachment a "
+			+ "where a.task.id in :taskIds and a.contentHash is not null group by a.contentHash")
+	List<ContentHashCount> countContentHashesByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+	@Query("select a.contentHash as contentHash, count(a) as total from Attachment a "
+			+ "where a.id in :ids and a.contentHash is not null group by a.contentHash")
+	List<ContentHashCount> countContentHashesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("select a.id from Attachment a where a.project.id = :projectId and a.task is null order by a.id")
+	List<Long> findIdsByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Attachment a where a.task.id in :taskIds")
+	int bulkDeleteByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Attachment a where a.id in :ids")
+	int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	// Adjuntos de las tareas del proyecto y adjuntos del propio proyecto sin tarea
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Attachment a where a.task.id in (select t.id from Task t where t.project.id = :projectId)")
+	int bulkDeleteByTaskProjectId(@Param("projectId") Long projectId);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Attachment a where a.project.id = :projectId and a.task is null")
+	int bulkDeleteByProjectId(@Param("projectId") Long projectId);
+
+	// Los adjuntos de tareas de otros proyectos pertenecen a su tarea: al eliminar el proyecto solo pierden el proyecto_id
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Attachment a set a.project = null where a.project.id = :projectId and a.task is not null")
+	int detachFromProject(@Param("projectId") Long projectId);
+
 }
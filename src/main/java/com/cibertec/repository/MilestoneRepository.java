@@ -1,12 +1,122 @@
 package com.cibertec.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cibertec.dto.MilestoneDTO;
 import com.cibertec.entity.Milestone;
+import com.cibertec.repository.projection.CollectionVersion;
+import com.cibertec.repository.projection.MilestoneProgress;
+import com.cibertec.repository.projection.VersionedEntityVersion;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.util.SparseFieldset;
 
 public interface MilestoneRepository extends JpaRepository<Milestone, Long> {
     List<Milestone> findByProjectId(Long projectId);
     List<Milestone> findByCompleted(Boolean completed); // <-- ¡Cambiado! Buscar por campo 'completed'
     List<Milestone> findByDueDateLessThanEqual(LocalDate dueDate);
-}
\ No newline at end of file
+
+    // --- Proyecciones a MilestoneDTO (una sola consulta, sin hidratar el Project LAZY) ---
+    // Paginación por cursor (keyset): id > afterId ORDER BY id, limitado por el Pageable
+
+    String MILESTONE_DTO_SELECT = "select new com.cibertec.dto.MilestoneDTO(m.id, m.name, m.description, m.dueDate, m.completed, "
+            + "m.project.id, m.createdAt, m.lastUpdated) from Milestone m ";
+
+    // Campos y filtros de GET /api/milestones?fields=... (ver SparseFieldsetRepository)
+    SparseFieldset MILESTONE_FIELDS = new SparseFieldset("from Milestone m", "m.id", List.of(
+            SparseFieldset.column("id", "m.id"),
+            SparseFieldset.column("name", "m.name"),
+            SparseFieldset.column("description", "m.description"),
+            SparseFieldset.column("dueDate", "m.dueDate"),
+            SparseFieldset.column("completed", "m.completed"),
+            SparseFieldset.column("projectId", "m.project.id"),
+            SparseFieldset.column("createdAt", "m.createdAt"),
+            SparseFieldset.column("lastUpdated", "m.lastUpdated")),
+            Map.of("projectId", "m.project.id = :projectId",
+                    "completed", "m.completed = :completed",
+                    "dueDate", "m.dueDate <= :dueDate"));
+
+    @Query(MILESTONE_DTO_SELECT + "where m.id = :id")
+    Optional<MilestoneDTO> findDtoById(@Param("id") Long id);
+
+    @Query(MILESTONE_DTO_SELECT + "where m.id > :afterId order by m.id")
+    List<MilestoneDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(MILESTONE_DTO_SELECT + "where m.project.id = :projectId and m.id > :afterId order by m.id")
+    List<MilestoneDTO> findDtoPageByProjectId(@Param("projectId") Long projectId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(MILESTONE_DTO_SELECT + "where m.completed = :completed and m.id > :afterId order by m.id")
+    List<MilestoneDTO> findDtoPageByCompleted(@Param("completed") Boolean completed, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Filtros por fecha límite: keyset por (fecha_limite, id), el orden de los índices (fecha_limite) y
+    // (completado, fecha_limite) con el id que añade InnoDB, así que el rango se lee en orden y sin filesort
+
+    @Query(MILESTONE_DTO_SELECT + "where m.dueDate <= :dueDate "
+            + "and (m.dueDate > :afterDueDate or (m.dueDate = :afterDueDate and m.id > :afterId)) order by m.dueDate, m.id")
+    List<MilestoneDTO> findDtoPageByDueDateUntil(@Param("dueDate") LocalDate dueDate, @Param("afterDueDate") LocalDate afterDueDate,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(MILESTONE_DTO_SELECT + "where m.completed = :completed and m.dueDate <= :dueDate "
+            + "and (m.dueDate > :afterDueDate or (m.dueDate = :afterDueDate and m.id > :afterId)) order by m.dueDate, m.id")
+    List<MilestoneDTO> findDtoPageByCompletedAndDueDateUntil(@Param("completed") Boolean completed, @Param("dueDate") LocalDate dueDate,
+            @Param("afterDueDate") LocalDate afterDueDate, @Param("afterId") Long afterId, Pageable pageable);
+
+    // --- Agregado para el resumen de proyectos ---
+    @Query("select m.project.id as projectId, count(m) as total, "
+            + "sum(case when m.completed = true then 1 else 0 end) as completed "
+            + "from Milestone m where m.project.id in :projectIds group by m.project.id")
+    List<MilestoneProgress> progressByProject(@Param("projectIds") Collection<Long> projectIds);
+
+    // --- Eliminación de proyectos con sentencias por conjunto ---
+
+    long countByProjectId(Long projectId);
+
+    @Query("select m.id from Milestone m where m.project.id = :projectId order by m.id")
+    List<Long> findIdsByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Milestone m where m.id in :ids")
+    int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Milestone m where m.project.id = :projectId")
+    int bulkDeleteByProjectId(@Param("projectId") Long projectId);
+
+    // --- Consultas de versión para ETag / Last-Modified (GET condicionales) ---
+
+    String MILESTONE_COLLECTION_VERSION = "select count(m) as total, coalesce(sum(m.id), 0) as idSum, coalesce(sum(m.version), 0) as versionSum, "
+            + "max(m.lastUpdated) as lastUpdated from Milestone m ";
+
+    @Query("select m.id as id, m.version as version, m.lastUpdated as lastUpdated from Milestone m where m.id = :id")
+    Optional<VersionedEntityVersion> findVersionById(@Param("id") Long id);
+
+    // Versión de una página del listado completo: solo se leen las filas del rango de ids (afterId, untilId] de la página
+    @Query("select m.id from Milestone m where m.id > :afterId order by m.id")
+    List<Long> findIdPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(MILESTONE_COLLECTION_VERSION + "where m.id > :afterId and m.id <= :untilId")
+    CollectionVersion findVersionByIdRange(@Param("afterId") Long afterId, @Param("untilId") Long untilId);
+
+    @Query(MILESTONE_COLLECTION_VERSION + "where m.project.id = :projectId")
+    CollectionVersion findVersionByProjectId(@Param("projectId") Long projectId);
+
+    // Recorrido por bloques para reconstruir el índice de búsqueda
+    @Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.MILESTONE + "', m.id, m.project.id, m.name, m.description, "
+            + "case when m.completed = true then '" + SearchDocument.MILESTONE_COMPLETED + "' else '" + SearchDocument.MILESTONE_PENDING + "' end) "
+            + "from Milestone m where m.id > :afterId order by m.id")
+    List<SearchDocument> findSearchDocumentPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.MILESTONE + "', m.id, m.project.id, m.name, m.description, "
+            + "case when m.completed = true then '" + SearchDocument.MILESTONE_COMPLETED + "' else '" + SearchDocument.MILESTONE_PENDING + "' end) "
+            + "from Milestone m where m.project.id = :projectId")
+    List<SearchDocument> findSearchDocumentsByProjectId(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,145 @@
+package com.cibertec.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cibertec.dto.OverdueItemDTO;
+import com.cibertec.entity.Task;
+
+/**
+ * Acceso a elementos_vencidos y a los rangos de tareas/hitos que recorre el escaneo de vencimientos
+ * (ver db/overdue_items.sql). Todas las consultas de escaneo son rangos keyset sobre un índice
+ * (fecha_limite, id) o (ultima_actualizacion, id) limitados a un bloque: ninguna recorre la tabla completa.
+ */
+@Repository
+public class OverdueItemRepository {
+
+    public static final String TASK = "task";
+    public static final String MILESTONE = "milestone";
+
+    // Fecha mínima de MySQL: punto de partida del primer escaneo
+    public static final LocalDate SCAN_START = LocalDate.of(1000, 1, 1);
+
+    private static final String DUE_RANGE_SQL = "SELECT s.id, s.proyecto_id, s.fecha_limite, s.ultima_actualizacion FROM %s s "
+            + "WHERE %s AND (s.fecha_limite > ? OR (s.fecha_limite = ? AND s.id > ?)) AND s.fecha_limite < ? "
+            + "ORDER BY s.fecha_limite, s.id LIMIT ?";
+
+    private static final String UPDATED_RANGE_SQL = "SELECT s.id, s.proyecto_id, s.fecha_limite, s.ultima_actualizacion FROM %s s "
+            + "WHERE %s AND (s.ultima_actualizacion > ? OR (s.ultima_actualizacion = ? AND s.id > ?)) AND s.fecha_limite < ? "
+            + "ORDER BY s.ultima_actualizacion, s.id LIMIT ?";
+
+    // Si el elemento ya estaba marcado se actualizan el proyecto y la fecha límite (pudieron cambiar)
+    private static final String FLAG_SQL = "INSERT INTO elementos_vencidos (tipo, elemento_id, proyecto_id, fecha_limite, fecha_deteccion) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE proyecto_id = VALUES(proyecto_id), fecha_limite = VALUES(fecha_limite)";
+
+    private static final String FLAGGED_ID_PAGE_SQL = "SELECT elemento_id FROM elementos_vencidos WHERE tipo = ? AND elemento_id > ? "
+            + "ORDER BY elemento_id LIMIT ?";
+
+    // Marcas de un rango de ids cuyo elemento ya no está vencido: eliminado, cerrado o con fecha límite futura
+    private static final String CLEAR_RESOLVED_SQL = "DELETE e FROM elementos_vencidos e LEFT JOIN %s s ON s.id = e.elemento_id "
+            + "WHERE e.tipo = ? AND e.elemento_id > ? AND e.elemento_id <= ? "
+            + "AND (s.id IS NULL OR NOT (%s) OR s.fecha_limite IS NULL OR s.fecha_limite >= ?)";
+
+    private static final String ITEM_SELECT = "SELECT elemento_id, proyecto_id, fecha_limite, fecha_deteccion FROM elementos_vencidos ";
+    private static final String PAGE_SQL = ITEM_SELECT + "WHERE tipo = ? AND elemento_id > ? ORDER BY elemento_id LIMIT ?";
+    private static final String PROJECT_PAGE_SQL = ITEM_SELECT + "WHERE tipo = ? AND proyecto_id = ? AND elemento_id > ? "
+            + "ORDER BY elemento_id LIMIT ?";
+
+    private static final String FIND_SCAN_STATE_SQL = "SELECT fecha_limite_hasta, ultimo_escaneo FROM escaneo_vencimientos WHERE tipo = ?";
+    private static final String SAVE_SCAN_STATE_SQL = "INSERT INTO escaneo_vencimientos (tipo, fecha_limite_hasta, ultimo_escaneo) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE fecha_limite_hasta = VALUES(fecha_limite_hasta), ultimo_escaneo = VALUES(ultimo_escaneo)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OverdueItemRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Tarea o hito abierto con fecha límite pasada, leído por el escaneo. */
+    public record OverdueCandidate(Long id, Long projectId, LocalDate dueDate, LocalDateTime lastUpdated) {
+    }
+
+    /** Marca de agua de un tipo: fechas límite anteriores a 'dueBefore' ya recorridas. */
+    public record ScanState(LocalDate dueBefore, LocalDateTime lastScanStartedAt) {
+    }
+
+    /**
+     * Siguiente bloque de elementos abiertos con fecha límite en el rango [(afterDueDate, afterId), dueBefore).
+     */
+    public List<OverdueCandidate> findOpenByDueDate(String type, LocalDate afterDueDate, long afterId, LocalDate dueBefore, int limit) {
+        return jdbcTemplate.query(String.format(DUE_RANGE_SQL, table(type), openCondition(type)), OverdueItemRepository::toCandidate,
+                afterDueDate, afterDueDate, afterId, dueBefore, limit);
+    }
+
+    /**
+     * Siguiente bloque de elementos abiertos y ya vencidos modificados desde (afterUpdated, afterId):
+     * recoge las tareas reabiertas o cuya fecha límite se movió al pasado, que el rango por fecha ya dejó atrás.
+     */
+    public List<OverdueCandidate> findOpenUpdatedSince(String type, LocalDateTime afterUpdated, long afterId, LocalDate dueBefore, int limit) {
+        return jdbcTemplate.query(String.format(UPDATED_RANGE_SQL, table(type), openCondition(type)), OverdueItemRepository::toCandidate,
+                afterUpdated, afterUpdated, afterId, dueBefore, limit);
+    }
+
+    public void flag(String type, List<OverdueCandidate> candidates, LocalDateTime detectedAt) {
+        jdbcTemplate.batchUpdate(FLAG_SQL, candidates, candidates.size(), (ps, candidate) -> {
+            ps.setString(1, type);
+            ps.setLong(2, candidate.id());
+            ps.setLong(3, candidate.projectId());
+            ps.setObject(4, candidate.dueDate());
+            ps.setObject(5, detectedAt);
+        });
+    }
+
+    public List<Long> findFlaggedIdPage(String type, long afterId, int limit) {
+        return jdbcTemplate.queryForList(FLAGGED_ID_PAGE_SQL, Long.class, type, afterId, limit);
+    }
+
+    /**
+     * Retira las marcas con id en (afterId, lastId] que ya no corresponden a un elemento vencido.
+     */
+    public int clearResolved(String type, long afterId, long lastId, LocalDate today) {
+        return jdbcTemplate.update(String.format(CLEAR_RESOLVED_SQL, table(type), openCondition(type)), type, afterId, lastId, today);
+    }
+
+    // Paginación por cursor (keyset): elemento_id > afterId ORDER BY elemento_id, limitado por el Pageable
+    public List<OverdueItemDTO> findPage(String type, Long projectId, Long afterId, Pageable pageable) {
+        if (projectId == null) {
+            return jdbcTemplate.query(PAGE_SQL, OverdueItemRepository::toDto, type, afterId, pageable.getPageSize());
+        }
+        return jdbcTemplate.query(PROJECT_PAGE_SQL, OverdueItemRepository::toDto, type, projectId, afterId, pageable.getPageSize());
+    }
+
+    public Optional<ScanState> findScanState(String type) {
+        return jdbcTemplate.query(FIND_SCAN_STATE_SQL, (rs, rowNum) -> new ScanState(rs.getObject(1, LocalDate.class),
+                rs.getObject(2, LocalDateTime.class)), type).stream().findFirst();
+    }
+
+    public void saveScanState(String type, LocalDate dueBefore, LocalDateTime scanStartedAt) {
+        jdbcTemplate.update(SAVE_SCAN_STATE_SQL, type, dueBefore, scanStartedAt);
+    }
+
+    private static String table(String type) {
+        return TASK.equals(type) ? "tareas" : "hitos";
+    }
+
+    // Mismo criterio que ProjectStatsDelta.isOverdue: las tareas COMPLETADO y los hitos completados no vencen
+    private static String openCondition(String type) {
+        return TASK.equals(type) ? "s.estado <> '" + Task.STATUS_COMPLETED + "'" : "s.completado = FALSE";
+    }
+
+    private static OverdueCandidate toCandidate(ResultSet rs, int rowNum) throws SQLException {
+        return new OverdueCandidate(rs.getLong(1), rs.getLong(2), rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDateTime.class));
+    }
+
+    private static OverdueItemDTO toDto(ResultSet rs, int rowNum) throws SQLException {
+        return new OverdueItemDTO(rs.getLong(1), rs.getLong(2), rs.getObject(3, LocalDate.class), rs.getObject(4, LocalDateTime.class));
+    }
+}
@@ -0,0 +1,149 @@
+package com.cibertec.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cibertec.dto.ArchivedProjectDTO;
+
+/**
+ * Copia un proyecto con sus tareas, hitos y adjuntos entre las tablas activas y las de archivo
+ * (ver db/project_archive.sql) con sentencias INSERT ... SELECT por conjunto: las filas no pasan por la aplicación.
+ * Las filas conservan sus ids, así que restaurar un proyecto lo deja como estaba (con la versión aumentada en uno).
+ * Participa en la transacción JPA activa, ya que JdbcTemplate usa la misma conexión.
+ */
+@Repository
+public class ProjectArchiveRepository {
+
+    private static final String PROJECT_COLUMNS = "id, nombre, descripcion, fecha_inicio, fecha_fin_esperada, estado, presupuesto, "
+            + "gerente_proyecto_id, fecha_creacion, ultima_actualizacion, version";
+    private static final String TASK_COLUMNS = "id, nombre, descripcion, fecha_limite, estado, prioridad, proyecto_id, "
+            + "asignado_a_usuario_id, fecha_creacion, ultima_actualizacion, version";
+    private static final String MILESTONE_COLUMNS = "id, nombre, descripcion, fecha_limite, completado, proyecto_id, "
+            + "fecha_creacion, ultima_actualizacion, version";
+    private static final String ATTACHMENT_COLUMNS = "id, nombre_archivo, tipo_contenido, ruta_almacenamiento, tamano_bytes, "
+            + "hash_contenido, fecha_subida, usuario_subida_id, tarea_id, proyecto_id";
+
+    // --- Archivado: tablas activas -> tablas de archivo ---
+
+    private static final String ARCHIVE_PROJECT_SQL = "INSERT INTO proyectos_archivados (" + PROJECT_COLUMNS + ", fecha_archivado) "
+            + "SELECT " + PROJECT_COLUMNS + ", ? FROM proyectos WHERE id = ?";
+    private static final String ARCHIVE_TASKS_SQL = "INSERT INTO tareas_archivadas (" + TASK_COLUMNS + ") "
+            + "SELECT " + TASK_COLUMNS + " FROM tareas WHERE proyecto_id = ?";
+    private static final String ARCHIVE_MILESTONES_SQL = "INSERT INTO hitos_archivados (" + MILESTONE_COLUMNS + ") "
+            + "SELECT " + MILESTONE_COLUMNS + " FROM hitos WHERE proyecto_id = ?";
+    // Adjuntos que pertenecen al proyecto (ver Attachment.task): los suyos sin tarea y todos los de sus tareas.
+    // Los adjuntos de tareas de otros proyectos con este proyecto_id se quedan activos (la eliminación los desvincula).
+    private static final String ARCHIVE_PROJECT_ATTACHMENTS_SQL = "INSERT INTO archivos_adjuntos_archivados ("
+            + ATTACHMENT_COLUMNS + ", proyecto_archivado_id) SELECT " + ATTACHMENT_COLUMNS + ", ? FROM archivos_adjuntos "
+            + "WHERE proyecto_id = ? AND tarea_id IS NULL";
+    private static final String ARCHIVE_TASK_ATTACHMENTS_SQL = "INSERT INTO archivos_adjuntos_archivados ("
+            + ATTACHMENT_COLUMNS + ", proyecto_archivado_id) SELECT " + prefixed("a", ATTACHMENT_COLUMNS) + ", ? "
+            + "FROM archivos_adjuntos a JOIN tareas t ON t.id = a.tarea_id WHERE t.proyecto_id = ?";
+    private static final String UPDATE_TOTALS_SQL = "UPDATE proyectos_archivados SET total_tareas = ?, total_hitos = ?, total_adjuntos = ? "
+            + "WHERE id = ?";
+
+    // --- Restauración: tablas de archivo -> tablas activas (en orden de dependencias) ---
+    // Las referencias que pueden haber desaparecido mientras el proyecto estaba archivado y admiten NULL se anulan
+    // con un LEFT JOIN: el usuario asignado de una tarea y el proyecto_id de un adjunto de tarea (que pertenece a su tarea).
+    // Las que no admiten NULL (gerente del proyecto, usuario que subió un adjunto) se comprueban antes de restaurar.
+    // La restauración es una escritura (y puede haber anulado referencias): aumenta la versión, así cambian los ETags.
+
+    private static final String RESTORE_PROJECT_SQL = "INSERT INTO proyectos (" + PROJECT_COLUMNS + ") "
+            + "SELECT " + bumpVersion(prefixed("p", PROJECT_COLUMNS), "p") + " FROM proyectos_archivados p WHERE p.id = ?";
+    private static final String RESTORE_MILESTONES_SQL = "INSERT INTO hitos (" + MILESTONE_COLUMNS + ") "
+            + "SELECT " + bumpVersion(prefixed("h", MILESTONE_COLUMNS), "h") + " FROM hitos_archivados h WHERE h.proyecto_id = ?";
+    private static final String RESTORE_TASKS_SQL = "INSERT INTO tareas (" + TASK_COLUMNS + ") "
+            + "SELECT " + bumpVersion(prefixed("t", TASK_COLUMNS), "t").replace("t.asignado_a_usuario_id", "u.id")
+            + " FROM tareas_archivadas t LEFT JOIN usuarios u ON u.id = t.asignado_a_usuario_id WHERE t.proyecto_id = ?";
+    private static final String RESTORE_ATTACHMENTS_SQL = "INSERT INTO archivos_adjuntos (" + ATTACHMENT_COLUMNS + ") "
+            + "SELECT " + prefixed("a", ATTACHMENT_COLUMNS).replace("a.proyecto_id", "p.id")
+            + " FROM archivos_adjuntos_archivados a LEFT JOIN proyectos p ON p.id = a.proyecto_id WHERE a.proyecto_archivado_id = ?";
+
+    private static final String COUNT_MISSING_UPLOADERS_SQL = "SELECT COUNT(*) FROM archivos_adjuntos_archivados a "
+            + "LEFT JOIN usuarios u ON u.id = a.usuario_subida_id WHERE a.proyecto_archivado_id = ? AND u.id IS NULL";
+
+    private static final String DELETE_ARCHIVED_ATTACHMENTS_SQL = "DELETE FROM archivos_adjuntos_archivados WHERE proyecto_archivado_id = ?";
+    private static final String DELETE_ARCHIVED_TASKS_SQL = "DELETE FROM tareas_archivadas WHERE proyecto_id = ?";
+    private static final String DELETE_ARCHIVED_MILESTONES_SQL = "DELETE FROM hitos_archivados WHERE proyecto_id = ?";
+    private static final String DELETE_ARCHIVED_PROJECT_SQL = "DELETE FROM proyectos_archivados WHERE id = ?";
+
+    // --- Consultas del registro de proyectos archivados ---
+
+    private static final String ARCHIVED_SELECT = "SELECT id, nombre, estado, gerente_proyecto_id, total_tareas, total_hitos, "
+            + "total_adjuntos, fecha_archivado FROM proyectos_archivados ";
+    private static final String FIND_BY_ID_SQL = ARCHIVED_SELECT + "WHERE id = ?";
+    private static final String FIND_PAGE_SQL = ARCHIVED_SELECT + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Copia el proyecto y sus filas a las tablas de archivo; las filas activas las elimina el servicio después,
+     * en la misma transacción. En REPEATABLE READ los INSERT ... SELECT bloquean las filas leídas (y los huecos
+     * del índice por proyecto_id), de modo que no puede colarse una tarea nueva entre la copia y el borrado.
+     */
+    public ArchivedProjectDTO archive(Long projectId, LocalDateTime archivedAt) {
+        jdbcTemplate.update(ARCHIVE_PROJECT_SQL, archivedAt, projectId);
+        int tasks = jdbcTemplate.update(ARCHIVE_TASKS_SQL, projectId);
+        int milestones = jdbcTemplate.update(ARCHIVE_MILESTONES_SQL, projectId);
+        int attachments = jdbcTemplate.update(ARCHIVE_PROJECT_ATTACHMENTS_SQL, projectId, projectId)
+                + jdbcTemplate.update(ARCHIVE_TASK_ATTACHMENTS_SQL, projectId, projectId);
+        jdbcTemplate.update(UPDATE_TOTALS_SQL, tasks, milestones, attachments, projectId);
+        return findById(projectId).orElseThrow();
+    }
+
+    /**
+     * Adjuntos archivados cuyo usuario de subida ya no existe: impiden la restauración (la columna no admite NULL).
+     */
+    public long countAttachmentsWithMissingUploader(Long projectId) {
+        Long missing = jdbcTemplate.queryForObject(COUNT_MISSING_UPLOADERS_SQL, Long.class, projectId);
+        return missing != null ? missing : 0L;
+    }
+
+    /**
+     * Devuelve el proyecto y sus filas a las tablas activas y las elimina del archivo.
+     * Los usuarios asignados eliminados desde el archivado quedan como tareas sin asignar.
+     */
+    public void restore(Long projectId) {
+        jdbcTemplate.update(RESTORE_PROJECT_SQL, projectId);
+        jdbcTemplate.update(RESTORE_MILESTONES_SQL, projectId);
+        jdbcTemplate.update(RESTORE_TASKS_SQL, projectId);
+        jdbcTemplate.update(RESTORE_ATTACHMENTS_SQL, projectId);
+        jdbcTemplate.update(DELETE_ARCHIVED_ATTACHMENTS_SQL, projectId);
+        jdbcTemplate.update(DELETE_ARCHIVED_TASKS_SQL, projectId);
+        jdbcTemplate.update(DELETE_ARCHIVED_MILESTONES_SQL, projectId);
+        jdbcTemplate.update(DELETE_ARCHIVED_PROJECT_SQL, projectId);
+    }
+
+    public Optional<ArchivedProjectDTO> findById(Long projectId) {
+        return jdbcTemplate.query(FIND_BY_ID_SQL, ProjectArchiveRepository::toDto, projectId).stream().findFirst();
+    }
+
+    // Paginación por cursor (keyset): id > afterId ORDER BY id, limitado por el Pageable
+    public List<ArchivedProjectDTO> findPage(Long afterId, Pageable pageable) {
+        return jdbcTemplate.query(FIND_PAGE_SQL, ProjectArchiveRepository::toDto, afterId, pageable.getPageSize());
+    }
+
+    private static ArchivedProjectDTO toDto(ResultSet rs, int rowNum) throws SQLException {
+        return new ArchivedProjectDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getLong(4),
+                rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getObject(8, LocalDateTime.class));
+    }
+
+    private static String prefixed(String alias, String columns) {
+        return alias + "." + columns.replace(", ", ", " + alias + ".");
+    }
+
+    private static String bumpVersion(String columns, String alias) {
+        return columns.replace(alias + ".version", alias + ".version + 1");
+    }
+}
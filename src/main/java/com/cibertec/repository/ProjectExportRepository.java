@@ -0,0 +1,132 @@
+package com.cibertec.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.cibertec.export.ExportRowWriter;
+
+/**
+ * Lecturas de la exportación de proyectos. Cada consulta se lee fila a fila del socket
+ * (fetch size Integer.MIN_VALUE, modo streaming de Connector/J) y cada fila se copia del ResultSet al ExportRowWriter en un arreglo
+ * reutilizado: no se crean entidades, DTO ni listas, así que la memoria no depende del número de filas.
+ */
+@Repository
+public class ProjectExportRepository {
+
+    // Modo streaming de Connector/J solo para estas sentencias, sin cursores del servidor en todo el pool
+    private static final int FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String TASKS_SQL = "SELECT id, proyecto_id, nombre, descripcion, estado, prioridad, fecha_limite, "
+            + "asignado_a_usuario_id, fecha_creacion, ultima_actualizacion FROM tareas WHERE proyecto_id IN (%s) ORDER BY proyecto_id, id";
+
+    private static final String MILESTONES_SQL = "SELECT id, proyecto_id, nombre, descripcion, fecha_limite, completado, "
+            + "fecha_creacion, ultima_actualizacion FROM hitos WHERE proyecto_id IN (%s) ORDER BY proyecto_id, id";
+
+    // Adjuntos sin tarea del proyecto y adjuntos de sus tareas (UNION ALL para que cada rama use su índice).
+    // 'projectId' es el proyecto propietario (ver Attachment.task), el mismo con el que cuentan las estadísticas
+    // y el archivado: un adjunto de tarea se exporta con el proyecto de su tarea aunque tenga otro proyecto_id.
+    private static final String ATTACHMENTS_SQL = "SELECT a.id, a.proyecto_id, a.tarea_id, a.nombre_archivo, a.tipo_contenido, "
+            + "a.tamano_bytes, a.usuario_subida_id, a.fecha_subida FROM archivos_adjuntos a "
+            + "WHERE a.proyecto_id IN (%1$s) AND a.tarea_id IS NULL "
+            + "UNION ALL SELECT a.id, t.proyecto_id, a.tarea_id, a.nombre_archivo, a.tipo_contenido, "
+            + "a.tamano_bytes, a.usuario_subida_id, a.fecha_subida FROM archivos_adjuntos a "
+            + "JOIN tareas t ON t.id = a.tarea_id WHERE t.proyecto_id IN (%1$s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectExportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void exportTasks(List<Long> projectIds, ExportRowWriter writer) {
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+        query(TASKS_SQL, projectIds, 1, rs -> {
+            Arrays.fill(values, null);
+            values[ExportRowWriter.TYPE] = ExportRowWriter.TASK;
+            values[ExportRowWriter.ID] = rs.getLong(1);
+            values[ExportRowWriter.PROJECT_ID] = rs.getLong(2);
+            values[ExportRowWriter.NAME] = rs.getString(3);
+            values[ExportRowWriter.DESCRIPTION] = rs.getString(4);
+            values[ExportRowWriter.STATUS] = rs.getString(5);
+            values[ExportRowWriter.PRIORITY] = rs.getString(6);
+            values[ExportRowWriter.DUE_DATE] = rs.getObject(7, LocalDate.class);
+            values[ExportRowWriter.ASSIGNED_TO_ID] = rs.getObject(8, Long.class);
+            values[ExportRowWriter.CREATED_AT] = rs.getObject(9, LocalDateTime.class);
+            values[ExportRowWriter.LAST_UPDATED] = rs.getObject(10, LocalDateTime.class);
+            write(writer, values);
+        });
+    }
+
+    public void exportMilestones(List<Long> projectIds, ExportRowWriter writer) {
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+        query(MILESTONES_SQL, projectIds, 1, rs -> {
+            Arrays.fill(values, null);
+            values[ExportRowWriter.TYPE] = ExportRowWriter.MILESTONE;
+            values[ExportRowWriter.ID] = rs.getLong(1);
+            values[ExportRowWriter.PROJECT_ID] = rs.getLong(2);
+            values[ExportRowWriter.NAME] = rs.getString(3);
+            values[ExportRowWriter.DESCRIPTION] = rs.getString(4);
+            values[ExportRowWriter.DUE_DATE] = rs.getObject(5, LocalDate.class);
+            values[ExportRowWriter.COMPLETED] = rs.getBoolean(6);
+            values[ExportRowWriter.CREATED_AT] = rs.getObject(7, LocalDateTime.class);
+            values[ExportRowWriter.LAST_UPDATED] = rs.getObject(8, LocalDateTime.class);
+            write(writer, values);
+        });
+    }
+
+    public void exportAttachments(List<Long> projectIds, ExportRowWriter writer) {
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+        query(ATTACHMENTS_SQL, projectIds, 2, rs -> {
+            Arrays.fill(values, null);
+            values[ExportRowWriter.TYPE] = ExportRowWriter.ATTACHMENT;
+            values[ExportRowWriter.ID] = rs.getLong(1);
+            values[ExportRowWriter.PROJECT_ID] = rs.getLong(2);
+            values[ExportRowWriter.TASK_ID] = rs.getObject(3, Long.class);
+            values[ExportRowWriter.FILE_NAME] = rs.getString(4);
+            values[ExportRowWriter.CONTENT_TYPE] = rs.getString(5);
+            values[ExportRowWriter.SIZE_BYTES] = rs.getObject(6, Long.class);
+            values[ExportRowWriter.UPLOADED_BY_ID] = rs.getObject(7, Long.class);
+            values[ExportRowWriter.CREATED_AT] = rs.getObject(8, LocalDateTime.class);
+            write(writer, values);
+        });
+    }
+
+    /**
+     * @param repeat Veces que la lista de ids aparece en la sentencia (una por rama del UNION).
+     */
+    private void query(String sql, List<Long> projectIds, int repeat, RowCallbackHandler handler) {
+        String placeholders = String.join(", ", Collections.nCopies(projectIds.size(), "?"));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(String.format(sql, placeholders),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            int index = 1;
+            for (int i = 0; i < repeat; i++) {
+                for (Long projectId : projectIds) {
+                    ps.setLong(index++, projectId);
+                }
+            }
+            return ps;
+        }, handler);
+    }
+
+    private static void write(ExportRowWriter writer, Object[] values) {
+        try {
+            writer.writeRow(values);
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión: se aborta la lectura
+            throw new UncheckedIOException(e);
+        }
+    }
+}
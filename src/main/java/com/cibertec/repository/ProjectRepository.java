@@ -1,11 +1,23 @@
 package com.cibertec.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cibertec.dto.ProjectDTO;
 import com.cibertec.entity.Project;
+import com.cibertec.repository.projection.CollectionVersion;
+import com.cibertec.repository.projection.VersionedEntityVersion;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.util.SparseFieldset;
 
 public interface ProjectRepository extends JpaRepository<Project, Long>{
 	
@@ -15,4 +27,82 @@ public interface ProjectRepository extends JpaRepository<Project, Long>{
 	List<Project> findByStartDateGreaterThanEqual(LocalDate startDate);
 	List<Project> findByExpectedEndDateLessThanEqual(LocalDate expectedEndDate);
 
+	// --- Proyecciones a ProjectDTO: el gerente se une en la misma consulta (evita el N+1 sobre 'usuarios' y 'roles') ---
+	// Paginación por cursor (keyset): id > afterId ORDER BY id, limitado por el Pageable
+
+	String PROJECT_DTO_SELECT = "select new com.cibertec.dto.ProjectDTO(p.id, p.name, p.description, p.startDate, p.expectedEndDate, "
+			+ "p.status, p.budget, m.id, m.username, m.email, p.createdAt, p.lastUpdated) from Project p join p.projectManager m ";
+
+	// Campos y filtros de GET /api/projects?fields=...; el JOIN al gerente solo se hace si se pide 'projectManager'
+	SparseFieldset PROJECT_FIELDS = new SparseFieldset("from Project p", "p.id", List.of(
+			SparseFieldset.column("id", "p.id"),
+			SparseFieldset.column("name", "p.name"),
+			SparseFieldset.column("description", "p.description"),
+			SparseFieldset.column("startDate", "p.startDate"),
+			SparseFieldset.column("expectedEndDate", "p.expectedEndDate"),
+			SparseFieldset.column("status", "p.status"),
+			SparseFieldset.column("budget", "p.budget"),
+			new SparseFieldset.Field("projectManager", "left join p.projectManager m",
+					List.of("m.id", "m.username", "m.email"), SparseFieldset.nested("id", "username", "email")),
+			SparseFieldset.column("createdAt", "p.createdAt"),
+			SparseFieldset.column("lastUpdated", "p.lastUpdated")),
+			Map.of("name", "lower(p.name) like lower(concat('%', :name, '%'))",
+					"startDate", "p.startDate >= :startDate",
+					"status", "p.status = :status"));
+
+	@Query(PROJECT_DTO_SELECT + "where p.id = :id")
+	Optional<ProjectDTO> findDtoById(@Param("id") Long id);
+
+	@Query(PROJECT_DTO_SELECT + "where p.id > :afterId order by p.id")
+	List<ProjectDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(PROJECT_DTO_SELECT + "where lower(p.name) like lower(concat('%', :name, '%')) and p.id > :afterId order by p.id")
+	List<ProjectDTO> findDtoPageByNameContaining(@Param("name") String name, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(PROJECT_DTO_SELECT + "where p.startDate >= :startDate and p.id > :afterId order by p.id")
+	List<ProjectDTO> findDtoPageByStartDateFrom(@Param("startDate") LocalDate startDate, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(PROJECT_DTO_SELECT + "where p.status = :status and p.id > :afterId order by p.id")
+	List<ProjectDTO> findDtoPageByStatus(@Param("status") String status, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("select p.id from Project p where p.id in :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	// Recorrido de todos los proyectos por bloques (reconstrucción de estadisticas_proyectos)
+	@Query("select p.id from Project p where p.id > :afterId order by p.id")
+	List<Long> findIdPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	// Consultas de versión para ETag / Last-Modified (GET condicionales). El ProjectDTO incluye al gerente, así que
+	// la versión suma las @Version de ambos (las dos solo crecen) y la fecha es la más reciente de los dos
+	String PROJECT_VERSION = "(p.version + m.version)";
+	String PROJECT_LAST_UPDATED = "greatest(coalesce(p.lastUpdated, m.lastUpdated), coalesce(m.lastUpdated, p.lastUpdated))";
+
+	@Query("select p.id as id, " + PROJECT_VERSION + " as version, " + PROJECT_LAST_UPDATED + " as lastUpdated "
+			+ "from Project p join p.projectManager m where p.id = :id")
+	Optional<VersionedEntityVersion> findVersionById(@Param("id") Long id);
+
+	// Versión de una página del listado completo (rango de ids de la página, ver findIdPage)
+	@Query("select count(p) as total, coalesce(sum(p.id), 0) as idSum, coalesce(sum" + PROJECT_VERSION + ", 0) as versionSum, "
+			+ "max(" + PROJECT_LAST_UPDATED + ") as lastUpdated from Project p join p.projectManager m "
+			+ "where p.id > :afterId and p.id <= :untilId")
+	CollectionVersion findVersionByIdRange(@Param("afterId") Long afterId, @Param("untilId") Long untilId);
+
+	// Recorrido por bloques para reconstruir el índice de búsqueda (un proyecto pertenece a sí mismo)
+	@Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.PROJECT + "', p.id, p.id, p.name, p.description, p.status) "
+			+ "from Project p where p.id > :afterId order by p.id")
+	List<SearchDocument> findSearchDocumentPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	// Cuántos de los proyectos indicados gestiona el usuario con ese email (autorización por conjunto)
+	@Query("select count(p) from Project p where p.id in :ids and p.projectManager.email = :email")
+	long countByIdInAndManagerEmail(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
+	// Consulta de una sola columna para las comprobaciones de autorización (ver AuthorizationIndex)
+	@Query("select m.email from Project p join p.projectManager m where p.id = :id")
+	Optional<String> findManagerEmailById(@Param("id") Long id);
+
+	// Borrado final del proyecto sin que Hibernate cargue sus colecciones en cascada (ya vacías)
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Project p where p.id = :id")
+	int bulkDeleteById(@Param("id") Long id);
+
 }
@@ -0,0 +1,75 @@
+package com.cibertec.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.cibertec.dto.ProjectStatsDTO;
+import com.cibertec.entity.ProjectStats;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, Long> {
+
+    String PROJECT_STATS_DTO_SELECT = "select new com.cibertec.dto.ProjectStatsDTO(s.projectId, s.openTasks, s.closedTasks, "
+            + "s.overdueTasks, s.totalMilestones, s.completedMilestones, s.attachmentCount, s.attachmentBytes, s.lastUpdated) "
+            + "from ProjectStats s ";
+
+    @Query(PROJECT_STATS_DTO_SELECT + "where s.projectId = :projectId")
+    Optional<ProjectStatsDTO> findDtoById(@Param("projectId") Long projectId);
+
+    @Query(PROJECT_STATS_DTO_SELECT + "where s.projectId > :afterId order by s.projectId")
+    List<ProjectStatsDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Suma los incrementos a la fila del proyecto en una sola sentencia atómica (la crea si no existe).
+     * Se ejecuta dentro de la transacción del servicio que produjo el cambio.
+     */
+    // Declarar la tabla afectada evita que Hibernate invalide toda la caché de segundo nivel tras la sentencia nativa
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "estadisticas_proyectos"))
+    @Query(nativeQuery = true, value = "INSERT INTO estadisticas_proyectos (proyecto_id, tareas_abiertas, tareas_cerradas, "
+            + "tareas_vencidas, hitos_total, hitos_completados, adjuntos_total, adjuntos_bytes, ultima_actualizacion) "
+            + "VALUES (:projectId, GREATEST(:openTasks, 0), GREATEST(:closedTasks, 0), GREATEST(:overdueTasks, 0), "
+            + "GREATEST(:milestones, 0), GREATEST(:completedMilestones, 0), GREATEST(:attachments, 0), GREATEST(:attachmentBytes, 0), NOW()) "
+            + "ON DUPLICATE KEY UPDATE tareas_abiertas = GREATEST(tareas_abiertas + :openTasks, 0), "
+            + "tareas_cerradas = GREATEST(tareas_cerradas + :closedTasks, 0), tareas_vencidas = GREATEST(tareas_vencidas + :overdueTasks, 0), "
+            + "hitos_total = GREATEST(hitos_total + :milestones, 0), hitos_completados = GREATEST(hitos_completados + :completedMilestones, 0), "
+            + "adjuntos_total = GREATEST(adjuntos_total + :attachments, 0), adjuntos_bytes = GREATEST(adjuntos_bytes + :attachmentBytes, 0), "
+            + "ultima_actualizacion = NOW()")
+    int applyDelta(@Param("projectId") Long projectId, @Param("openTasks") long openTasks, @Param("closedTasks") long closedTasks,
+            @Param("overdueTasks") long overdueTasks, @Param("milestones") long milestones,
+            @Param("completedMilestones") long completedMilestones, @Param("attachments") long attachments,
+            @Param("attachmentBytes") long attachmentBytes);
+
+    @Modifying
+    @Query("delete from ProjectStats s where s.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Crea en ceros las filas que faltan para los proyectos indicados y deja bloqueadas todas las del bloque
+     * (las existentes no cambian): un incremento concurrente espera en su propio upsert y se suma después.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "estadisticas_proyectos"))
+    @Query(nativeQuery = true, value = "INSERT INTO estadisticas_proyectos (proyecto_id, tareas_abiertas, tareas_cerradas, "
+            + "tareas_vencidas, hitos_total, hitos_completados, adjuntos_total, adjuntos_bytes, ultima_actualizacion) "
+            + "SELECT p.id, 0, 0, 0, 0, 0, 0, 0, NOW() FROM proyectos p WHERE p.id IN (:projectIds) ORDER BY p.id "
+            + "ON DUPLICATE KEY UPDATE proyecto_id = proyecto_id")
+    int insertMissing(@Param("projectIds") Collection<Long> projectIds);
+
+    // Bloquea las filas del bloque que se reconstruye: los incrementos concurrentes esperan y se aplican sobre el valor recalculado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProjectStats s where s.projectId in :projectIds")
+    List<ProjectStats> lockAllByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
+}
@@ -2,13 +2,21 @@ package com.cibertec.repository;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.cibertec.entity.Role;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long>{
 
+	// Resultado en la caché de consultas: se invalida automáticamente cuando cambia la tabla 'roles'
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "roles-por-nombre") })
 	Optional<Role> findByNombre(String nombre);
 }
@@ -0,0 +1,96 @@
+package com.cibertec.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import com.cibertec.util.CursorPagination;
+import com.cibertec.util.SparseFieldset;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Ejecuta los listados con 'fields=': construye un SELECT con solo las columnas de los campos pedidos
+ * (más los JOIN que esos campos necesitan) y devuelve cada fila como un mapa campo -> valor.
+ * Las expresiones y filtros provienen de un SparseFieldset fijo, nunca del texto de la petición.
+ */
+@Repository
+public class SparseFieldsetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Página keyset (id > afterId order by id) con los campos y filtros indicados.
+     * @param filters Nombre del filtro del SparseFieldset -> valor del parámetro.
+     */
+    public List<Map<String, Object>> findPage(SparseFieldset fieldset, List<SparseFieldset.Field> fields,
+                                              Map<String, Object> filters, Long afterId, Pageable pageable) {
+        String id = fieldset.getIdExpression();
+        return findPage(fieldset, fields, filters, id + " > :afterId order by " + id, Map.of("afterId", afterId), pageable);
+    }
+
+    /**
+     * Página keyset por (campo de fecha, id), para los listados filtrados por un rango de esa fecha:
+     * recorre el índice de la fecha en orden (ver CursorPagination.DateKey). 'fields' debe incluir el campo.
+     */
+    public List<Map<String, Object>> findPage(SparseFieldset fieldset, List<SparseFieldset.Field> fields,
+                                              Map<String, Object> filters, String dateField, CursorPagination.DateKey after,
+                                              Pageable pageable) {
+        String date = fieldset.expression(dateField);
+        String id = fieldset.getIdExpression();
+        String keyset = "(" + date + " > :afterDate or (" + date + " = :afterDate and " + id + " > :afterId)) "
+                + "order by " + date + ", " + id;
+        return findPage(fieldset, fields, filters, keyset, Map.of("afterDate", after.date(), "afterId", after.id()), pageable);
+    }
+
+    private List<Map<String, Object>> findPage(SparseFieldset fieldset, List<SparseFieldset.Field> fields, Map<String, Object> filters,
+                                               String keyset, Map<String, Object> keysetParameters, Pageable pageable) {
+        List<String> expressions = new ArrayList<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (SparseFieldset.Field field : fields) {
+            expressions.addAll(field.expressions());
+            if (field.join() != null) {
+                joins.add(field.join());
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", expressions))
+                .append(' ').append(fieldset.getFrom());
+        for (String join : joins) {
+            jpql.append(' ').append(join);
+        }
+        jpql.append(" where ");
+        for (String filter : filters.keySet()) {
+            jpql.append(fieldset.filter(filter)).append(" and ");
+        }
+        jpql.append(keyset);
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        filters.forEach(query::setParameter);
+        keysetParameters.forEach(query::setParameter);
+        query.setMaxResults(pageable.getPageSize());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object[] columns : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int offset = 0;
+            for (SparseFieldset.Field field : fields) {
+                int count = field.expressions().size();
+                row.put(field.name(), field.mapper().apply(Arrays.copyOfRange(columns, offset, offset + count)));
+                offset += count;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
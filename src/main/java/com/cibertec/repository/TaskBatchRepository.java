@@ -0,0 +1,131 @@
+package com.cibertec.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cibertec.dto.TaskDTO;
+
+/**
+ * Escrituras masivas de tareas con sentencias JDBC por lotes.
+ * Task usa GenerationType.IDENTITY, lo que impide a Hibernate agrupar los INSERT;
+ * aquí se envían directamente como lotes (con rewriteBatchedStatements=true el driver de MySQL
+ * los reescribe como INSERT multi-fila) y se recuperan los ids generados.
+ * Participa en la transacción JPA activa, ya que JdbcTemplate usa la misma conexión.
+ */
+@Repository
+public class TaskBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO tareas (nombre, descripcion, fecha_limite, estado, prioridad, "
+            + "proyecto_id, asignado_a_usuario_id, fecha_creacion, ultima_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE tareas SET nombre = ?, descripcion = ?, fecha_limite = ?, estado = ?, "
+            + "prioridad = ?, proyecto_id = ?, asignado_a_usuario_id = ?, ultima_actualizacion = ?, version = version + 1 WHERE id = ? "
+            + "AND (? IS NULL OR version = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta las tareas en lotes de 'batchSize' y devuelve los ids generados, en el mismo orden.
+     */
+    public List<Long> insertAll(List<TaskDTO> tasks, int batchSize) {
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(tasks.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                int pending = 0;
+                for (TaskDTO task : tasks) {
+                    bindColumns(ps, task);
+                    ps.setObject(8, now);
+                    ps.setObject(9, now);
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        executeAndCollectKeys(ps, ids);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeAndCollectKeys(ps, ids);
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Actualiza todas las columnas editables de las tareas (que deben tener id) en lotes de 'batchSize'.
+     * Aumenta la versión de cada fila, igual que haría Hibernate, para que las ediciones en curso detecten el cambio;
+     * si la tarea trae versión, solo se actualiza cuando coincide con la actual (bloqueo optimista, como en PUT).
+     * Devuelve, en el mismo orden, si cada tarea se actualizó (false: la versión ya no coincide o la fila no existe).
+     */
+    public boolean[] updateAll(List<TaskDTO> tasks, int batchSize) {
+        boolean[] updated = new boolean[tasks.size()];
+        if (tasks.isEmpty()) {
+            return updated;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, tasks, batchSize, (ps, task) -> {
+            bindColumns(ps, task);
+            ps.setObject(8, now);
+            ps.setLong(9, task.getId());
+            if (task.getVersion() != null) {
+                ps.setLong(10, task.getVersion());
+                ps.setLong(11, task.getVersion());
+            } else {
+                ps.setNull(10, Types.BIGINT);
+                ps.setNull(11, Types.BIGINT);
+            }
+        });
+        int position = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2): el driver no informa filas, la sentencia se ejecutó
+                updated[position++] = count != 0;
+            }
+        }
+        return updated;
+    }
+
+    private static void bindColumns(PreparedStatement ps, TaskDTO task) throws SQLException {
+        ps.setString(1, task.getName());
+        ps.setString(2, task.getDescription());
+        if (task.getDueDate() != null) {
+            ps.setObject(3, task.getDueDate());
+        } else {
+            ps.setNull(3, Types.DATE);
+        }
+        ps.setString(4, task.getStatus());
+        ps.setString(5, task.getPriority());
+        ps.setLong(6, task.getProjectId());
+        if (task.getAssignedToId() != null) {
+            ps.setLong(7, task.getAssignedToId());
+        } else {
+            ps.setNull(7, Types.BIGINT);
+        }
+    }
+
+    private static void executeAndCollectKeys(PreparedStatement ps, List<Long> ids) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getLong(1));
+            }
+        }
+    }
+}
@@ -1,11 +1,36 @@
 package com.cibertec.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.cibertec.dto.TaskDTO;
 import com.cibertec.entity.Task;
+import com.cibertec.repository.projection.CollectionVersion;
+import com.cibertec.repository.projection.ProjectCount;
+import com.cibertec.repository.projection.ProjectGroupCount;
+import com.cibertec.repository.projection.TaskAccessCount;
+import com.cibertec.repository.projection.TaskStatsState;
+import com.cibertec.repository.projection.VersionedEntityVersion;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.util.SparseFieldset;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>{
@@ -15,4 +40,187 @@ public interface TaskRepository extends JpaRepository<Task, Long>{
 	List<Task> findByStatus(String status);
 	List<Task> findByPriority(String priority);
 
+	// --- Proyecciones a TaskDTO (una sola consulta, sin hidratar entidades ni relaciones LAZY) ---
+	// Paginación por cursor (keyset): id > afterId ORDER BY id, limitado por el Pageable
+
+	String TASK_DTO_SELECT = "select new com.cibertec.dto.TaskDTO(t.id, t.name, t.description, t.dueDate, t.status, t.priority, "
+			+ "t.project.id, a.id, t.createdAt, t.lastUpdated, t.version) from Task t left join t.assignedTo a ";
+
+	// Campos y filtros de GET /api/tasks?fields=... (ver SparseFieldsetRepository)
+	SparseFieldset TASK_FIELDS = new SparseFieldset("from Task t", "t.id", List.of(
+			SparseFieldset.column("id", "t.id"),
+			SparseFieldset.column("name", "t.name"),
+			SparseFieldset.column("description", "t.description"),
+			SparseFieldset.column("dueDate", "t.dueDate"),
+			SparseFieldset.column("status", "t.status"),
+			SparseFieldset.column("priority", "t.priority"),
+			SparseFieldset.column("projectId", "t.project.id"),
+			SparseFieldset.column("assignedToId", "t.assignedTo.id"),
+			SparseFieldset.column("createdAt", "t.createdAt"),
+			SparseFieldset.column("lastUpdated", "t.lastUpdated"),
+			SparseFieldset.column("version", "t.version")),
+			Map.of("projectId", "t.project.id = :projectId",
+					"assignedToId", "t.assignedTo.id = :assignedToId",
+					"status", "t.status = :status",
+					"priority", "t.priority = :priority",
+					"dueDate", "t.dueDate <= :dueDate"));
+
+	@Query(TASK_DTO_SELECT + "where t.id = :id")
+	Optional<TaskDTO> findDtoById(@Param("id") Long id);
+
+	@Query(TASK_DTO_SELECT + "where t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(TASK_DTO_SELECT + "where t.project.id = :projectId and t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPageByProjectId(@Param("projectId") Long projectId, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(TASK_DTO_SELECT + "where a.id = :assignedToId and t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPageByAssignedToId(@Param("assignedToId") Long assignedToId, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(TASK_DTO_SELECT + "where t.status = :status and t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPageByStatus(@Param("status") String status, @Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(TASK_DTO_SELECT + "where t.priority = :priority and t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPageByPriority(@Param("priority") String priority, @Param("afterId") Long afterId, Pageable pageable);
+
+	// Filtros combinados: usan los índices compuestos (proyecto_id, estado) y (asignado_a_usuario_id, fecha_limite)
+
+	@Query(TASK_DTO_SELECT + "where t.project.id = :projectId and t.status = :status and t.id > :afterId order by t.id")
+	List<TaskDTO> findDtoPageByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") String status,
+			@Param("afterId") Long afterId, Pageable pageable);
+
+	// Keyset por (fecha_limite, id), el orden del índice (asignado_a_usuario_id, fecha_limite) con el id que añade InnoDB:
+	// la consulta lee el rango del índice en orden y se detiene al completar la página, sin filesort
+	@Query(TASK_DTO_SELECT + "where t.assignedTo.id = :assignedToId and t.dueDate <= :dueDate "
+			+ "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) order by t.dueDate, t.id")
+	List<TaskDTO> findDtoPageByAssignedToIdAndDueDateUntil(@Param("assignedToId") Long assignedToId, @Param("dueDate") LocalDate dueDate,
+			@Param("afterDueDate") LocalDate afterDueDate, @Param("afterId") Long afterId, Pageable pageable);
+
+	// --- Colecciones completas en streaming (GET .../stream): filas leídas una a una del socket ---
+	// Son proyecciones a DTO, así que el contexto de persistencia no crece con las filas leídas.
+	// Con fetch size Integer.MIN_VALUE Connector/J entrega el resultado fila a fila en lugar de cargarlo entero,
+	// solo para estas consultas: el resto del pool sigue con sentencias preparadas en el cliente.
+	String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+	@Query(TASK_DTO_SELECT + "order by t.id")
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<TaskDTO> streamAllDtos();
+
+	@Query(TASK_DTO_SELECT + "where t.project.id = :projectId order by t.id")
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<TaskDTO> streamDtosByProjectId(@Param("projectId") Long projectId);
+
+	// --- Consultas de ids para las operaciones masivas ---
+
+	@Query("select t.id from Task t where t.id in :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Query("select distinct t.project.id from Task t where t.id in :ids")
+	List<Long> findDistinctProjectIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	// --- Agregados para el resumen de proyectos (GROUP BY en la base de datos, sin hidratar entidades) ---
+
+	@Query("select t.project.id as projectId, t.status as groupKey, count(t) as total from Task t "
+			+ "where t.project.id in :projectIds group by t.project.id, t.status")
+	List<ProjectGroupCount> countByProjectAndStatus(@Param("projectIds") Collection<Long> projectIds);
+
+	@Query("select t.project.id as projectId, t.priority as groupKey, count(t) as total from Task t "
+			+ "where t.project.id in :projectIds group by t.project.id, t.priority")
+	List<ProjectGroupCount> countByProjectAndPriority(@Param("projectIds") Collection<Long> projectIds);
+
+	@Query("select t.project.id as projectId, count(t) as total from Task t "
+			+ "where t.project.id in :projectIds and t.dueDate < :today and t.status <> :closedStatus group by t.project.id")
+	List<ProjectCount> countOverdueByProject(@Param("projectIds") Collection<Long> projectIds, @Param("today") LocalDate today,
+			@Param("closedStatus") String closedStatus);
+
+	// Estado de las tareas que cuenta para estadisticas_proyectos (antes de una actualización por lotes).
+	// Bloquea las filas (en orden de id, para no cruzarse con otro lote) hasta confirmar: otra escritura no puede
+	// cambiar el estado entre esta lectura y el UPDATE, así que el cambio calculado no se desvía
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select t.id as id, t.project.id as projectId, t.status as status, t.dueDate as dueDate from Task t where t.id in :ids order by t.id")
+	List<TaskStatsState> findStatsStateByIdIn(@Param("ids") Collection<Long> ids);
+
+	// --- Transición masiva (POST /api/tasks/transition) ---
+
+	// Una sola consulta: cuántas de las tareas existen y en cuántas el usuario es el gerente del proyecto o el asignado
+	@Query("select count(t) as total, "
+			+ "coalesce(sum(case when m.email = :email or a.email = :email then 1 else 0 end), 0) as allowed "
+			+ "from Task t join t.project p left join p.projectManager m left join t.assignedTo a where t.id in :ids")
+	TaskAccessCount countAccessibleByIdIn(@Param("ids") Collection<Long> ids, @Param("email") String email);
+
+	// Una sola sentencia para todo el conjunto; los parámetros nulos dejan la columna como está.
+	// Mantiene a mano lo que Hibernate haría en un UPDATE de la entidad: ultima_actualizacion y version.
+	// Declarar la tabla afectada evita que Hibernate invalide toda la caché de segundo nivel tras la sentencia nativa.
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tareas"))
+	@Query(value = "UPDATE tareas SET estado = COALESCE(:status, estado), prioridad = COALESCE(:priority, prioridad), "
+			+ "asignado_a_usuario_id = COALESCE(:assignedToId, asignado_a_usuario_id), "
+			+ "ultima_actualizacion = :now, version = version + 1 WHERE id IN (:ids)", nativeQuery = true)
+	int transitionByIdIn(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("priority") String priority,
+			@Param("assignedToId") Long assignedToId, @Param("now") LocalDateTime now);
+
+	@Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.TASK + "', t.id, t.project.id, t.name, t.description, t.status) "
+			+ "from Task t where t.id in :ids")
+	List<SearchDocument> findSearchDocumentsByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.TASK + "', t.id, t.project.id, t.name, t.description, t.status) "
+			+ "from Task t where t.project.id = :projectId")
+	List<SearchDocument> findSearchDocumentsByProjectId(@Param("projectId") Long projectId);
+
+	// --- Eliminación de proyectos con sentencias por conjunto ---
+
+	long countByProjectId(Long projectId);
+
+	@Query("select t.id from Task t where t.project.id = :projectId order by t.id")
+	List<Long> findIdsByProjectId(@Param("projectId") Long projectId, Pageable pageable);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Task t where t.id in :ids")
+	int bulkDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Task t where t.project.id = :projectId")
+	int bulkDeleteByProjectId(@Param("projectId") Long projectId);
+
+	// --- Consultas de versión para ETag / Last-Modified (GET condicionales) ---
+
+	String TASK_COLLECTION_VERSION = "select count(t) as total, coalesce(sum(t.id), 0) as idSum, coalesce(sum(t.version), 0) as versionSum, "
+			+ "max(t.lastUpdated) as lastUpdated from Task t ";
+
+	@Query("select t.id as id, t.version as version, t.lastUpdated as lastUpdated from Task t where t.id = :id")
+	Optional<VersionedEntityVersion> findVersionById(@Param("id") Long id);
+
+	// Versión de una página del listado completo: solo se leen las filas del rango de ids (afterId, untilId] de la página.
+	// Un borrado dentro del rango desplaza el id final (o reduce el conteo en la última página)
+	@Query("select t.id from Task t where t.id > :afterId order by t.id")
+	List<Long> findIdPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query(TASK_COLLECTION_VERSION + "where t.id > :afterId and t.id <= :untilId")
+	CollectionVersion findVersionByIdRange(@Param("afterId") Long afterId, @Param("untilId") Long untilId);
+
+	// Índice idx_tareas_proyecto_ultima_actualizacion: se resuelve sin leer las filas
+	@Query(TASK_COLLECTION_VERSION + "where t.project.id = :projectId")
+	CollectionVersion findVersionByProjectId(@Param("projectId") Long projectId);
+
+	@Query(TASK_COLLECTION_VERSION + "where t.assignedTo.id = :assignedToId")
+	CollectionVersion findVersionByAssignedToId(@Param("assignedToId") Long assignedToId);
+
+	// Recorrido por bloques para reconstruir el índice de búsqueda
+	@Query("select new com.cibertec.search.SearchDocument('" + SearchDocument.TASK + "', t.id, t.project.id, t.name, t.description, t.status) "
+			+ "from Task t where t.id > :afterId order by t.id")
+	List<SearchDocument> findSearchDocumentPage(@Param("afterId") Long afterId, Pageable pageable);
+
+	// --- Consultas de una sola columna para las comprobaciones de autorización (ver AuthorizationIndex) ---
+
+	@Query("select t.project.id from Task t where t.id = :id")
+	Optional<Long> findProjectIdById(@Param("id") Long id);
+
+	// Devuelve '' si la tarea existe pero no tiene usuario asignado, y vacío si la tarea no existe
+	@Query("select coalesce(a.email, '') from Task t left join t.assignedTo a where t.id = :id")
+	Optional<String> findAssigneeEmailById(@Param("id") Long id);
+
 }
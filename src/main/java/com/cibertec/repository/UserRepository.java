@@ -1,21 +1,36 @@
 package com.cibertec.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cibertec.entity.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long>{
 	
 	Optional<User> findByUsername(String username);
 	
+	// Usado en cada /login: resultado en la caché de consultas (se invalida cuando cambia la tabla 'usuarios')
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+			@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "usuarios-por-email") })
 	Optional<User> findOneByEmail(String email);
 	
 	Boolean existsByUsername(String username);
 	
 	Boolean existsByEmail(String email);
+	
+	@Query("select u.id from User u where u.id in :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
 }
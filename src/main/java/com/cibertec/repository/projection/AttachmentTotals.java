@@ -0,0 +1,13 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección de los totales de archivos adjuntos de un proyecto (cantidad y bytes).
+ */
+public interface AttachmentTotals {
+
+    Long getProjectId();
+
+    Long getTotal();
+
+    Long getTotalBytes();
+}
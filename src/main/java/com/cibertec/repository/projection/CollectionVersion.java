@@ -0,0 +1,20 @@
+package com.cibertec.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con la versión de un conjunto de filas: cuántas hay, la suma de sus ids y de sus @Version,
+ * y su última modificación. Cada UPDATE aumenta la suma de versiones; una inserción, una eliminación
+ * o una fila que entra o sale del conjunto cambian el conteo o la suma de ids.
+ * La fecha (precisión de segundos) solo se usa para Last-Modified, no para el ETag.
+ */
+public interface CollectionVersion {
+
+    Long getTotal();
+
+    Long getIdSum();
+
+    Long getVersionSum();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,11 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección de cuántos archivos adjuntos de un conjunto apuntan a cada contenido (hash SHA-256).
+ */
+public interface ContentHashCount {
+
+    String getContentHash();
+
+    Long getTotal();
+}
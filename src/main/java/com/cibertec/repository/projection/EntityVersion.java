@@ -0,0 +1,13 @@
+package com.cibertec.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con la versión de una fila (id + ultima_actualizacion), para las peticiones condicionales.
+ */
+public interface EntityVersion {
+
+    Long getId();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,13 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección del avance de hitos de un proyecto (total y completados).
+ */
+public interface MilestoneProgress {
+
+    Long getProjectId();
+
+    Long getTotal();
+
+    Long getCompleted();
+}
@@ -0,0 +1,11 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección de un conteo agrupado por proyecto.
+ */
+public interface ProjectCount {
+
+    Long getProjectId();
+
+    Long getTotal();
+}
@@ -0,0 +1,14 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección de un conteo agrupado por proyecto y por un valor (estado, prioridad...).
+ * Los alias de la consulta JPQL deben coincidir con los nombres de los getters.
+ */
+public interface ProjectGroupCount {
+
+    Long getProjectId();
+
+    String getGroupKey();
+
+    Long getTotal();
+}
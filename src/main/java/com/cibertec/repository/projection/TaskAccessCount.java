@@ -0,0 +1,11 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Tareas existentes de un conjunto y cuántas de ellas puede modificar un usuario (autorización por conjunto).
+ */
+public interface TaskAccessCount {
+
+    Long getTotal();
+
+    Long getAllowed();
+}
@@ -0,0 +1,13 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Proyección de los totales de adjuntos de una tarea (cantidad y bytes).
+ */
+public interface TaskAttachmentTotals {
+
+    Long getTaskId();
+
+    Long getTotal();
+
+    Long getTotalBytes();
+}
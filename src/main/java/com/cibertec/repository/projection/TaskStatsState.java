@@ -0,0 +1,17 @@
+package com.cibertec.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección con los campos de una tarea que afectan a estadisticas_proyectos.
+ */
+public interface TaskStatsState {
+
+    Long getId();
+
+    Long getProjectId();
+
+    String getStatus();
+
+    LocalDate getDueDate();
+}
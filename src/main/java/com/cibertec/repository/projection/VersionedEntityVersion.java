@@ -0,0 +1,10 @@
+package com.cibertec.repository.projection;
+
+/**
+ * Versión de una fila de una entidad con @Version: el número de versión cambia con cada UPDATE,
+ * aunque dos escrituras caigan en el mismo segundo de ultima_actualizacion.
+ */
+public interface VersionedEntityVersion extends EntityVersion {
+
+    Long getVersion();
+}
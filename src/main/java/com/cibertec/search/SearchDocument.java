@@ -0,0 +1,31 @@
+package com.cibertec.search;
+
+/**
+ * Datos de una tarea, proyecto o hito que se indexan en el índice de texto completo.
+ * Se construye dentro de la transacción (o con una expresión constructora JPQL en la reconstrucción)
+ * y se aplica al índice después del commit.
+ */
+public record SearchDocument(String type, Long id, Long projectId, String name, String description, String status) {
+
+    public static final String TASK = "task";
+    public static final String PROJECT = "project";
+    public static final String MILESTONE = "milestone";
+
+    // Los hitos no tienen columna de estado: se indexan con los mismos valores que las tareas
+    public static final String MILESTONE_COMPLETED = "COMPLETADO";
+    public static final String MILESTONE_PENDING = "PENDIENTE";
+
+    public static SearchDocument task(Long id, Long projectId, String name, String description, String status) {
+        return new SearchDocument(TASK, id, projectId, name, description, status);
+    }
+
+    public static SearchDocument project(Long id, String name, String description, String status) {
+        // Un proyecto pertenece a sí mismo para que el filtro por proyecto también lo devuelva
+        return new SearchDocument(PROJECT, id, id, name, description, status);
+    }
+
+    public static SearchDocument milestone(Long id, Long projectId, String name, String description, Boolean completed) {
+        return new SearchDocument(MILESTONE, id, projectId, name, description,
+                Boolean.TRUE.equals(completed) ? MILESTONE_COMPLETED : MILESTONE_PENDING);
+    }
+}
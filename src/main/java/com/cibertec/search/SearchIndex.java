@@ -0,0 +1,331 @@
+package com.cibertec.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cibertec.dto.SearchResultDTO;
+import com.cibertec.dto.SearchResultsDTO;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.util.TransactionCallbacks;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Índice invertido Lucene en disco local sobre los nombres y descripciones de tareas, proyectos e hitos.
+ * Las escrituras se aplican después del commit de la transacción que modificó la base de datos; los cambios
+ * son visibles para las búsquedas tras el siguiente refresco (app.search.refresh-interval-ms) y se hacen
+ * durables con un commit periódico de Lucene. Si el índice queda desfasado, POST /api/search/rebuild lo
+ * reconstruye desde la base de datos.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final String KEY = "key"; // type:id, identifica el documento para actualizarlo o eliminarlo
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String PROJECT_ID = "projectId";
+    private static final String STATUS = "status";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+
+    // Una coincidencia en el nombre pesa más que en la descripción, y la palabra completa más que un prefijo
+    private static final float NAME_BOOST = 4f;
+    private static final float NAME_PREFIX_BOOST = 2f;
+    private static final float DESCRIPTION_PREFIX_BOOST = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Durante una reconstrucción las escrituras en vivo se aplazan y se reaplican al terminar,
+    // para que un cambio confirmado mientras se lee la base de datos no quede sobrescrito por datos viejos
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final List<IndexOperation> deferred = new ArrayList<>();
+
+    public SearchIndex(@Value("${app.search.index-dir:data/search-index}") String indexDir) throws IOException {
+        Path path = Paths.get(indexDir).toAbsolutePath().normalize();
+        Files.createDirectories(path);
+        this.directory = FSDirectory.open(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /** Inserta o reemplaza el documento cuando la transacción actual se confirma. */
+    public void indexAfterCommit(SearchDocument document) {
+        TransactionCallbacks.afterCommit(() -> apply(indexWriter ->
+                indexWriter.updateDocument(keyTerm(document.type(), document.id()), toLuceneDocument(document))));
+    }
+
+    public void indexAllAfterCommit(List<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> apply(indexWriter -> {
+            for (SearchDocument document : documents) {
+                indexWriter.updateDocument(keyTerm(document.type(), document.id()), toLuceneDocument(document));
+            }
+        }));
+    }
+
+    public void deleteAfterCommit(String type, Long id) {
+        TransactionCallbacks.afterCommit(() -> apply(indexWriter -> indexWriter.deleteDocuments(keyTerm(type, id))));
+    }
+
+    /** Elimina el proyecto y todas sus tareas e hitos (borrados en cascada en la base de datos). */
+    public void deleteProjectAfterCommit(Long projectId) {
+        TransactionCallbacks.afterCommit(() -> apply(indexWriter ->
+                indexWriter.deleteDocuments(new Term(PROJECT_ID, String.valueOf(projectId)))));
+    }
+
+    /**
+     * Busca documentos que contengan todas las palabras de 'text', cada una como palabra completa o como prefijo,
+     * en el nombre o la descripción. Los filtros nulos no se aplican.
+     */
+    public SearchResultsDTO search(String text, String type, Long projectId, String status, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("The search query must contain at least one word.");
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms.subList(0, Math.min(terms.size(), MAX_QUERY_TERMS))) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (type != null) {
+            query.add(new TermQuery(new Term(TYPE, type)), BooleanClause.Occur.FILTER);
+        }
+        if (projectId != null) {
+            query.add(new TermQuery(new Term(PROJECT_ID, String.valueOf(projectId))), BooleanClause.Occur.FILTER);
+        }
+        if (status != null) {
+            query.add(new TermQuery(new Term(STATUS, status)), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchResultDTO> items = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    items.add(new SearchResultDTO(
+                            document.get(TYPE),
+                            document.getField(ID).numericValue().longValue(),
+                            Long.valueOf(document.get(PROJECT_ID)),
+                            document.get(NAME),
+                            document.get(STATUS),
+                            scoreDoc.score));
+                }
+                return new SearchResultsDTO(topDocs.totalHits.value, items);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index could not be read", e);
+        }
+    }
+
+    // --- Reconstrucción (la orquesta SearchServiceImplement leyendo la base de datos por bloques) ---
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    /** Vacía el índice y empieza a aplazar las escrituras en vivo. Devuelve false si ya hay una reconstrucción en curso. */
+    public boolean beginRebuild() throws IOException {
+        writeLock.lock();
+        try {
+            if (!rebuilding.compareAndSet(false, true)) {
+                return false;
+            }
+            writer.deleteAll();
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void addAll(List<SearchDocument> documents) throws IOException {
+        for (SearchDocument document : documents) {
+            writer.addDocument(toLuceneDocument(document));
+        }
+    }
+
+    /**
+     * Reaplica las escrituras aplazadas, hace durable el índice y lo publica para las búsquedas.
+     * Se llama siempre al terminar, también si la reconstrucción falló a mitad.
+     */
+    public void finishRebuild() throws IOException {
+        writeLock.lock();
+        try {
+            for (IndexOperation operation : deferred) {
+                operation.apply(writer);
+            }
+            deferred.clear();
+            rebuilding.set(false);
+        } finally {
+            writeLock.unlock();
+        }
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    // --- Mantenimiento periódico ---
+
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        // Durante la reconstrucción se siguen sirviendo las búsquedas desde el índice anterior
+        if (!rebuilding.get()) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:30000}")
+    public void commit() throws IOException {
+        if (!rebuilding.get() && writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            searcherManager.close();
+            writer.close(); // Confirma los cambios pendientes
+        } finally {
+            directory.close();
+        }
+    }
+
+    private void apply(IndexOperation operation) {
+        writeLock.lock();
+        try {
+            if (rebuilding.get()) {
+                deferred.add(operation);
+                return;
+            }
+            operation.apply(writer);
+        } catch (IOException e) {
+            // La base de datos ya confirmó: el índice queda desfasado hasta la próxima reconstrucción
+            logger.error("Search index update failed; run POST /api/search/rebuild to resynchronize", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Query termQuery(String term) {
+        BooleanQuery.Builder clauses = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(NAME, term)), NAME_BOOST), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD);
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            clauses.add(new BoostQuery(new PrefixQuery(new Term(NAME, term)), NAME_PREFIX_BOOST), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(DESCRIPTION, term)), DESCRIPTION_PREFIX_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        return clauses.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static Term keyTerm(String type, Long id) {
+        return new Term(KEY, type + ":" + id);
+    }
+
+    private static Document toLuceneDocument(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(KEY, source.type() + ":" + source.id(), Field.Store.NO));
+        document.add(new StringField(TYPE, source.type(), Field.Store.YES));
+        document.add(new StoredField(ID, source.id()));
+        document.add(new StringField(PROJECT_ID, String.valueOf(source.projectId()), Field.Store.YES));
+        if (source.status() != null) {
+            document.add(new StringField(STATUS, source.status(), Field.Store.YES));
+        }
+        document.add(new TextField(NAME, source.name() == null ? "" : source.name(), Field.Store.YES));
+        if (source.description() != null) {
+            document.add(new TextField(DESCRIPTION, source.description(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    /** Tokenizador estándar + minúsculas + sin tildes: "Planificación" y "planificacion" coinciden. */
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream result = new ASCIIFoldingFilter(new LowerCaseFilter(source));
+            return new TokenStreamComponents(source, result);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
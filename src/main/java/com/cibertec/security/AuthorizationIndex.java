@@ -0,0 +1,128 @@
+package com.cibertec.security;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.util.LruCache;
+import com.cibertec.util.TransactionCallbacks;
+
+/**
+ * Índice en memoria para las comprobaciones de autorización de @PreAuthorize
+ * (tarea -> proyecto -> email del gerente, y tarea -> email del asignado).
+ * Cada dato se obtiene con una consulta de una sola columna y se guarda en una caché LRU acotada,
+ * así una petición PUT/DELETE deja de hacer varias idas y vueltas a la base de datos solo para autorizar.
+ * Los servicios invalidan las entradas afectadas en sus rutas de escritura.
+ */
+@Component
+public class AuthorizationIndex {
+
+    private static final String UNASSIGNED = ""; // Marca de tarea sin usuario asignado
+
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+
+    private final LruCache<Long, Long> projectByTask;
+    private final LruCache<Long, String> managerEmailByProject;
+    private final LruCache<Long, String> assigneeEmailByTask;
+
+    public AuthorizationIndex(TaskRepository taskRepository, ProjectRepository projectRepository,
+                              @Value("${app.authz-cache.max-entries:10000}") int maxEntries) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.projectByTask = new LruCache<>(maxEntries);
+        this.managerEmailByProject = new LruCache<>(maxEntries);
+        this.assigneeEmailByTask = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * ID del proyecto al que pertenece la tarea, o vacío si la tarea no existe.
+     */
+    public Optional<Long> projectOfTask(Long taskId) {
+        Long projectId = projectByTask.get(taskId);
+        if (projectId == null) {
+            long generation = projectByTask.generation();
+            Optional<Long> loaded = taskRepository.findProjectIdById(taskId);
+            loaded.ifPresent(id -> projectByTask.putIfUnchanged(taskId, id, generation));
+            return loaded;
+        }
+        return Optional.of(projectId);
+    }
+
+    /**
+     * Email del gerente del proyecto, o vacío si el proyecto no existe.
+     */
+    public Optional<String> managerEmailOfProject(Long projectId) {
+        String email = managerEmailByProject.get(projectId);
+        if (email == null) {
+            long generation = managerEmailByProject.generation();
+            Optional<String> loaded = projectRepository.findManagerEmailById(projectId);
+            loaded.ifPresent(value -> managerEmailByProject.putIfUnchanged(projectId, value, generation));
+            return loaded;
+        }
+        return Optional.of(email);
+    }
+
+    /**
+     * Email del usuario asignado a la tarea. Vacío si la tarea no existe;
+     * cadena vacía si la tarea existe pero no tiene usuario asignado.
+     */
+    public Optional<String> assigneeEmailOfTask(Long taskId) {
+        String email = assigneeEmailByTask.get(taskId);
+        if (email == null) {
+            long generation = assigneeEmailByTask.generation();
+            Optional<String> loaded = taskRepository.findAssigneeEmailById(taskId);
+            loaded.ifPresent(value -> assigneeEmailByTask.putIfUnchanged(taskId, value, generation));
+            return loaded;
+        }
+        return Optional.of(email);
+    }
+
+    public static boolean isUnassigned(String assigneeEmail) {
+        return UNASSIGNED.equals(assigneeEmail);
+    }
+
+    // --- Invalidación ---
+    // Se descarta la entrada de inmediato y otra vez al terminar la transacción. Cada invalidación avanza la
+    // generación de la clave: una lectura que empezó antes (y pudo leer el valor anterior al commit) no lo guarda.
+
+    public void evictTask(Long taskId) {
+        Runnable eviction = () -> {
+            projectByTask.remove(taskId);
+            assigneeEmailByTask.remove(taskId);
+        };
+        eviction.run();
+        TransactionCallbacks.afterCompletion(eviction);
+    }
+
+    public void evictProject(Long projectId) {
+        Runnable eviction = () -> {
+            managerEmailByProject.remove(projectId);
+            projectByTask.removeIf((taskId, cachedProjectId) -> {
+                if (projectId.equals(cachedProjectId)) {
+                    assigneeEmailByTask.remove(taskId);
+                    return true;
+                }
+                return false;
+            });
+        };
+        eviction.run();
+        TransactionCallbacks.afterCompletion(eviction);
+    }
+
+    /**
+     * Vacía todo el índice (por ejemplo, cuando cambia el email de un usuario).
+     */
+    public void evictAll() {
+        Runnable eviction = () -> {
+            projectByTask.clear();
+            managerEmailByProject.clear();
+            assigneeEmailByTask.clear();
+        };
+        eviction.run();
+        TransactionCallbacks.afterCompletion(eviction);
+    }
+}
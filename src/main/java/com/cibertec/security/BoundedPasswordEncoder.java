@@ -0,0 +1,153 @@
+package com.cibertec.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.cibertec.dto.PasswordHashMetricsDTO;
+
+/**
+ * PasswordEncoder BCrypt que ejecuta cada hash en un pool propio de hilos con cola acotada.
+ * Una ráfaga de /login (o un ataque de credential stuffing) solo satura este pool: los hilos de Tomcat
+ * esperan el resultado sin consumir CPU y las demás peticiones siguen atendiéndose.
+ * Si la cola está llena, o un trabajo esperó en ella más de 'maxQueueWaitMs', se lanza
+ * PasswordHashingRejectedException (HTTP 429) sin calcular el hash.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final long maxQueueWaitNanos;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAccumulator maxQueueWait = new LongAccumulator(Math::max, 0);
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHash = new LongAccumulator(Math::max, 0);
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long maxQueueWaitMs) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("BCrypt threads and queue capacity must be greater than zero.");
+        }
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica a DaoAuthenticationProvider que vuelva a hashear la contraseña tras un login correcto
+     * cuando su coste no coincide con el configurado (sube o baja). Con el pool bajo presión el rehash
+     * se pospone al siguiente login para no ocupar la cola con trabajo opcional.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || executor.getQueue().size() > queueCapacity / 2) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public PasswordHashMetricsDTO getMetrics() {
+        long completedCount = completed.sum();
+        return new PasswordHashMetricsDTO(
+                strength,
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                completedCount,
+                rejected.sum(),
+                expired.sum(),
+                averageMillis(queueWaitNanos.sum(), completedCount),
+                TimeUnit.NANOSECONDS.toMillis(maxQueueWait.get()),
+                averageMillis(hashNanos.sum(), completedCount),
+                TimeUnit.NANOSECONDS.toMillis(maxHash.get()));
+    }
+
+    /** Destruye el pool al cerrar el contexto (Spring infiere 'shutdown' como método de destrucción del @Bean). */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                long waited = startedAt - submittedAt;
+                if (waited > maxQueueWaitNanos) {
+                    // El cliente probablemente ya abandonó: no se gasta CPU en él
+                    expired.increment();
+                    throw new PasswordHashingRejectedException("Password verification timed out in queue.");
+                }
+                T result = hash.call();
+                long hashed = System.nanoTime() - startedAt;
+                completed.increment();
+                queueWaitNanos.add(waited);
+                maxQueueWait.accumulate(waited);
+                hashNanos.add(hashed);
+                maxHash.accumulate(hashed);
+                return result;
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent password verifications, try again later.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password verification was interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / (count * 1_000_000.0);
+    }
+}
@@ -23,6 +23,8 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter{
 
     private static final Logger logger = LoggerFactory.getLogger(JWTAuthorizationFilter.class); // Añadir logger
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
@@ -31,9 +33,9 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter{
 		String bearerToken = request.getHeader("Authorization");
 		
 		// 2. Verificar si la cabecera existe y tiene el formato "Bearer "
-		if( bearerToken != null && bearerToken.startsWith("Bearer ")) {
+		if( bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
 			// 3. Extraer el token JWT real
-			String token = bearerToken.replace("Bearer ", "");
+			String token = bearerToken.substring(BEARER_PREFIX.length());
 			
 			// 4. Validar el token y obtener el objeto de autenticación
             // Token.getAuth ahora se encarga de extraer los roles
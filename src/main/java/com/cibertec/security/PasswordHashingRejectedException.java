@@ -0,0 +1,16 @@
+package com.cibertec.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Se lanza cuando el pool de BCrypt no admite más trabajo (cola llena o espera excesiva).
+ * Es una AuthenticationException para que /login la reciba en unsuccessfulAuthentication y responda 429.
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.cibertec.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,8 +9,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -51,8 +50,12 @@ public class SecurityConfig {
 	}
 	
 	@Bean
-	PasswordEncoder passwordEncoder() {//define cómo se codificarán (hashearán) las contraseñas antes de almacenarse
-		return new BCryptPasswordEncoder();
+	BoundedPasswordEncoder passwordEncoder(//define cómo se codificarán (hashearán) las contraseñas antes de almacenarse
+			@Value("${app.security.bcrypt.strength:10}") int strength,//coste BCrypt; al cambiarlo las contraseñas se rehashean en el siguiente login
+			@Value("${app.security.bcrypt.threads:2}") int threads,//hilos dedicados a BCrypt, fuera del pool de Tomcat
+			@Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,//verificaciones en espera antes de responder 429
+			@Value("${app.security.bcrypt.max-queue-wait-ms:2000}") long maxQueueWaitMs) {
+		return new BoundedPasswordEncoder(strength, threads, queueCapacity, maxQueueWaitMs);
 	}
 	/*
 	@Bean
@@ -70,11 +73,11 @@ public class SecurityConfig {
 	}
 	*/
 	@Bean
-	AuthenticationManager authManager(HttpSecurity http) throws Exception {//orquesta el proceso de autenticación
+	AuthenticationManager authManager(HttpSecurity http, BoundedPasswordEncoder passwordEncoder) throws Exception {//orquesta el proceso de autenticación
 		return http
 				.getSharedObject(AuthenticationManagerBuilder.class)//Obtiene una instancia de AuthenticationManagerBuilder para configurar el AuthenticationManager
-				.userDetailsService(userDetailsService)// Le dice al AuthenticationManager que utilice el userDetailsService() que definiste (el que carga al usuario "eddie" de la memoria)
-				.passwordEncoder(passwordEncoder())//Le dice al AuthenticationManager que utilice el passwordEncoder() que definiste para comparar la contraseña
+				.userDetailsService(userDetailsService)// Le dice al AuthenticationManager que utilice el userDetailsService() que definiste (el que carga al usuario "eddie" de la memoria); como también implementa UserDetailsPasswordService, se usa para el rehash tras el login
+				.passwordEncoder(passwordEncoder)//Le dice al AuthenticationManager que utilice el passwordEncoder() que definiste para comparar la contraseña
 				.and()
 				.build()
 				;
@@ -1,16 +1,23 @@
 package com.cibertec.service;
 
-import java.util.List;
-
 import com.cibertec.dto.AttachmentDTO;
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.StorageStatsDTO;
+import org.springframework.web.multipart.MultipartFile;
 
 public interface AttachmentService {
 	
 	AttachmentDTO createAttachment(AttachmentDTO attachmentDTO);
 	AttachmentDTO getAttachmentById(Long id);
-	List<AttachmentDTO> getAllAttachments();
+	CursorPageDTO<AttachmentDTO> getAllAttachments(String cursor, Integer size);
 	AttachmentDTO updateAttachment(Long id, AttachmentDTO attachmentDTO);
 	void deleteAttachment(Long id);
+
+	// Contenido binario (almacenado en el BlobStore)
+	AttachmentDTO uploadAttachment(MultipartFile file, Long taskId, Long projectId, String uploaderEmail);
+	AttachmentDTO getAttachmentWithContent(Long id);
+	StorageStatsDTO getStorageStats();
+	String getDerivedContentKey(Long id, String variant); // Miniatura o vista previa (ThumbnailGenerator)
 	
 	
 }
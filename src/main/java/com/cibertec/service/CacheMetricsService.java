@@ -0,0 +1,11 @@
+package com.cibertec.service;
+
+import java.util.List;
+
+import com.cibertec.dto.CacheRegionStatsDTO;
+
+public interface CacheMetricsService {
+
+    // Aciertos/fallos por región de la caché de segundo nivel y de la caché de consultas
+    List<CacheRegionStatsDTO> getCacheRegionStats();
+}
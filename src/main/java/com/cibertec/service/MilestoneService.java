@@ -1,19 +1,28 @@
 package com.cibertec.service;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Map;
 
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.MilestoneDTO;
+import com.cibertec.util.ResourceVersion;
 
 public interface MilestoneService {
 	
 	MilestoneDTO createMilestone(MilestoneDTO milestoneDTO);
 	MilestoneDTO getMilestoneById(Long id);
-	List<MilestoneDTO> getAllMilestones();
+	CursorPageDTO<MilestoneDTO> getAllMilestones(String cursor, Integer size);
 	MilestoneDTO updateMilestone(Long id, MilestoneDTO milestoneDTO);
 	void deleteMilestone(Long id);
-	List<MilestoneDTO> getMilestonesByProjectId(Long projectId);
-	List<MilestoneDTO> getPendingMilestones();
-	List<MilestoneDTO> getMilestonesByDueDateLessThanEqual(LocalDate dueDate);
+	CursorPageDTO<MilestoneDTO> getMilestonesByProjectId(Long projectId, String cursor, Integer size);
+	CursorPageDTO<MilestoneDTO> getPendingMilestones(String cursor, Integer size);
+	CursorPageDTO<MilestoneDTO> getMilestonesByDueDateLessThanEqual(LocalDate dueDate, String cursor, Integer size);
+	CursorPageDTO<MilestoneDTO> getPendingMilestonesDueUntil(LocalDate dueDate, String cursor, Integer size);
+	// Listado con 'fields=': solo se leen las columnas pedidas; 'filters' usa los nombres de MilestoneRepository.MILESTONE_FIELDS
+	CursorPageDTO<Map<String, Object>> getMilestoneFields(String fields, Map<String, Object> filters, String cursor, Integer size);
+	// Versiones para los GET condicionales (ETag / Last-Modified) sin cargar los hitos
+	ResourceVersion getMilestoneVersion(Long id);
+	ResourceVersion getAllMilestonesVersion(String cursor, Integer size);
+	ResourceVersion getMilestonesByProjectIdVersion(Long projectId);
 
 }
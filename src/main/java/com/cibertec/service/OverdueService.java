@@ -0,0 +1,15 @@
+package com.cibertec.service;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.OverdueItemDTO;
+import com.cibertec.dto.OverdueScanDTO;
+
+public interface OverdueService {
+
+    // Escaneo incremental de vencimientos (también programado cada app.overdue.scan-interval-ms)
+    OverdueScanDTO scan();
+
+    // Lecturas de elementos_vencidos; 'projectId' es opcional
+    CursorPageDTO<OverdueItemDTO> getOverdueTasks(Long projectId, String cursor, Integer size);
+    CursorPageDTO<OverdueItemDTO> getOverdueMilestones(Long projectId, String cursor, Integer size);
+}
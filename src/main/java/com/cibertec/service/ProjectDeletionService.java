@@ -0,0 +1,16 @@
+package com.cibertec.service;
+
+import com.cibertec.dto.ProjectDeletionDTO;
+
+public interface ProjectDeletionService {
+
+    // Eliminación completa dentro de la transacción actual (o una nueva)
+    void deleteProject(Long projectId);
+
+    // Elimina las filas activas de un proyecto ya copiado a las tablas de archivo (sin liberar sus contenidos)
+    void deleteArchivedProject(Long projectId);
+
+    // Eliminación por lotes en segundo plano; el progreso se consulta con getDeletion
+    ProjectDeletionDTO startDeletion(Long projectId);
+    ProjectDeletionDTO getDeletion(Long projectId);
+}
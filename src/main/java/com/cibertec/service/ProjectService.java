@@ -2,23 +2,50 @@ package com.cibertec.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+import com.cibertec.dto.ArchivedProjectDTO;
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.ProjectDTO;
+import com.cibertec.dto.ProjectSummaryDTO;
 import com.cibertec.dto.TaskDTO;
+import com.cibertec.export.ExportRowWriter;
+import com.cibertec.util.ResourceVersion;
 
 public interface ProjectService {
 
 	ProjectDTO createProject(ProjectDTO projectDTO);
     ProjectDTO getProjectById(Long id);
-    List<ProjectDTO> getAllProjects();
+    CursorPageDTO<ProjectDTO> getAllProjects(String cursor, Integer size);
     ProjectDTO updateProject(Long id, ProjectDTO projectDTO);
     void deleteProject(Long id);
+    // Listado con 'fields=': solo se leen las columnas pedidas; 'filters' usa los nombres de ProjectRepository.PROJECT_FIELDS
+    CursorPageDTO<Map<String, Object>> getProjectFields(String fields, Map<String, Object> filters, String cursor, Integer size);
+    // Versiones para los GET condicionales (ETag / Last-Modified) sin cargar los proyectos
+    ResourceVersion getProjectVersion(Long id);
+    ResourceVersion getAllProjectsVersion(String cursor, Integer size);
     
  // Nuevo método para verificar si un usuario es el gerente de un proyecto específico
     boolean isProjectManager(Long projectId, String username);
     boolean isProjectManagerOfTask(Long taskId, String username);
     boolean isProjectManagerForTaskCreation(TaskDTO taskDTO, String username);
+    boolean isProjectManagerForBulkTasks(List<TaskDTO> taskDTOs, String username);
     
-    List<ProjectDTO> findProjectsByNameContainingIgnoreCase(String name);
-    List<ProjectDTO> findProjectsByStartDateGreaterThanEqual(LocalDate date);
+    CursorPageDTO<ProjectDTO> findProjectsByNameContainingIgnoreCase(String name, String cursor, Integer size);
+    CursorPageDTO<ProjectDTO> findProjectsByStartDateGreaterThanEqual(LocalDate date, String cursor, Integer size);
+    CursorPageDTO<ProjectDTO> findProjectsByStatus(String status, String cursor, Integer size);
+
+    // Exportación (GET /api/projects/{id}/export): se valida antes de empezar a escribir la respuesta
+    void checkExportableProjects(List<Long> projectIds);
+    void exportProjects(List<Long> projectIds, ExportRowWriter writer);
+
+    // Archivo de proyectos completados: sus filas salen de las tablas activas y vuelven con restoreProject
+    ArchivedProjectDTO archiveProject(Long id);
+    ProjectDTO restoreProject(Long id);
+    ArchivedProjectDTO getArchivedProject(Long id);
+    CursorPageDTO<ArchivedProjectDTO> getArchivedProjects(String cursor, Integer size);
+
+    // Indicadores agregados (conteos por estado/prioridad, vencidas, hitos y adjuntos)
+    ProjectSummaryDTO getProjectSummary(Long projectId);
+    List<ProjectSummaryDTO> getProjectSummaries(List<Long> projectIds);
 }
@@ -0,0 +1,111 @@
+package com.cibertec.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.cibertec.entity.Task;
+
+/**
+ * Acumula los cambios que una operación de escritura produce sobre estadisticas_proyectos.
+ * Los servicios registran el estado anterior con remove* y el nuevo con add*; al final
+ * ProjectStatsService.apply escribe un único UPSERT por proyecto afectado.
+ */
+public final class ProjectStatsDelta {
+
+    public static final int OPEN_TASKS = 0;
+    public static final int CLOSED_TASKS = 1;
+    public static final int OVERDUE_TASKS = 2;
+    public static final int MILESTONES = 3;
+    public static final int COMPLETED_MILESTONES = 4;
+    public static final int ATTACHMENTS = 5;
+    public static final int ATTACHMENT_BYTES = 6;
+    private static final int COUNTERS = 7;
+
+    private final Map<Long, long[]> deltas = new LinkedHashMap<>();
+    private final LocalDate today = LocalDate.now();
+
+    public ProjectStatsDelta addTask(Long projectId, String status, LocalDate dueDate) {
+        return task(projectId, status, dueDate, 1);
+    }
+
+    public ProjectStatsDelta removeTask(Long projectId, String status, LocalDate dueDate) {
+        return task(projectId, status, dueDate, -1);
+    }
+
+    public ProjectStatsDelta addMilestone(Long projectId, Boolean completed) {
+        return milestone(projectId, completed, 1);
+    }
+
+    public ProjectStatsDelta removeMilestone(Long projectId, Boolean completed) {
+        return milestone(projectId, completed, -1);
+    }
+
+    public ProjectStatsDelta addAttachments(Long projectId, long count, Long bytes) {
+        return attachments(projectId, count, bytes, 1);
+    }
+
+    public ProjectStatsDelta removeAttachments(Long projectId, long count, Long bytes) {
+        return attachments(projectId, count, bytes, -1);
+    }
+
+    /**
+     * Una tarea está cerrada si su estado es COMPLETADO; está vencida si sigue abierta
+     * y su fecha límite es anterior a hoy (mismo criterio que el resumen de proyectos).
+     */
+    public static boolean isOverdue(String status, LocalDate dueDate, LocalDate today) {
+        return !Task.STATUS_COMPLETED.equals(status) && dueDate != null && dueDate.isBefore(today);
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /** Recorre los proyectos con algún contador distinto de cero. */
+    public void forEach(BiConsumer<Long, long[]> action) {
+        deltas.forEach((projectId, counters) -> {
+            for (long counter : counters) {
+                if (counter != 0) {
+                    action.accept(projectId, counters);
+                    return;
+                }
+            }
+        });
+    }
+
+    private ProjectStatsDelta task(Long projectId, String status, LocalDate dueDate, int sign) {
+        if (projectId != null) {
+            long[] counters = countersOf(projectId);
+            counters[Task.STATUS_COMPLETED.equals(status) ? CLOSED_TASKS : OPEN_TASKS] += sign;
+            if (isOverdue(status, dueDate, today)) {
+                counters[OVERDUE_TASKS] += sign;
+            }
+        }
+        return this;
+    }
+
+    private ProjectStatsDelta milestone(Long projectId, Boolean completed, int sign) {
+        if (projectId != null) {
+            long[] counters = countersOf(projectId);
+            counters[MILESTONES] += sign;
+            if (Boolean.TRUE.equals(completed)) {
+                counters[COMPLETED_MILESTONES] += sign;
+            }
+        }
+        return this;
+    }
+
+    private ProjectStatsDelta attachments(Long projectId, long count, Long bytes, int sign) {
+        if (projectId != null && count != 0) {
+            long[] counters = countersOf(projectId);
+            counters[ATTACHMENTS] += sign * count;
+            counters[ATTACHMENT_BYTES] += sign * (bytes != null ? bytes : 0L);
+        }
+        return this;
+    }
+
+    private long[] countersOf(Long projectId) {
+        return deltas.computeIfAbsent(projectId, id -> new long[COUNTERS]);
+    }
+}
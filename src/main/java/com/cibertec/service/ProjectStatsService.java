@@ -0,0 +1,21 @@
+package com.cibertec.service;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.ProjectStatsDTO;
+import com.cibertec.dto.ProjectStatsRebuildDTO;
+
+public interface ProjectStatsService {
+
+    // Mantenimiento incremental (dentro de la transacción del servicio que escribe)
+    void apply(ProjectStatsDelta delta);
+    void initProject(Long projectId);
+    void removeProject(Long projectId);
+    void recalculateProject(Long projectId); // Proyecto restaurado desde el archivo
+
+    // Lecturas O(1) por proyecto
+    ProjectStatsDTO getProjectStats(Long projectId);
+    CursorPageDTO<ProjectStatsDTO> getAllProjectStats(String cursor, Integer size);
+
+    // Recalcula todas las filas desde cero y reporta la deriva encontrada
+    ProjectStatsRebuildDTO rebuild();
+}
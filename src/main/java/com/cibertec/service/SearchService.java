@@ -0,0 +1,13 @@
+package com.cibertec.service;
+
+import com.cibertec.dto.SearchRebuildDTO;
+import com.cibertec.dto.SearchResultsDTO;
+
+public interface SearchService {
+
+    // Búsqueda de texto completo sobre tareas, proyectos e hitos; los filtros nulos no se aplican
+    SearchResultsDTO search(String query, String type, Long projectId, String status, Integer limit);
+
+    // Vacía el índice y lo vuelve a llenar desde la base de datos
+    SearchRebuildDTO rebuild();
+}
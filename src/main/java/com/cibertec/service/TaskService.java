@@ -1,20 +1,49 @@
 package com.cibertec.service;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import com.cibertec.dto.BulkTaskResultDTO;
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.TaskDTO;
+import com.cibertec.dto.TaskTransitionDTO;
+import com.cibertec.dto.TaskTransitionResultDTO;
+import com.cibertec.util.ResourceVersion;
 
 public interface TaskService {
 
 	TaskDTO createTask(TaskDTO taskDTO);
 	TaskDTO getTaskById(Long id);
-	List<TaskDTO> getAllTasks();
+	CursorPageDTO<TaskDTO> getAllTasks(String cursor, Integer size);
 	TaskDTO updateTask(Long id, TaskDTO taskDTO);
+	// JSON Merge Patch; 'ifMatch' (opcional) es la cabecera If-Match con el ETag de la tarea
+	TaskDTO patchTask(Long id, Map<String, Object> patch, String ifMatch);
 	void deleteTask(Long id);
-	List<TaskDTO> getTasksByProjectId(Long projectId);
-	List<TaskDTO> getTasksByAssignedToId(Long assignedToId);
-	List<TaskDTO> getTasksByStatus(String status);
-	List<TaskDTO> getTasksByPriority(String priority);
+	// Alta/actualización masiva: las tareas sin id se crean y las que tienen id se actualizan
+	List<BulkTaskResultDTO> bulkSaveTasks(List<TaskDTO> taskDTOs);
+	// Cambio masivo de estado / prioridad / asignado con una sola sentencia UPDATE
+	TaskTransitionResultDTO transitionTasks(TaskTransitionDTO transition);
+	// Autorización por conjunto: el usuario gestiona el proyecto o es el asignado de todas las tareas existentes
+	boolean canTransitionTasks(Collection<Long> taskIds, String username);
+	CursorPageDTO<TaskDTO> getTasksByProjectId(Long projectId, String cursor, Integer size);
+	CursorPageDTO<TaskDTO> getTasksByAssignedToId(Long assignedToId, String cursor, Integer size);
+	CursorPageDTO<TaskDTO> getTasksByStatus(String status, String cursor, Integer size);
+	CursorPageDTO<TaskDTO> getTasksByPriority(String priority, String cursor, Integer size);
+	CursorPageDTO<TaskDTO> getTasksByProjectIdAndStatus(Long projectId, String status, String cursor, Integer size);
+	CursorPageDTO<TaskDTO> getTasksByAssignedToIdAndDueDateUntil(Long assignedToId, LocalDate dueDate, String cursor, Integer size);
+	// Listado con 'fields=': solo se leen las columnas pedidas; 'filters' usa los nombres de TaskRepository.TASK_FIELDS
+	CursorPageDTO<Map<String, Object>> getTaskFields(String fields, Map<String, Object> filters, String cursor, Integer size);
+	// Recorren la colección completa en streaming, fila a fila, dentro de una transacción de solo lectura
+	void streamAllTasks(Consumer<TaskDTO> consumer);
+	void streamTasksByProjectId(Long projectId, Consumer<TaskDTO> consumer);
+	// Versiones para los GET condicionales (ETag / Last-Modified) sin cargar las tareas
+	ResourceVersion getTaskVersion(Long id);
+	ResourceVersion getAllTasksVersion(String cursor, Integer size);
+	ResourceVersion getTasksByProjectIdVersion(Long projectId);
+	ResourceVersion getTasksByAssignedToIdVersion(Long assignedToId);
 	// Nuevo método para verificar si una tarea está asignada a un usuario específico
     boolean isTaskAssignedToUser(Long taskId, String username);
 }
@@ -1,81 +1,141 @@
 package com.cibertec.service.serviceImpl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.cibertec.dto.AttachmentDTO;
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.StorageStatsDTO;
 import com.cibertec.entity.Attachment;
 import com.cibertec.entity.Project;
 import com.cibertec.entity.Task;
 import com.cibertec.entity.User;
 
+import com.cibertec.exception.BadRequestException;
 import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.repository.AttachmentBlobRepository;
 import com.cibertec.repository.AttachmentRepository;
 import com.cibertec.repository.ProjectRepository;
 import com.cibertec.repository.TaskRepository;
 import com.cibertec.repository.UserRepository;
 
 import com.cibertec.service.AttachmentService;
+import com.cibertec.service.ProjectStatsDelta;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.storage.BlobGarbageCollector;
+import com.cibertec.storage.BlobReferences;
+import com.cibertec.storage.BlobStore;
+import com.cibertec.storage.ThumbnailGenerator;
+import com.cibertec.util.TransactionCallbacks;
+import com.cibertec.util.CursorPagination;
 
 @Service
 public class AttachmentServiceImplement implements AttachmentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentServiceImplement.class);
+
+    // Longitudes de las columnas nombre_archivo y tipo_contenido
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+    private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
     private final AttachmentRepository attachmentRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
+    private final ProjectStatsService projectStatsService;
+    private final BlobStore blobStore;
+    private final BlobReferences blobReferences;
+    private final BlobGarbageCollector blobGarbageCollector;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
     public AttachmentServiceImplement(AttachmentRepository attachmentRepository,
                                     UserRepository userRepository,
                                     TaskRepository taskRepository,
-                                    ProjectRepository projectRepository) {
+                                    ProjectRepository projectRepository,
+                                    ProjectStatsService projectStatsService,
+                                    BlobStore blobStore,
+                                    BlobReferences blobReferences,
+                                    BlobGarbageCollector blobGarbageCollector,
+                                    ThumbnailGenerator thumbnailGenerator,
+                                    AttachmentBlobRepository attachmentBlobRepository,
+                                    PlatformTransactionManager transactionManager) {
         this.attachmentRepository = attachmentRepository;
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
+        this.projectStatsService = projectStatsService;
+        this.blobStore = blobStore;
+        this.blobReferences = blobReferences;
+        this.blobGarbageCollector = blobGarbageCollector;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.attachmentBlobRepository = attachmentBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     @Transactional
     public AttachmentDTO createAttachment(AttachmentDTO attachmentDTO) {
+        if (blobStore.isManagedKey(attachmentDTO.getStoragePath())) {
+            throw new BadRequestException("storagePath cannot reference uploaded content; use the multipart upload instead.");
+        }
         Attachment attachment = convertToEntity(attachmentDTO);
         Attachment savedAttachment = attachmentRepository.save(attachment);
+        projectStatsService.apply(new ProjectStatsDelta()
+                .addAttachments(statsProjectId(savedAttachment), 1, savedAttachment.getSizeBytes()));
         return convertToDto(savedAttachment);
     }
 
     @Override
     @Transactional(readOnly = true)
     public AttachmentDTO getAttachmentById(Long id) {
-        Optional<Attachment> attachmentOptional = attachmentRepository.findById(id);
-        if (attachmentOptional.isEmpty()) {
-            throw new ResourceNotFoundException("Attachment not found with ID: " + id);
-        }
-        return convertToDto(attachmentOptional.get());
+        return attachmentRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with ID: " + id));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<AttachmentDTO> getAllAttachments() {
-        List<Attachment> attachments = attachmentRepository.findAll();
-        return attachments.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<AttachmentDTO> getAllAttachments(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<AttachmentDTO> rows = attachmentRepository.findDtoPage(
+                CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, AttachmentDTO::getId);
     }
 
     @Override
     @Transactional
     public AttachmentDTO updateAttachment(Long id, AttachmentDTO attachmentDTO) {
         return attachmentRepository.findById(id).map(existingAttachment -> {
+            // Estado previo para estadisticas_proyectos
+            ProjectStatsDelta statsDelta = new ProjectStatsDelta()
+                    .removeAttachments(statsProjectId(existingAttachment), 1, existingAttachment.getSizeBytes());
+
             existingAttachment.setFileName(attachmentDTO.getFileName());
             existingAttachment.setContentType(attachmentDTO.getContentType());
-            existingAttachment.setStoragePath(attachmentDTO.getStoragePath());
-            existingAttachment.setSizeBytes(attachmentDTO.getSizeBytes());
+            // La ruta y el tamaño del contenido subido los gestiona el BlobStore: no se modifican por PUT
+            if (!blobStore.isManagedKey(existingAttachment.getStoragePath())) {
+                if (blobStore.isManagedKey(attachmentDTO.getStoragePath())) {
+                    throw new BadRequestException("storagePath cannot reference uploaded content; use the multipart upload instead.");
+                }
+                existingAttachment.setStoragePath(attachmentDTO.getStoragePath());
+                existingAttachment.setSizeBytes(attachmentDTO.getSizeBytes());
+            }
             // Si uploadedAt es @CreationTimestamp, no lo actualices a menos que sea un requisito específico.
             // existingAttachment.setUploadedAt(attachmentDTO.getUploadedAt());
 
@@ -106,6 +166,8 @@ public class AttachmentServiceImplement implements AttachmentService {
 
 
             Attachment updatedAttachment = attachmentRepository.save(existingAttachment);
+            statsDelta.addAttachments(statsProjectId(updatedAttachment), 1, updatedAttachment.getSizeBytes());
+            projectStatsService.apply(statsDelta);
             return convertToDto(updatedAttachment);
         }).orElseThrow(() -> new ResourceNotFoundException("Attachment not found with ID: " + id));
     }
@@ -113,10 +175,170 @@ public class AttachmentServiceImplement implements AttachmentService {
     @Override
     @Transactional
     public void deleteAttachment(Long id) {
-        if (!attachmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Attachment not found with ID: " + id);
+        Attachment attachment = attachmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Attachment not found with ID: " + id));
+        attachmentRepository.delete(attachment);
+        projectStatsService.apply(new ProjectStatsDelta()
+                .removeAttachments(statsProjectId(attachment), 1, attachment.getSizeBytes()));
+        if (attachment.getContentHash() != null) {
+            // Contenido deduplicado: el archivo se borra solo cuando se libera su última referencia
+            blobReferences.release(attachment.getContentHash());
+        } else if (blobStore.isManagedKey(attachment.getStoragePath())) {
+            // Subidas anteriores al direccionamiento por contenido: el archivo es exclusivo del adjunto
+            String storagePath = attachment.getStoragePath();
+            TransactionCallbacks.afterCommit(() -> deleteBlobQuietly(storagePath));
+        }
+    }
+
+    /**
+     * Guarda el archivo en el BlobStore y registra el adjunto.
+     * No es @Transactional a propósito: la copia del archivo (que puede ser de varios GB) se hace sin tener
+     * una conexión de base de datos tomada; solo la inserción del registro se ejecuta en una transacción.
+     */
+    @Override
+    public AttachmentDTO uploadAttachment(MultipartFile file, Long taskId, Long projectId, String uploaderEmail) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("The uploaded file is empty.");
+        }
+        // Validar las referencias antes de copiar el archivo
+        User uploader = userRepository.findOneByEmail(uploaderEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + uploaderEmail));
+        if (taskId != null && !taskRepository.existsById(taskId)) {
+            throw new ResourceNotFoundException("Task not found with ID: " + taskId);
+        }
+        if (projectId != null && !projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+
+        // 1. Copiar al área temporal calculando el SHA-256
+        BlobStore.StagedBlob staged;
+        try (InputStream content = file.getInputStream()) {
+            staged = blobStore.stage(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the uploaded file.", e);
+        }
+
+        // 2. Registrar la referencia y publicar el blob con la fila del contenido bloqueada; 3. registrar el adjunto.
+        // El blob se publica antes de confirmar: al hacerse visible la fila, el archivo ya existe
+        AtomicBoolean published = new AtomicBoolean();
+        try {
+            return transactionTemplate.execute(status -> {
+                blobReferences.retain(staged.contentHash(), staged.sizeBytes());
+                publishBlob(staged);
+                published.set(true);
+
+                String key = blobStore.keyOf(staged.contentHash());
+                String contentType = truncate(contentTypeOf(file), MAX_CONTENT_TYPE_LENGTH);
+                Attachment attachment = new Attachment();
+                attachment.setFileName(truncate(fileNameOf(file), MAX_FILE_NAME_LENGTH));
+                attachment.setContentType(contentType);
+                attachment.setStoragePath(key);
+                attachment.setSizeBytes(staged.sizeBytes());
+                attachment.setContentHash(staged.contentHash());
+                attachment.setUploadedBy(userRepository.getReferenceById(uploader.getId()));
+                if (taskId != null) {
+                    attachment.setTask(taskRepository.getReferenceById(taskId));
+                }
+                if (projectId != null) {
+                    attachment.setProject(projectRepository.getReferenceById(projectId));
+                }
+                Attachment savedAttachment = attachmentRepository.save(attachment);
+                projectStatsService.apply(new ProjectStatsDelta()
+                        .addAttachments(statsProjectId(savedAttachment), 1, savedAttachment.getSizeBytes()));
+                TransactionCallbacks.afterCommit(() -> requestThumbnail(key, contentType));
+                return convertToDto(savedAttachment);
+            });
+        } catch (RuntimeException e) {
+            blobStore.discard(staged); // El registro no se creó
+            if (published.get()) {
+                // El archivo ya se publicó: se borra si ningún otro adjunto referencia ese contenido
+                blobGarbageCollector.collectIfOrphaned(staged.contentHash());
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StorageStatsDTO getStorageStats() {
+        StorageStatsDTO stats = attachmentBlobRepository.getStorageStats();
+        stats.setReferenceDrift(blobReferences.referenceDrift());
+        return stats;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getDerivedContentKey(Long id, String variant) {
+        AttachmentDTO attachment = getAttachmentWithContent(id);
+        if (!ThumbnailGenerator.supports(attachment.getContentType())) {
+            throw new ResourceNotFoundException("Attachment with ID " + id + " has no " + variant + " (unsupported content type).");
+        }
+        String derivedKey = blobStore.derivedKey(attachment.getStoragePath(), variant);
+        if (!blobStore.exists(derivedKey)) {
+            // Aún en cola, descartado por un error o subido antes del generador: se vuelve a solicitar
+            thumbnailGenerator.request(attachment.getStoragePath());
+            throw new ResourceNotFoundException("The " + variant + " for attachment ID " + id + " is not available yet.");
+        }
+        return derivedKey;
+    }
+
+    private void publishBlob(BlobStore.StagedBlob staged) {
+        try {
+            blobStore.commit(staged);
+        } catch (IOException e) {
+            // Revierte la transacción: no queda un adjunto sin archivo
+            throw new UncheckedIOException("Could not store the uploaded file.", e);
+        }
+    }
+
+    private void requestThumbnail(String key, String contentType) {
+        // Las miniaturas de un contenido duplicado ya existen
+        if (ThumbnailGenerator.supports(contentType) && !blobStore.exists(blobStore.derivedKey(key, ThumbnailGenerator.THUMBNAIL))) {
+            thumbnailGenerator.request(key);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentDTO getAttachmentWithContent(Long id) {
+        AttachmentDTO attachment = getAttachmentById(id);
+        if (!blobStore.exists(attachment.getStoragePath())) {
+            throw new ResourceNotFoundException("Attachment content not found for ID: " + id);
+        }
+        return attachment;
+    }
+
+    private void deleteBlobQuietly(String key) {
+        try {
+            blobStore.delete(key);
+        } catch (IOException e) {
+            logger.warn("Could not delete blob {}", key, e);
+        }
+    }
+
+    private static String fileNameOf(MultipartFile file) {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(
+                file.getOriginalFilename() != null ? file.getOriginalFilename() : ""));
+        return StringUtils.hasText(fileName) ? fileName : "file";
+    }
+
+    private static String contentTypeOf(MultipartFile file) {
+        return file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    // Un adjunto cuenta para el proyecto de su tarea o, si no tiene tarea, para su proyecto (ver Attachment.task)
+    private static Long statsProjectId(Attachment attachment) {
+        if (attachment.getTask() != null && attachment.getTask().getProject() != null) {
+            return attachment.getTask().getProject().getId();
+        }
+        if (attachment.getProject() != null) {
+            return attachment.getProject().getId();
         }
-        attachmentRepository.deleteById(id);
+        return null;
     }
 
     // --- Métodos de Conversión (auxiliares) ---
@@ -138,6 +360,7 @@ public class AttachmentServiceImplement implements AttachmentService {
         if (attachment.getUploadedBy() != null) {
             dto.setUploadedById(attachment.getUploadedBy().getId());
         }
+        dto.setContentHash(attachment.getContentHash());
 
         return dto;
     }
@@ -0,0 +1,59 @@
+package com.cibertec.service.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.cibertec.dto.CacheRegionStatsDTO;
+import com.cibertec.service.CacheMetricsService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class CacheMetricsServiceImplement implements CacheMetricsService {
+
+    private static final String ENTITY = "ENTITY";
+    private static final String QUERY = "QUERY";
+
+    // Regiones declaradas en @Cache de las entidades y en los @QueryHints de los repositorios (ver application.conf)
+    private static final List<String> ENTITY_REGIONS = List.of("roles", "usuarios", "proyectos");
+    private static final List<String> QUERY_REGIONS = List.of("roles-por-nombre", "usuarios-por-email");
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheMetricsServiceImplement(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public List<CacheRegionStatsDTO> getCacheRegionStats() {
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        for (String region : ENTITY_REGIONS) {
+            addRegion(regions, region, ENTITY, statistics.getDomainDataRegionStatistics(region));
+        }
+        for (String region : QUERY_REGIONS) {
+            addRegion(regions, region, QUERY, statistics.getQueryRegionStatistics(region));
+        }
+        return regions;
+    }
+
+    private static void addRegion(List<CacheRegionStatsDTO> regions, String region, String type, CacheRegionStatistics regionStats) {
+        if (regionStats == null) {
+            return; // La región aún no se ha creado (ningún acceso desde el arranque)
+        }
+        regions.add(toDto(region, type, regionStats.getHitCount(), regionStats.getMissCount(),
+                regionStats.getPutCount(), regionStats.getElementCountInMemory()));
+    }
+
+    private static CacheRegionStatsDTO toDto(String region, String type, long hits, long misses, long puts, long elements) {
+        long accesses = hits + misses;
+        double hitRatio = accesses > 0 ? (double) hits / accesses : 0.0;
+        return new CacheRegionStatsDTO(region, type, hits, misses, puts, hitRatio, elements);
+    }
+}
@@ -2,31 +2,55 @@ package com.cibertec.service.serviceImpl;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.MilestoneDTO;
 import com.cibertec.entity.Milestone;
 import com.cibertec.entity.Project;
+import com.cibertec.event.ProjectChangeEvent;
 import com.cibertec.exception.ResourceNotFoundException;
 import com.cibertec.repository.MilestoneRepository;
 import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.SparseFieldsetRepository;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.search.SearchIndex;
 import com.cibertec.service.MilestoneService;
+import com.cibertec.service.ProjectStatsDelta;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.util.CursorPagination;
+import com.cibertec.util.ResourceVersion;
+import com.cibertec.util.SparseFieldset;
 
 @Service
 public class MilestoneServiceImplement implements MilestoneService {
 
+    // Filtro y campo de fecha límite de los listados con 'fields=' (paginados por fecha_limite, id)
+    private static final String DUE_DATE_FIELD = "dueDate";
+
     private final MilestoneRepository milestoneRepository;
     private final ProjectRepository projectRepository;
+    private final ProjectStatsService projectStatsService;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
 
     @Autowired
-    public MilestoneServiceImplement(MilestoneRepository milestoneRepository, ProjectRepository projectRepository) {
+    public MilestoneServiceImplement(MilestoneRepository milestoneRepository, ProjectRepository projectRepository,
+                                     ProjectStatsService projectStatsService, SearchIndex searchIndex,
+                                     ApplicationEventPublisher eventPublisher, SparseFieldsetRepository sparseFieldsetRepository) {
         this.milestoneRepository = milestoneRepository;
         this.projectRepository = projectRepository;
+        this.projectStatsService = projectStatsService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
     }
 
     @Override
@@ -38,29 +62,40 @@ public class MilestoneServiceImplement implements MilestoneService {
         // Si no se envía en el DTO, y la DB es nullable, será null. Si es NOT NULL, debes darle un valor.
         // La entidad ya tiene 'completed = false' por defecto.
         Milestone savedMilestone = milestoneRepository.save(milestone);
-        return convertToDto(savedMilestone);
+        projectStatsService.apply(new ProjectStatsDelta()
+                .addMilestone(savedMilestone.getProject().getId(), savedMilestone.getCompleted()));
+        searchIndex.indexAfterCommit(toSearchDocument(savedMilestone));
+        MilestoneDTO created = convertToDto(savedMilestone);
+        eventPublisher.publishEvent(new ProjectChangeEvent(savedMilestone.getProject().getId(), ProjectChangeEvent.MILESTONE,
+                ProjectChangeEvent.CREATED, created.getId(), created));
+        return created;
     }
 
     @Override
     @Transactional(readOnly = true)
     public MilestoneDTO getMilestoneById(Long id) {
-        Milestone milestone = milestoneRepository.findById(id)
+        return milestoneRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Milestone not found with ID: " + id));
-        return convertToDto(milestone);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<MilestoneDTO> getAllMilestones() {
-        return milestoneRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<MilestoneDTO> getAllMilestones(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<MilestoneDTO> rows = milestoneRepository.findDtoPage(
+                CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, MilestoneDTO::getId);
     }
 
     @Override
     @Transactional
     public MilestoneDTO updateMilestone(Long id, MilestoneDTO milestoneDTO) {
         return milestoneRepository.findById(id).map(existingMilestone -> {
+            // Estado previo para estadisticas_proyectos
+            Long previousProjectId = existingMilestone.getProject().getId();
+            ProjectStatsDelta statsDelta = new ProjectStatsDelta()
+                    .removeMilestone(previousProjectId, existingMilestone.getCompleted());
+
             existingMilestone.setName(milestoneDTO.getName());
             existingMilestone.setDescription(milestoneDTO.getDescription());
             existingMilestone.setDueDate(milestoneDTO.getDueDate());
@@ -79,49 +114,125 @@ public class MilestoneServiceImplement implements MilestoneService {
             }
 
             Milestone updatedMilestone = milestoneRepository.save(existingMilestone);
-            return convertToDto(updatedMilestone);
+            statsDelta.addMilestone(updatedMilestone.getProject().getId(), updatedMilestone.getCompleted());
+            projectStatsService.apply(statsDelta);
+            searchIndex.indexAfterCommit(toSearchDocument(updatedMilestone));
+            MilestoneDTO updated = convertToDto(updatedMilestone);
+            Long projectId = updatedMilestone.getProject().getId();
+            eventPublisher.publishEvent(new ProjectChangeEvent(projectId, ProjectChangeEvent.MILESTONE,
+                    ProjectChangeEvent.UPDATED, id, updated));
+            if (!previousProjectId.equals(projectId)) {
+                eventPublisher.publishEvent(new ProjectChangeEvent(previousProjectId, ProjectChangeEvent.MILESTONE,
+                        ProjectChangeEvent.REMOVED, id, null));
+            }
+            return updated;
         }).orElseThrow(() -> new ResourceNotFoundException("Milestone not found with ID: " + id));
     }
 
     @Override
     @Transactional
     public void deleteMilestone(Long id) {
-        if (!milestoneRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Milestone not found with ID: " + id);
+        Milestone milestone = milestoneRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Milestone not found with ID: " + id));
+        milestoneRepository.delete(milestone);
+        projectStatsService.apply(new ProjectStatsDelta()
+                .removeMilestone(milestone.getProject().getId(), milestone.getCompleted()));
+        searchIndex.deleteAfterCommit(SearchDocument.MILESTONE, id);
+        eventPublisher.publishEvent(new ProjectChangeEvent(milestone.getProject().getId(), ProjectChangeEvent.MILESTONE,
+                ProjectChangeEvent.DELETED, id, null));
+    }
+
+    private SearchDocument toSearchDocument(Milestone milestone) {
+        return SearchDocument.milestone(milestone.getId(), milestone.getProject().getId(), milestone.getName(),
+                milestone.getDescription(), milestone.getCompleted());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<MilestoneDTO> getMilestonesByProjectId(Long projectId, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<MilestoneDTO> rows = milestoneRepository.findDtoPageByProjectId(
+                projectId, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, MilestoneDTO::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getMilestoneVersion(Long id) {
+        return milestoneRepository.findVersionById(id)
+                .map(version -> ResourceVersion.of("milestone", version))
+                .orElseThrow(() -> new ResourceNotFoundException("Milestone not found with ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Map<String, Object>> getMilestoneFields(String fields, Map<String, Object> filters, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        if (filters.containsKey(DUE_DATE_FIELD)) {
+            // Mismo cursor (fecha_limite, id) que los listados de hitos por fecha límite
+            List<Map<String, Object>> rows = sparseFieldsetRepository.findPage(MilestoneRepository.MILESTONE_FIELDS,
+                    MilestoneRepository.MILESTONE_FIELDS.select(fields, DUE_DATE_FIELD), filters, DUE_DATE_FIELD,
+                    CursorPagination.decodeDateKey(cursor), CursorPagination.limit(pageSize));
+            return CursorPagination.toDateKeyPage(rows, pageSize,
+                    row -> new CursorPagination.DateKey((LocalDate) row.get(DUE_DATE_FIELD), (Long) row.get(SparseFieldset.ID)));
         }
-        milestoneRepository.deleteById(id);
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findPage(MilestoneRepository.MILESTONE_FIELDS,
+                MilestoneRepository.MILESTONE_FIELDS.select(fields), filters, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, row -> (Long) row.get(SparseFieldset.ID));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllMilestonesVersion(String cursor, Integer size) {
+        Long afterId = CursorPagination.decode(cursor);
+        Long untilId = milestoneRepository.findIdPage(afterId, CursorPagination.pageEnd(CursorPagination.pageSize(size)))
+                .stream().findFirst().orElse(Long.MAX_VALUE);
+        return ResourceVersion.ofCollection("milestones-" + untilId, milestoneRepository.findVersionByIdRange(afterId, untilId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getMilestonesByProjectIdVersion(Long projectId) {
+        return ResourceVersion.ofCollection("milestones-project-" + projectId, milestoneRepository.findVersionByProjectId(projectId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<MilestoneDTO> getMilestonesByProjectId(Long projectId) {
-        return milestoneRepository.findByProjectId(projectId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<MilestoneDTO> getPendingMilestones(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<MilestoneDTO> rows = milestoneRepository.findDtoPageByCompleted(
+                false, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, MilestoneDTO::getId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<MilestoneDTO> getPendingMilestones() {
-        return milestoneRepository.findByCompleted(false).stream() // <-- ¡Cambiado! Buscar los NO completados
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<MilestoneDTO> getMilestonesByDueDateLessThanEqual(LocalDate dueDate, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        CursorPagination.DateKey after = CursorPagination.decodeDateKey(cursor);
+        List<MilestoneDTO> rows = milestoneRepository.findDtoPageByDueDateUntil(
+                dueDate, after.date(), after.id(), CursorPagination.limit(pageSize));
+        return CursorPagination.toDateKeyPage(rows, pageSize, MilestoneServiceImplement::dueDateKey);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<MilestoneDTO> getMilestonesByDueDateLessThanEqual(LocalDate dueDate) {
-        return milestoneRepository.findByDueDateLessThanEqual(dueDate).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<MilestoneDTO> getPendingMilestonesDueUntil(LocalDate dueDate, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        CursorPagination.DateKey after = CursorPagination.decodeDateKey(cursor);
+        List<MilestoneDTO> rows = milestoneRepository.findDtoPageByCompletedAndDueDateUntil(
+                false, dueDate, after.date(), after.id(), CursorPagination.limit(pageSize));
+        return CursorPagination.toDateKeyPage(rows, pageSize, MilestoneServiceImplement::dueDateKey);
+    }
+
+    private static CursorPagination.DateKey dueDateKey(MilestoneDTO milestone) {
+        return new CursorPagination.DateKey(milestone.getDueDate(), milestone.getId());
     }
 
     // --- Métodos de Conversión (auxiliares) ---
+    // Solo se usa al crear: el id lo genera la base de datos (con @Version, save() persiste la entidad nueva tal cual)
     private Milestone convertToEntity(MilestoneDTO milestoneDTO) {
         Milestone milestone = new Milestone();
-        if (milestoneDTO.getId() != null) {
-            milestone.setId(milestoneDTO.getId());
-        }
         milestone.setName(milestoneDTO.getName());
         milestone.setDescription(milestoneDTO.getDescription());
         milestone.setDueDate(milestoneDTO.getDueDate());
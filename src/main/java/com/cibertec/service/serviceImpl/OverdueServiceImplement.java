@@ -0,0 +1,171 @@
+package com.cibertec.service.serviceImpl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.OverdueItemDTO;
+import com.cibertec.dto.OverdueScanDTO;
+import com.cibertec.exception.ConflictException;
+import com.cibertec.repository.OverdueItemRepository;
+import com.cibertec.repository.OverdueItemRepository.OverdueCandidate;
+import com.cibertec.repository.OverdueItemRepository.ScanState;
+import com.cibertec.service.OverdueService;
+import com.cibertec.util.CursorPagination;
+
+/**
+ * Mantiene elementos_vencidos con un escaneo incremental por bloques, de modo que las consultas de vencidos
+ * son lecturas indexadas de una tabla pequeña en lugar de filtrar todas las tareas e hitos en cada petición.
+ * Cada escaneo, por tipo:
+ * 1. Recorre las fechas límite entre la marca de agua y hoy (lo que venció desde el escaneo anterior).
+ * 2. Recorre los elementos modificados desde el escaneo anterior con fecha límite ya pasada (reabiertos o con
+ *    la fecha movida hacia atrás), que el rango por fecha ya no vuelve a visitar.
+ * 3. Revisa las marcas existentes y retira las que dejaron de corresponder (completados, reprogramados o eliminados).
+ * Cada bloque se escribe en su propia transacción; entre escaneos las marcas pueden ir hasta un intervalo por detrás.
+ */
+@Service
+public class OverdueServiceImplement implements OverdueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueServiceImplement.class);
+    // Margen para las transacciones que fijaron ultima_actualizacion antes del escaneo anterior pero confirmaron después
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(5);
+
+    private final OverdueItemRepository overdueItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean scanning = new AtomicBoolean();
+
+    @Value("${app.overdue.chunk-size:1000}")
+    private int chunkSize;
+
+    public OverdueServiceImplement(OverdueItemRepository overdueItemRepository, PlatformTransactionManager transactionManager) {
+        this.overdueItemRepository = overdueItemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.overdue.initial-delay-ms:60000}", fixedDelayString = "${app.overdue.scan-interval-ms:300000}")
+    public void scheduledScan() {
+        if (!scanning.compareAndSet(false, true)) {
+            return; // Un escaneo manual sigue en curso
+        }
+        try {
+            OverdueScanDTO result = runScan();
+            logger.info("Overdue scan: {} tasks and {} milestones flagged, {} flags cleared in {} ms",
+                    result.getTasksFlagged(), result.getMilestonesFlagged(), result.getFlagsCleared(), result.getDurationMillis());
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    @Override
+    public OverdueScanDTO scan() {
+        if (!scanning.compareAndSet(false, true)) {
+            throw new ConflictException("An overdue scan is already running.");
+        }
+        try {
+            return runScan();
+        } finally {
+            scanning.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OverdueItemDTO> getOverdueTasks(Long projectId, String cursor, Integer size) {
+        return getOverdueItems(OverdueItemRepository.TASK, projectId, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OverdueItemDTO> getOverdueMilestones(Long projectId, String cursor, Integer size) {
+        return getOverdueItems(OverdueItemRepository.MILESTONE, projectId, cursor, size);
+    }
+
+    private CursorPageDTO<OverdueItemDTO> getOverdueItems(String type, Long projectId, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<OverdueItemDTO> rows = overdueItemRepository.findPage(type, projectId, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, OverdueItemDTO::getId);
+    }
+
+    private OverdueScanDTO runScan() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        LocalDateTime startedAt = LocalDateTime.now();
+        OverdueScanDTO result = new OverdueScanDTO();
+        result.setTasksFlagged(scanType(OverdueItemRepository.TASK, today, startedAt, result));
+        result.setMilestonesFlagged(scanType(OverdueItemRepository.MILESTONE, today, startedAt, result));
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private long scanType(String type, LocalDate today, LocalDateTime startedAt, OverdueScanDTO result) {
+        ScanState state = overdueItemRepository.findScanState(type).orElse(null);
+        long flagged = 0;
+
+        // 1. Fechas límite en [marca de agua, hoy); sin marca de agua (primer escaneo) todas las pasadas
+        LocalDate afterDueDate = state != null ? state.dueBefore() : OverdueItemRepository.SCAN_START;
+        long afterId = 0;
+        while (true) {
+            List<OverdueCandidate> chunk = overdueItemRepository.findOpenByDueDate(type, afterDueDate, afterId, today, chunkSize);
+            flagged += flag(type, chunk, startedAt);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            OverdueCandidate last = chunk.get(chunk.size() - 1);
+            afterDueDate = last.dueDate();
+            afterId = last.id();
+        }
+
+        // 2. Modificados desde el escaneo anterior con la fecha límite ya pasada
+        if (state != null) {
+            LocalDateTime afterUpdated = state.lastScanStartedAt().minus(COMMIT_LAG);
+            afterId = 0;
+            while (true) {
+                List<OverdueCandidate> chunk = overdueItemRepository.findOpenUpdatedSince(type, afterUpdated, afterId, today, chunkSize);
+                flagged += flag(type, chunk, startedAt);
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                OverdueCandidate last = chunk.get(chunk.size() - 1);
+                afterUpdated = last.lastUpdated();
+                afterId = last.id();
+            }
+        }
+
+        // 3. Marcas que ya no corresponden, recorridas por bloques de ids
+        long afterFlaggedId = 0;
+        while (true) {
+            List<Long> ids = overdueItemRepository.findFlaggedIdPage(type, afterFlaggedId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long fromId = afterFlaggedId;
+            long lastId = ids.get(ids.size() - 1);
+            Integer cleared = transactionTemplate.execute(status -> overdueItemRepository.clearResolved(type, fromId, lastId, today));
+            result.setFlagsCleared(result.getFlagsCleared() + (cleared != null ? cleared : 0));
+            afterFlaggedId = lastId;
+        }
+
+        overdueItemRepository.saveScanState(type, today, startedAt);
+        return flagged;
+    }
+
+    private int flag(String type, List<OverdueCandidate> chunk, LocalDateTime detectedAt) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> overdueItemRepository.flag(type, chunk, detectedAt));
+        return chunk.size();
+    }
+}
@@ -0,0 +1,241 @@
+package com.cibertec.service.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cibertec.dto.ProjectDeletionDTO;
+import com.cibertec.event.ProjectChangeEvent;
+import com.cibertec.exception.ConflictException;
+import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.service.ProjectDeletionService;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.storage.BlobReferences;
+import com.cibertec.util.LruCache;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Elimina proyectos con sentencias DELETE por conjunto en orden de dependencias (adjuntos, tareas, hitos y proyecto),
+ * sin cargar las entidades hijas en el contexto de persistencia como haría la cascada de deleteById.
+ * La versión asíncrona borra las tareas, hitos y adjuntos por lotes de 'chunkSize' filas, cada lote en su propia
+ * transacción, y deja el proyecto para la última; mientras tanto las estadísticas del proyecto no se ajustan.
+ * Los archivos de los adjuntos se recolectan en segundo plano tras cada commit (ver BlobReferences).
+ */
+@Service
+public class ProjectDeletionServiceImplement implements ProjectDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectDeletionServiceImplement.class);
+    // Eliminaciones recientes cuyo resultado se conserva para GET /api/projects/{id}/deletion
+    private static final int MAX_TRACKED_DELETIONS = 1000;
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final MilestoneRepository milestoneRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final BlobReferences blobReferences;
+    private final ProjectStatsService projectStatsService;
+    private final AuthorizationIndex authorizationIndex;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LruCache<Long, ProjectDeletionDTO> deletions = new LruCache<>(MAX_TRACKED_DELETIONS);
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.projects.delete.chunk-size:1000}")
+    private int chunkSize;
+
+    public ProjectDeletionServiceImplement(ProjectRepository projectRepository, TaskRepository taskRepository,
+                                           MilestoneRepository milestoneRepository, AttachmentRepository attachmentRepository,
+                                           BlobReferences blobReferences, ProjectStatsService projectStatsService,
+                                           AuthorizationIndex authorizationIndex, SearchIndex searchIndex,
+                                           ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.milestoneRepository = milestoneRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.blobReferences = blobReferences;
+        this.projectStatsService = projectStatsService;
+        this.authorizationIndex = authorizationIndex;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void deleteProject(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+        deleteProjectRows(projectId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteArchivedProject(Long projectId) {
+        // Los adjuntos archivados siguen referenciando sus contenidos: no se liberan ni se recolectan
+        deleteRows(projectId);
+        evictProject(projectId, ProjectChangeEvent.ARCHIVED);
+    }
+
+    @Override
+    public ProjectDeletionDTO startDeletion(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+        if (!running.add(projectId)) {
+            throw new ConflictException("Project " + projectId + " is already being deleted.");
+        }
+        ProjectDeletionDTO progress = new ProjectDeletionDTO(projectId, ProjectDeletionDTO.RUNNING,
+                taskRepository.countByProjectId(projectId), milestoneRepository.countByProjectId(projectId),
+                0, 0, 0, LocalDateTime.now(), null, null);
+        ProjectDeletionDTO started = copy(progress);
+        deletions.put(projectId, copy(progress));
+        try {
+            worker.execute(() -> runDeletion(progress));
+        } catch (RejectedExecutionException e) {
+            running.remove(projectId);
+            throw e;
+        }
+        return started;
+    }
+
+    @Override
+    public ProjectDeletionDTO getDeletion(Long projectId) {
+        ProjectDeletionDTO progress = deletions.get(projectId);
+        if (progress == null) {
+            throw new ResourceNotFoundException("No deletion found for project ID: " + projectId);
+        }
+        return copy(progress);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void runDeletion(ProjectDeletionDTO progress) {
+        Long projectId = progress.getProjectId();
+        try {
+            DeletedRows rows;
+            while ((rows = transactionTemplate.execute(status -> deleteTaskChunk(projectId))) != null) {
+                publish(progress, rows);
+            }
+            while ((rows = transactionTemplate.execute(status -> deleteMilestoneChunk(projectId))) != null) {
+                publish(progress, rows);
+            }
+            while ((rows = transactionTemplate.execute(status -> deleteAttachmentChunk(projectId))) != null) {
+                publish(progress, rows);
+            }
+            // Lo creado durante los lotes se elimina junto con el proyecto
+            publish(progress, transactionTemplate.execute(status -> deleteProjectRows(projectId)));
+            progress.setState(ProjectDeletionDTO.COMPLETED);
+        } catch (RuntimeException e) {
+            logger.warn("Deletion of project {} failed", projectId, e);
+            progress.setState(ProjectDeletionDTO.FAILED);
+            progress.setError(e.getMessage());
+        } finally {
+            progress.setFinishedAt(LocalDateTime.now());
+            deletions.put(projectId, copy(progress));
+            running.remove(projectId);
+        }
+    }
+
+    // Cada lote devuelve null cuando ya no quedan filas del proyecto
+
+    private DeletedRows deleteTaskChunk(Long projectId) {
+        List<Long> taskIds = taskRepository.findIdsByProjectId(projectId, PageRequest.of(0, chunkSize));
+        if (taskIds.isEmpty()) {
+            return null;
+        }
+        blobReferences.releaseAll(attachmentRepository.countContentHashesByTaskIdIn(taskIds));
+        int attachments = attachmentRepository.bulkDeleteByTaskIdIn(taskIds);
+        return new DeletedRows(taskRepository.bulkDeleteByIdIn(taskIds), 0, attachments);
+    }
+
+    private DeletedRows deleteMilestoneChunk(Long projectId) {
+        List<Long> milestoneIds = milestoneRepository.findIdsByProjectId(projectId, PageRequest.of(0, chunkSize));
+        if (milestoneIds.isEmpty()) {
+            return null;
+        }
+        return new DeletedRows(0, milestoneRepository.bulkDeleteByIdIn(milestoneIds), 0);
+    }
+
+    private DeletedRows deleteAttachmentChunk(Long projectId) {
+        List<Long> attachmentIds = attachmentRepository.findIdsByProjectId(projectId, PageRequest.of(0, chunkSize));
+        if (attachmentIds.isEmpty()) {
+            return null;
+        }
+        blobReferences.releaseAll(attachmentRepository.countContentHashesByIdIn(attachmentIds));
+        return new DeletedRows(0, 0, attachmentRepository.bulkDeleteByIdIn(attachmentIds));
+    }
+
+    private DeletedRows deleteProjectRows(Long projectId) {
+        blobReferences.releaseAll(attachmentRepository.countContentHashesByProjectId(projectId));
+        DeletedRows rows = deleteRows(projectId);
+        evictProject(projectId, ProjectChangeEvent.DELETED);
+        return rows;
+    }
+
+    private DeletedRows deleteRows(Long projectId) {
+        // Orden de dependencias: adjuntos (de las tareas y del proyecto), tareas, hitos y, por último, el proyecto
+        int attachments = attachmentRepository.bulkDeleteByTaskProjectId(projectId) + attachmentRepository.bulkDeleteByProjectId(projectId);
+        attachmentRepository.detachFromProject(projectId);
+        int tasks = taskRepository.bulkDeleteByProjectId(projectId);
+        int milestones = milestoneRepository.bulkDeleteByProjectId(projectId);
+        projectStatsService.removeProject(projectId);
+        projectRepository.bulkDeleteById(projectId);
+        return new DeletedRows(tasks, milestones, attachments);
+    }
+
+    private void evictProject(Long projectId, String action) {
+        authorizationIndex.evictProject(projectId); // También descarta las tareas del proyecto
+        searchIndex.deleteProjectAfterCommit(projectId); // Con sus tareas e hitos
+        eventPublisher.publishEvent(new ProjectChangeEvent(projectId, ProjectChangeEvent.PROJECT, action, projectId, null));
+    }
+
+    // Solo se publican copias: el hilo de la eliminación nunca comparte el DTO que modifica
+    private void publish(ProjectDeletionDTO progress, DeletedRows rows) {
+        progress.setTasksDeleted(progress.getTasksDeleted() + rows.tasks());
+        progress.setMilestonesDeleted(progress.getMilestonesDeleted() + rows.milestones());
+        progress.setAttachmentsDeleted(progress.getAttachmentsDeleted() + rows.attachments());
+        deletions.put(progress.getProjectId(), copy(progress));
+    }
+
+    private static ProjectDeletionDTO copy(ProjectDeletionDTO progress) {
+        return new ProjectDeletionDTO(progress.getProjectId(), progress.getState(), progress.getTotalTasks(),
+                progress.getTotalMilestones(), progress.getTasksDeleted(), progress.getMilestonesDeleted(),
+                progress.getAttachmentsDeleted(), progress.getStartedAt(), progress.getFinishedAt(), progress.getError());
+    }
+
+    private record DeletedRows(long tasks, long milestones, long attachments) {
+    }
+}
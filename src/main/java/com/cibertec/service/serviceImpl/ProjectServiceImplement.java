@@ -1,37 +1,100 @@
 package com.cibertec.service.serviceImpl;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.cibertec.dto.ArchivedProjectDTO;
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.ProjectDTO;
+import com.cibertec.dto.ProjectSummaryDTO;
 import com.cibertec.dto.TaskDTO;
 import com.cibertec.dto.UserDTO; // <-- Asegúrate de importar UserDTO
 import com.cibertec.entity.Project;
 import com.cibertec.entity.Task;
 import com.cibertec.entity.User;
+import com.cibertec.event.ProjectChangeEvent;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.exception.ConflictException;
 import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.export.ExportRowWriter;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectArchiveRepository;
+import com.cibertec.repository.ProjectExportRepository;
 import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.SparseFieldsetRepository;
 import com.cibertec.repository.TaskRepository;
 import com.cibertec.repository.UserRepository;
+import com.cibertec.repository.projection.AttachmentTotals;
+import com.cibertec.repository.projection.MilestoneProgress;
+import com.cibertec.repository.projection.ProjectCount;
+import com.cibertec.repository.projection.ProjectGroupCount;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.service.ProjectDeletionService;
 import com.cibertec.service.ProjectService;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.util.CursorPagination;
+import com.cibertec.util.ResourceVersion;
+import com.cibertec.util.SparseFieldset;
 
 @Service
 public class ProjectServiceImplement implements ProjectService {
 
+    // Máximo de proyectos por llamada al resumen múltiple (limita el tamaño de las cláusulas IN)
+    private static final int MAX_SUMMARY_PROJECTS = 500;
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final MilestoneRepository milestoneRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final AuthorizationIndex authorizationIndex;
+    private final ProjectStatsService projectStatsService;
+    private final ProjectDeletionService projectDeletionService;
+    private final SearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseFieldsetRepository sparseFieldsetRepository;
+    private final ProjectExportRepository projectExportRepository;
+    private final ProjectArchiveRepository projectArchiveRepository;
+
+    @Value("${app.export.max-projects:100}")
+    private int exportMaxProjects;
 
     @Autowired
-    public ProjectServiceImplement(ProjectRepository projectRepository, UserRepository userRepository, TaskRepository taskRepository) {
+    public ProjectServiceImplement(ProjectRepository projectRepository, UserRepository userRepository, TaskRepository taskRepository,
+                                   MilestoneRepository milestoneRepository, AttachmentRepository attachmentRepository,
+                                   AuthorizationIndex authorizationIndex, ProjectStatsService projectStatsService,
+                                   ProjectDeletionService projectDeletionService, SearchIndex searchIndex,
+                                   ApplicationEventPublisher eventPublisher, SparseFieldsetRepository sparseFieldsetRepository,
+                                   ProjectExportRepository projectExportRepository, ProjectArchiveRepository projectArchiveRepository) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
+        this.milestoneRepository = milestoneRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.authorizationIndex = authorizationIndex;
+        this.projectStatsService = projectStatsService;
+        this.projectDeletionService = projectDeletionService;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.sparseFieldsetRepository = sparseFieldsetRepository;
+        this.projectExportRepository = projectExportRepository;
+        this.projectArchiveRepository = projectArchiveRepository;
     }
 
     @Override
@@ -48,23 +111,25 @@ public class ProjectServiceImplement implements ProjectService {
         project.setProjectManager(projectManager);
 
         Project savedProject = projectRepository.save(project);
+        projectStatsService.initProject(savedProject.getId());
+        searchIndex.indexAfterCommit(toSearchDocument(savedProject));
         return convertToDto(savedProject);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProjectDTO getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
+        return projectRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
-        return convertToDto(project);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProjectDTO> getAllProjects() {
-        return projectRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProjectDTO> getAllProjects(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ProjectDTO> rows = projectRepository.findDtoPage(
+                CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ProjectDTO::getId);
     }
 
     @Override
@@ -88,17 +153,49 @@ public class ProjectServiceImplement implements ProjectService {
             }
 
             Project updatedProject = projectRepository.save(existingProject);
-            return convertToDto(updatedProject);
+            authorizationIndex.evictProject(id); // El gerente pudo cambiar
+            searchIndex.indexAfterCommit(toSearchDocument(updatedProject));
+            ProjectDTO updated = convertToDto(updatedProject);
+            eventPublisher.publishEvent(new ProjectChangeEvent(id, ProjectChangeEvent.PROJECT, ProjectChangeEvent.UPDATED, id, updated));
+            return updated;
         }).orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
     }
 
     @Override
     @Transactional
     public void deleteProject(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Project not found with ID: " + id);
-        }
-        projectRepository.deleteById(id);
+        // Tareas, hitos y adjuntos se eliminan con DELETE por conjunto, sin recorrer la cascada de entidades
+        projectDeletionService.deleteProject(id);
+    }
+
+    private SearchDocument toSearchDocument(Project project) {
+        return SearchDocument.project(project.getId(), project.getName(), project.getDescription(), project.getStatus());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getProjectVersion(Long id) {
+        return projectRepository.findVersionById(id)
+                .map(version -> ResourceVersion.of("project", version))
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Map<String, Object>> getProjectFields(String fields, Map<String, Object> filters, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<Map<String, Object>> rows = sparseFieldsetRepository.findPage(ProjectRepository.PROJECT_FIELDS,
+                ProjectRepository.PROJECT_FIELDS.select(fields), filters, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, row -> (Long) row.get(SparseFieldset.ID));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getAllProjectsVersion(String cursor, Integer size) {
+        Long afterId = CursorPagination.decode(cursor);
+        Long untilId = projectRepository.findIdPage(afterId, CursorPagination.pageEnd(CursorPagination.pageSize(size)))
+                .stream().findFirst().orElse(Long.MAX_VALUE);
+        return ResourceVersion.ofCollection("projects-" + untilId, projectRepository.findVersionByIdRange(afterId, untilId));
     }
 
     // --- Métodos de Verificación de Project Manager ---
@@ -106,24 +203,20 @@ public class ProjectServiceImplement implements ProjectService {
     @Override
     @Transactional(readOnly = true)
     public boolean isProjectManager(Long projectId, String username) {
-        Project project = projectRepository.findById(projectId)
+        // Solo se lee el email del gerente (caché acotada + consulta de una columna), sin cargar el Project ni el User
+        String managerEmail = authorizationIndex.managerEmailOfProject(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + projectId));
 
-        return project.getProjectManager() != null && project.getProjectManager().getEmail().equals(username);
+        return managerEmail.equals(username);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isProjectManagerOfTask(Long taskId, String username) {
-        Task task = taskRepository.findById(taskId)
+        Long projectId = authorizationIndex.projectOfTask(taskId)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 
-        Project project = task.getProject();
-        if (project == null) {
-            return false;
-        }
-
-        return isProjectManager(project.getId(), username);
+        return isProjectManager(projectId, username);
     }
 
     @Override
@@ -135,31 +228,219 @@ public class ProjectServiceImplement implements ProjectService {
         return isProjectManager(taskDTO.getProjectId(), username);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void checkExportableProjects(List<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            throw new BadRequestException("At least one project ID is required for the export.");
+        }
+        if (projectIds.size() > exportMaxProjects) {
+            throw new BadRequestException("Cannot export more than " + exportMaxProjects + " projects at once.");
+        }
+        Set<Long> missing = new LinkedHashSet<>(projectIds);
+        projectRepository.findExistingIds(projectIds).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Projects not found with IDs: " + missing);
+        }
+    }
+
+    /**
+     * Tareas, hitos y adjuntos de los proyectos, en ese orden. Una sola transacción de solo lectura:
+     * en InnoDB las tres consultas leen la misma instantánea aunque la exportación tarde minutos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProjects(List<Long> projectIds, ExportRowWriter writer) {
+        projectExportRepository.exportTasks(projectIds, writer);
+        projectExportRepository.exportMilestones(projectIds, writer);
+        projectExportRepository.exportAttachments(projectIds, writer);
+    }
+
+    // --- Archivo de proyectos completados ---
+
+    @Override
+    @Transactional
+    public ArchivedProjectDTO archiveProject(Long id) {
+        ProjectDTO project = projectRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + id));
+        if (!Project.STATUS_COMPLETED.equals(project.getStatus())) {
+            throw new ConflictException("Only projects with status " + Project.STATUS_COMPLETED + " can be archived.");
+        }
+        ArchivedProjectDTO archived = projectArchiveRepository.archive(id, LocalDateTime.now());
+        projectDeletionService.deleteArchivedProject(id); // Mismos DELETE por conjunto que la eliminación
+        return archived;
+    }
+
+    @Override
+    @Transactional
+    public ProjectDTO restoreProject(Long id) {
+        ArchivedProjectDTO archived = getArchivedProject(id);
+        if (!userRepository.existsById(archived.getProjectManagerId())) {
+            throw new ConflictException("Project manager with ID " + archived.getProjectManagerId() + " no longer exists; the project cannot be restored.");
+        }
+        long orphanedAttachments = projectArchiveRepository.countAttachmentsWithMissingUploader(id);
+        if (orphanedAttachments > 0) {
+            throw new ConflictException(orphanedAttachments + " archived attachment(s) were uploaded by users that no longer exist; "
+                    + "the project cannot be restored.");
+        }
+        projectArchiveRepository.restore(id);
+        projectStatsService.recalculateProject(id);
+        ProjectDTO restored = getProjectById(id);
+        List<SearchDocument> documents = new ArrayList<>(taskRepository.findSearchDocumentsByProjectId(id));
+        documents.addAll(milestoneRepository.findSearchDocumentsByProjectId(id));
+        documents.add(SearchDocument.project(restored.getId(), restored.getName(), restored.getDescription(), restored.getStatus()));
+        searchIndex.indexAllAfterCommit(documents);
+        eventPublisher.publishEvent(new ProjectChangeEvent(id, ProjectChangeEvent.PROJECT, ProjectChangeEvent.RESTORED, id, restored));
+        return restored;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ArchivedProjectDTO getArchivedProject(Long id) {
+        return projectArchiveRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived project not found with ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ArchivedProjectDTO> getArchivedProjects(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ArchivedProjectDTO> rows = projectArchiveRepository.findPage(CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ArchivedProjectDTO::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isProjectManagerForBulkTasks(List<TaskDTO> taskDTOs, String username) {
+        // Proyectos destino de las tareas + proyectos actuales de las tareas que se van a actualizar
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskDTO taskDTO : taskDTOs) {
+            if (taskDTO == null) {
+                continue;
+            }
+            if (taskDTO.getProjectId() != null) {
+                projectIds.add(taskDTO.getProjectId());
+            }
+            if (taskDTO.getId() != null) {
+                taskIds.add(taskDTO.getId());
+            }
+        }
+        if (!taskIds.isEmpty()) {
+            projectIds.addAll(taskRepository.findDistinctProjectIdsByIdIn(taskIds));
+        }
+        // Los proyectos inexistentes no se autorizan aquí: la validación los reporta como error en sus tareas
+        if (!projectIds.isEmpty()) {
+            projectIds.retainAll(projectRepository.findExistingIds(projectIds));
+        }
+        if (projectIds.isEmpty()) {
+            return true; // Nada que autorizar: las tareas sin proyecto se rechazarán en la validación
+        }
+        return projectRepository.countByIdInAndManagerEmail(projectIds, username) == projectIds.size();
+    }
+
     // --- Métodos de Búsqueda Implementados ---
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProjectDTO> findProjectsByNameContainingIgnoreCase(String name) {
-        return projectRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProjectDTO> findProjectsByNameContainingIgnoreCase(String name, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ProjectDTO> rows = projectRepository.findDtoPageByNameContaining(
+                name, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ProjectDTO::getId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProjectDTO> findProjectsByStartDateGreaterThanEqual(LocalDate date) {
-        return projectRepository.findByStartDateGreaterThanEqual(date).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageDTO<ProjectDTO> findProjectsByStartDateGreaterThanEqual(LocalDate date, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ProjectDTO> rows = projectRepository.findDtoPageByStartDateFrom(
+                date, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ProjectDTO::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProjectDTO> findProjectsByStatus(String status, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ProjectDTO> rows = projectRepository.findDtoPageByStatus(
+                status, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ProjectDTO::getId);
+    }
+
+    // --- Resumen agregado de proyectos ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectSummaryDTO getProjectSummary(Long projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project not found with ID: " + projectId);
+        }
+        return buildSummaries(List.of(projectId)).get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProjectSummaryDTO> getProjectSummaries(List<Long> projectIds) {
+        if (projectIds == null || projectIds.isEmpty()) {
+            throw new BadRequestException("At least one project ID is required.");
+        }
+        Set<Long> requested = new LinkedHashSet<>(projectIds);
+        if (requested.size() > MAX_SUMMARY_PROJECTS) {
+            throw new BadRequestException("A summary request accepts at most " + MAX_SUMMARY_PROJECTS + " project IDs.");
+        }
+        // Los IDs inexistentes se omiten; el orden de la respuesta sigue al de la solicitud
+        Set<Long> existing = new HashSet<>(projectRepository.findExistingIds(requested));
+        requested.retainAll(existing);
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        return buildSummaries(new ArrayList<>(requested));
+    }
+
+    /**
+     * Calcula los indicadores de todos los proyectos con cinco consultas GROUP BY,
+     * independientemente del número de proyectos. Ninguna entidad se carga en el contexto de persistencia.
+     */
+    private List<ProjectSummaryDTO> buildSummaries(List<Long> projectIds) {
+        Map<Long, ProjectSummaryDTO> summaries = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            summaries.put(projectId, new ProjectSummaryDTO(projectId));
+        }
+
+        for (ProjectGroupCount row : taskRepository.countByProjectAndStatus(projectIds)) {
+            ProjectSummaryDTO summary = summaries.get(row.getProjectId());
+            summary.getTasksByStatus().put(row.getGroupKey(), row.getTotal());
+            summary.setTotalTasks(summary.getTotalTasks() + row.getTotal());
+        }
+        for (ProjectGroupCount row : taskRepository.countByProjectAndPriority(projectIds)) {
+            summaries.get(row.getProjectId()).getTasksByPriority().put(row.getGroupKey(), row.getTotal());
+        }
+        for (ProjectCount row : taskRepository.countOverdueByProject(projectIds, LocalDate.now(), Task.STATUS_COMPLETED)) {
+            summaries.get(row.getProjectId()).setOverdueTasks(row.getTotal());
+        }
+        for (MilestoneProgress row : milestoneRepository.progressByProject(projectIds)) {
+            ProjectSummaryDTO summary = summaries.get(row.getProjectId());
+            long completed = row.getCompleted() != null ? row.getCompleted() : 0L;
+            summary.setTotalMilestones(row.getTotal());
+            summary.setCompletedMilestones(completed);
+            summary.setMilestoneCompletionRatio(row.getTotal() > 0 ? (double) completed / row.getTotal() : 0.0);
+        }
+        for (AttachmentTotals row : attachmentRepository.totalsByProject(projectIds)) {
+            ProjectSummaryDTO summary = summaries.get(row.getProjectId());
+            if (summary != null) {
+                summary.setAttachmentCount(row.getTotal());
+                summary.setAttachmentTotalBytes(row.getTotalBytes() != null ? row.getTotalBytes() : 0L);
+            }
+        }
+        return new ArrayList<>(summaries.values());
     }
 
     // --- Métodos de Conversión (auxiliares) ---
 
+    // Solo se usa al crear: el id lo genera la base de datos (con @Version, save() persiste la entidad nueva tal cual)
     private Project convertToEntity(ProjectDTO projectDTO) {
         Project project = new Project();
-        if (projectDTO.getId() != null) {
-            project.setId(projectDTO.getId());
-        }
         project.setName(projectDTO.getName());
         project.setDescription(projectDTO.getDescription());
         project.setStartDate(projectDTO.getStartDate());
@@ -0,0 +1,229 @@
+package com.cibertec.service.serviceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.dto.ProjectStatsDTO;
+import com.cibertec.dto.ProjectStatsRebuildDTO;
+import com.cibertec.entity.ProjectStats;
+import com.cibertec.entity.Task;
+import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.ProjectStatsRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.repository.projection.AttachmentTotals;
+import com.cibertec.repository.projection.MilestoneProgress;
+import com.cibertec.repository.projection.ProjectCount;
+import com.cibertec.repository.projection.ProjectGroupCount;
+import com.cibertec.service.ProjectStatsDelta;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.util.CursorPagination;
+
+@Service
+public class ProjectStatsServiceImplement implements ProjectStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsServiceImplement.class);
+
+    // Máximo de IDs con deriva que se devuelven en el reporte
+    private static final int MAX_REPORTED_DRIFT = 100;
+
+    private final ProjectStatsRepository projectStatsRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final MilestoneRepository milestoneRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.project-stats.rebuild-chunk-size:500}")
+    private int rebuildChunkSize;
+
+    @Autowired
+    public ProjectStatsServiceImplement(ProjectStatsRepository projectStatsRepository, ProjectRepository projectRepository,
+                                        TaskRepository taskRepository, MilestoneRepository milestoneRepository,
+                                        AttachmentRepository attachmentRepository, PlatformTransactionManager transactionManager) {
+        this.projectStatsRepository = projectStatsRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.milestoneRepository = milestoneRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(ProjectStatsDelta delta) {
+        delta.forEach((projectId, counters) -> projectStatsRepository.applyDelta(projectId,
+                counters[ProjectStatsDelta.OPEN_TASKS],
+                counters[ProjectStatsDelta.CLOSED_TASKS],
+                counters[ProjectStatsDelta.OVERDUE_TASKS],
+                counters[ProjectStatsDelta.MILESTONES],
+                counters[ProjectStatsDelta.COMPLETED_MILESTONES],
+                counters[ProjectStatsDelta.ATTACHMENTS],
+                counters[ProjectStatsDelta.ATTACHMENT_BYTES]));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initProject(Long projectId) {
+        projectStatsRepository.applyDelta(projectId, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeProject(Long projectId) {
+        projectStatsRepository.deleteByProjectId(projectId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalculateProject(Long projectId) {
+        rebuildChunk(List.of(projectId), new ProjectStatsRebuildDTO());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectStatsDTO getProjectStats(Long projectId) {
+        return projectStatsRepository.findDtoById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project stats not found for project ID: " + projectId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProjectStatsDTO> getAllProjectStats(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        List<ProjectStatsDTO> rows = projectStatsRepository.findDtoPage(
+                CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+        return CursorPagination.toPage(rows, pageSize, ProjectStatsDTO::getProjectId);
+    }
+
+    /**
+     * Reconstrucción diaria: además de corregir cualquier deriva, suma las tareas
+     * que vencieron por el paso del tiempo (sin ninguna escritura que las actualice).
+     */
+    @Scheduled(cron = "${app.project-stats.rebuild-cron:0 15 0 * * *}")
+    public void scheduledRebuild() {
+        ProjectStatsRebuildDTO result = rebuild();
+        logger.info("Project stats rebuild: {} projects checked, {} corrected in {} ms",
+                result.getProjectsChecked(), result.getProjectsCorrected(), result.getDurationMillis());
+    }
+
+    @Override
+    public ProjectStatsRebuildDTO rebuild() {
+        long start = System.currentTimeMillis();
+        ProjectStatsRebuildDTO result = new ProjectStatsRebuildDTO();
+        Long afterId = CursorPagination.decode(null);
+        while (true) {
+            List<Long> projectIds = projectRepository.findIdPage(afterId, PageRequest.of(0, rebuildChunkSize));
+            if (projectIds.isEmpty()) {
+                break;
+            }
+            // Cada bloque en su propia transacción: los bloqueos se mantienen solo mientras se recalcula el bloque
+            transactionTemplate.executeWithoutResult(status -> rebuildChunk(projectIds, result));
+            result.setProjectsChecked(result.getProjectsChecked() + projectIds.size());
+            afterId = projectIds.get(projectIds.size() - 1);
+        }
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        if (result.getProjectsCorrected() > 0) {
+            logger.warn("Project stats drift corrected for {} projects (sample: {})",
+                    result.getProjectsCorrected(), result.getDriftedProjectIds());
+        }
+        return result;
+    }
+
+    private void rebuildChunk(List<Long> projectIds, ProjectStatsRebuildDTO result) {
+        // 1. Bloquear primero las filas del bloque; después leer los agregados (ven todo lo confirmado hasta ahora).
+        // Las que faltan se crean con un upsert: así también quedan bloqueadas y un applyDelta concurrente
+        // espera y suma sobre el valor recalculado en lugar de perderse al escribirlo
+        projectStatsRepository.insertMissing(projectIds);
+        Map<Long, ProjectStats> current = new HashMap<>();
+        for (ProjectStats stats : projectStatsRepository.lockAllByProjectIdIn(projectIds)) {
+            current.put(stats.getProjectId(), stats);
+        }
+
+        // 2. Recalcular desde cero con las mismas consultas GROUP BY del resumen de proyectos
+        Map<Long, ProjectStats> expected = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            expected.put(projectId, new ProjectStats(projectId));
+        }
+        for (ProjectGroupCount row : taskRepository.countByProjectAndStatus(projectIds)) {
+            ProjectStats stats = expected.get(row.getProjectId());
+            if (Task.STATUS_COMPLETED.equals(row.getGroupKey())) {
+                stats.setClosedTasks(stats.getClosedTasks() + row.getTotal());
+            } else {
+                stats.setOpenTasks(stats.getOpenTasks() + row.getTotal());
+            }
+        }
+        for (ProjectCount row : taskRepository.countOverdueByProject(projectIds, LocalDate.now(), Task.STATUS_COMPLETED)) {
+            expected.get(row.getProjectId()).setOverdueTasks(row.getTotal());
+        }
+        for (MilestoneProgress row : milestoneRepository.progressByProject(projectIds)) {
+            ProjectStats stats = expected.get(row.getProjectId());
+            stats.setTotalMilestones(row.getTotal());
+            stats.setCompletedMilestones(row.getCompleted() != null ? row.getCompleted() : 0L);
+        }
+        for (AttachmentTotals row : attachmentRepository.totalsByProject(projectIds)) {
+            ProjectStats stats = expected.get(row.getProjectId());
+            if (stats != null) {
+                stats.setAttachmentCount(row.getTotal());
+                stats.setAttachmentBytes(row.getTotalBytes() != null ? row.getTotalBytes() : 0L);
+            }
+        }
+
+        // 3. Escribir solo las filas que difieren, sobre las entidades ya bloqueadas (sin proyecto: borrado entretanto)
+        List<ProjectStats> corrected = new ArrayList<>();
+        for (ProjectStats stats : expected.values()) {
+            ProjectStats existing = current.get(stats.getProjectId());
+            if (existing == null || sameCounters(existing, stats)) {
+                continue;
+            }
+            copyCounters(stats, existing);
+            existing.setLastUpdated(LocalDateTime.now());
+            corrected.add(existing);
+            if (result.getDriftedProjectIds().size() < MAX_REPORTED_DRIFT) {
+                result.getDriftedProjectIds().add(stats.getProjectId());
+            }
+        }
+        projectStatsRepository.saveAll(corrected);
+        result.setProjectsCorrected(result.getProjectsCorrected() + corrected.size());
+    }
+
+    private static void copyCounters(ProjectStats from, ProjectStats to) {
+        to.setOpenTasks(from.getOpenTasks());
+        to.setClosedTasks(from.getClosedTasks());
+        to.setOverdueTasks(from.getOverdueTasks());
+        to.setTotalMilestones(from.getTotalMilestones());
+        to.setCompletedMilestones(from.getCompletedMilestones());
+        to.setAttachmentCount(from.getAttachmentCount());
+        to.setAttachmentBytes(from.getAttachmentBytes());
+    }
+
+    private static boolean sameCounters(ProjectStats a, ProjectStats b) {
+        return a.getOpenTasks() == b.getOpenTasks()
+                && a.getClosedTasks() == b.getClosedTasks()
+                && a.getOverdueTasks() == b.getOverdueTasks()
+                && a.getTotalMilestones() == b.getTotalMilestones()
+                && a.getCompletedMilestones() == b.getCompletedMilestones()
+                && a.getAttachmentCount() == b.getAttachmentCount()
+                && a.getAttachmentBytes() == b.getAttachmentBytes();
+    }
+}
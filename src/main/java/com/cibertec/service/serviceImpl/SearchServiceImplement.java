@@ -0,0 +1,124 @@
+package com.cibertec.service.serviceImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.cibertec.dto.SearchRebuildDTO;
+import com.cibertec.dto.SearchResultsDTO;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.service.SearchService;
+import com.cibertec.util.CursorPagination;
+
+@Service
+public class SearchServiceImplement implements SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceImplement.class);
+
+    private static final Set<String> TYPES = Set.of(SearchDocument.TASK, SearchDocument.PROJECT, SearchDocument.MILESTONE);
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final SearchIndex searchIndex;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final MilestoneRepository milestoneRepository;
+
+    @Value("${app.search.rebuild-chunk-size:1000}")
+    private int rebuildChunkSize;
+
+    @Value("${app.search.rebuild-if-empty:true}")
+    private boolean rebuildIfEmpty;
+
+    @Autowired
+    public SearchServiceImplement(SearchIndex searchIndex, ProjectRepository projectRepository,
+                                  TaskRepository taskRepository, MilestoneRepository milestoneRepository) {
+        this.searchIndex = searchIndex;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.milestoneRepository = milestoneRepository;
+    }
+
+    @Override
+    public SearchResultsDTO search(String query, String type, Long projectId, String status, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("The search query 'q' cannot be empty.");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("The search query cannot be longer than " + MAX_QUERY_LENGTH + " characters.");
+        }
+        if (type != null && !TYPES.contains(type)) {
+            throw new BadRequestException("Invalid search type '" + type + "'. Allowed values: " + TYPES);
+        }
+        int maxResults = limit == null ? DEFAULT_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_LIMIT) {
+            throw new BadRequestException("The search limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return searchIndex.search(query, type, projectId, status, maxResults);
+    }
+
+    // Primer arranque (o directorio del índice borrado): se llena desde la base de datos sin esperar a un administrador
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildIfEmpty && searchIndex.isEmpty()) {
+            SearchRebuildDTO result = rebuild();
+            logger.info("Search index built: {} projects, {} tasks, {} milestones in {} ms", result.getProjectsIndexed(),
+                    result.getTasksIndexed(), result.getMilestonesIndexed(), result.getDurationMillis());
+        }
+    }
+
+    @Override
+    public SearchRebuildDTO rebuild() {
+        long start = System.currentTimeMillis();
+        SearchRebuildDTO result = new SearchRebuildDTO();
+        try {
+            if (!searchIndex.beginRebuild()) {
+                throw new BadRequestException("A search index rebuild is already running.");
+            }
+            try {
+                result.setProjectsIndexed(indexAll(projectRepository::findSearchDocumentPage));
+                result.setTasksIndexed(indexAll(taskRepository::findSearchDocumentPage));
+                result.setMilestonesIndexed(indexAll(milestoneRepository::findSearchDocumentPage));
+            } finally {
+                searchIndex.finishRebuild();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index rebuild failed", e);
+        }
+        result.setDurationMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // Cada bloque es una consulta independiente por clave (id > afterId): no se mantiene una transacción larga abierta
+    private long indexAll(BiFunction<Long, Pageable, List<SearchDocument>> pageLoader) throws IOException {
+        long indexed = 0;
+        Long afterId = CursorPagination.decode(null);
+        while (true) {
+            List<SearchDocument> documents = pageLoader.apply(afterId, PageRequest.of(0, rebuildChunkSize));
+            if (documents.isEmpty()) {
+                return indexed;
+            }
+            searchIndex.addAll(documents);
+            indexed += documents.size();
+            afterId = documents.get(documents.size() - 1).id();
+        }
+    }
+}
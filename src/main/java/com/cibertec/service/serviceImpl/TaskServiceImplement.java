@@ -1,22 +1,65 @@
 package com.cibertec.service.serviceImpl;
 
+import com.cibertec.dto.BulkTaskResultDTO;
+import com.cibertec.dto.CursorPageDTO;
 import com.cibertec.dto.TaskDTO;
+import com.cibertec.dto.TaskTransitionDTO;
+import com.cibertec.dto.TaskTransitionResultDTO;
 // import com.cibertec.dto.UserDTO; // UserDTO no es necesario aquí si no lo anidamos directamente en TaskDTO de salida
 import com.cibertec.entity.Task;
 import com.cibertec.entity.Project;
 import com.cibertec.entity.User;
+import com.cibertec.event.ProjectChangeEvent;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.TaskBatchRepository;
 import com.cibertec.repository.TaskRepository;
 import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.SparseFieldsetRepository;
 import com.cibertec.repository.UserRepository;
+import com.cibertec.repository.projection.AttachmentTotals;
+import com.cibertec.repository.projection.TaskAccessCount;
+import com.cibertec.repository.projection.TaskAttachmentTotals;
+import com.cibertec.repository.projection.TaskStatsState;
+import com.cibertec.search.SearchDocument;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.storage.BlobReferences;
+import com.cibertec.service.ProjectStatsDelta;
+import com.cibertec.service.ProjectStatsService;
 import com.cibertec.service.TaskService;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.exception.ConflictException;
+import com.cibertec.exception.PreconditionFailedException;
 import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.util.CursorPagination;
+import com.cibertec.util.ResourceVersion;
+import com.cibertec.util.SparseFieldset;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio para la gestión de tareas.
@@ -25,15 +68,47 @@ import java.util.stream.Collectors;
 @Service
 public class TaskServiceImplement implements TaskService {
 	
+	// Prefijo del ETag de una tarea: el mismo en GET (If-None-Match) y en PATCH (If-Match)
+	private static final String TASK_ETAG_TYPE = "task";
+	// Filtro y campo de fecha límite de los listados con 'fields=' (paginados por fecha_limite, id)
+	private static final String DUE_DATE_FIELD = "dueDate";
+
 	private final TaskRepository taskRepository;
 	private final ProjectRepository projectRepository;
 	private final UserRepository userRepository;
+	private final AuthorizationIndex authorizationIndex;
+	private final TaskBatchRepository taskBatchRepository;
+	private final AttachmentRepository attachmentRepository;
+	private final ProjectStatsService projectStatsService;
+	private final BlobReferences blobReferences;
+	private final SearchIndex searchIndex;
+	private final ApplicationEventPublisher eventPublisher;
+	private final SparseFieldsetRepository sparseFieldsetRepository;
+	private final Validator validator;
+
+	@Value("${app.tasks.bulk.batch-size:500}")
+	private int bulkBatchSize;
+
+	@Value("${app.tasks.bulk.max-items:10000}")
+	private int bulkMaxItems;
 
 	@Autowired
-	public TaskServiceImplement(TaskRepository taskRepository, ProjectRepository projectRepository, UserRepository userRepository) {
+	public TaskServiceImplement(TaskRepository taskRepository, ProjectRepository projectRepository, UserRepository userRepository,
+			AuthorizationIndex authorizationIndex, TaskBatchRepository taskBatchRepository, AttachmentRepository attachmentRepository,
+			ProjectStatsService projectStatsService, BlobReferences blobReferences, SearchIndex searchIndex,
+			ApplicationEventPublisher eventPublisher, SparseFieldsetRepository sparseFieldsetRepository, Validator validator) {
 		this.taskRepository = taskRepository;
 		this.projectRepository = projectRepository;
 		this.userRepository = userRepository;
+		this.authorizationIndex = authorizationIndex;
+		this.taskBatchRepository = taskBatchRepository;
+		this.attachmentRepository = attachmentRepository;
+		this.projectStatsService = projectStatsService;
+		this.blobReferences = blobReferences;
+		this.searchIndex = searchIndex;
+		this.eventPublisher = eventPublisher;
+		this.sparseFieldsetRepository = sparseFieldsetRepository;
+		this.validator = validator;
 	}
 
 	@Override
@@ -61,29 +136,44 @@ public class TaskServiceImplement implements TaskService {
         // Si es NOT NULL y no se proporciona ID, la BD lanzará un error.
 
 		Task savedTask = taskRepository.save(task);
-		return convertToDto(savedTask);
+		projectStatsService.apply(new ProjectStatsDelta()
+				.addTask(savedTask.getProject().getId(), savedTask.getStatus(), savedTask.getDueDate()));
+		searchIndex.indexAfterCommit(toSearchDocument(savedTask));
+		TaskDTO created = convertToDto(savedTask);
+		eventPublisher.publishEvent(new ProjectChangeEvent(created.getProjectId(), ProjectChangeEvent.TASK,
+				ProjectChangeEvent.CREATED, created.getId(), created));
+		return created;
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public TaskDTO getTaskById(Long id) {
-		Task task = taskRepository.findById(id)
+		return taskRepository.findDtoById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
-		return convertToDto(task);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<TaskDTO> getAllTasks() {
-		return taskRepository.findAll().stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public CursorPageDTO<TaskDTO> getAllTasks(String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPage(
+				CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
 	}
 
 	@Override
 	@Transactional
 	public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
 		return taskRepository.findById(id).map(existingTask -> {
+			if (taskDTO.getVersion() != null && !taskDTO.getVersion().equals(existingTask.getVersion())) {
+				throw new ConflictException("Task " + id + " was modified by another request (current version "
+						+ existingTask.getVersion() + ", sent " + taskDTO.getVersion() + ").");
+			}
+			// Estado previo para estadisticas_proyectos
+			Long previousProjectId = existingTask.getProject().getId();
+			ProjectStatsDelta statsDelta = new ProjectStatsDelta()
+					.removeTask(previousProjectId, existingTask.getStatus(), existingTask.getDueDate());
+
 			existingTask.setName(taskDTO.getName());
 			existingTask.setDescription(taskDTO.getDescription());
 			existingTask.setDueDate(taskDTO.getDueDate()); // Usa getDueDate
@@ -118,64 +208,537 @@ public class TaskServiceImplement implements TaskService {
                 existingTask.setAssignedTo(null); // Esto es válido si assigned_to_usuario_id es nullable en la BD.
             }
 
-			Task updatedTask = taskRepository.save(existingTask);
-			return convertToDto(updatedTask);
+			return saveUpdatedTask(existingTask, previousProjectId, statsDelta);
 		}).orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
 	}
 
+	/**
+	 * Actualización parcial con semántica JSON Merge Patch (RFC 7396): solo se modifican los campos presentes
+	 * y un null borra el valor. El proyecto y el usuario asignado solo se buscan si el patch los cambia, y con
+	 * @DynamicUpdate el UPDATE incluye únicamente las columnas modificadas (más la versión).
+	 */
+	@Override
+	@Transactional
+	public TaskDTO patchTask(Long id, Map<String, Object> patch, String ifMatch) {
+		Task task = taskRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
+		if (ifMatch != null && !ResourceVersion.of(TASK_ETAG_TYPE, id, task.getVersion(), task.getLastUpdated()).matches(ifMatch)) {
+			throw new PreconditionFailedException("Task " + id + " does not match If-Match " + ifMatch + ".");
+		}
+		if (patch.containsKey("version") && !task.getVersion().equals(toLong(patch, "version"))) {
+			throw new ConflictException("Task " + id + " was modified by another request (current version "
+					+ task.getVersion() + ", sent " + patch.get("version") + ").");
+		}
+		if (patch.containsKey("id") && !id.equals(toLong(patch, "id"))) {
+			throw new BadRequestException("The task ID cannot be changed.");
+		}
+
+		Long previousProjectId = task.getProject().getId();
+		ProjectStatsDelta statsDelta = new ProjectStatsDelta()
+				.removeTask(previousProjectId, task.getStatus(), task.getDueDate());
+
+		for (Map.Entry<String, Object> entry : patch.entrySet()) {
+			String field = entry.getKey();
+			Object value = entry.getValue();
+			switch (field) {
+				case "id", "version" -> {
+					// Ya comprobados arriba
+				}
+				case "name" -> task.setName(requireText(field, value));
+				case "description" -> task.setDescription(value == null ? null : value.toString());
+				case "dueDate" -> task.setDueDate(toDate(value));
+				case "status" -> task.setStatus(requireText(field, value));
+				case "priority" -> task.setPriority(requireText(field, value));
+				case "projectId" -> {
+					Long projectId = toLong(patch, field);
+					if (projectId == null) {
+						throw new BadRequestException("Project ID cannot be null.");
+					}
+					if (!projectId.equals(task.getProject().getId())) {
+						task.setProject(projectRepository.findById(projectId)
+								.orElseThrow(() -> new ResourceNotFoundException("Project not found with ID: " + projectId)));
+					}
+				}
+				case "assignedToId" -> {
+					Long assignedToId = toLong(patch, field);
+					Long currentAssignedToId = task.getAssignedTo() == null ? null : task.getAssignedTo().getId();
+					if (assignedToId == null) {
+						task.setAssignedTo(null);
+					} else if (!assignedToId.equals(currentAssignedToId)) {
+						task.setAssignedTo(userRepository.findById(assignedToId)
+								.orElseThrow(() -> new ResourceNotFoundException("Assigned user not found with ID: " + assignedToId)));
+					}
+				}
+				default -> throw new BadRequestException("Field '" + field + "' does not exist or cannot be modified.");
+			}
+		}
+		return saveUpdatedTask(task, previousProjectId, statsDelta);
+	}
+
+	// Parte común de PUT y PATCH: escribe la fila y propaga el cambio a estadísticas, índices y eventos
+	private TaskDTO saveUpdatedTask(Task task, Long previousProjectId, ProjectStatsDelta statsDelta) {
+		Long id = task.getId();
+		// flush: la versión y ultima_actualizacion nuevas van en la respuesta (y en su ETag)
+		Task updatedTask = taskRepository.saveAndFlush(task);
+		statsDelta.addTask(updatedTask.getProject().getId(), updatedTask.getStatus(), updatedTask.getDueDate());
+		if (!previousProjectId.equals(updatedTask.getProject().getId())) {
+			moveTaskAttachments(statsDelta, Map.of(id, previousProjectId), Map.of(id, updatedTask.getProject().getId()));
+		}
+		projectStatsService.apply(statsDelta);
+		authorizationIndex.evictTask(id); // Pudieron cambiar el proyecto o el usuario asignado
+		searchIndex.indexAfterCommit(toSearchDocument(updatedTask));
+		TaskDTO updated = convertToDto(updatedTask);
+		eventPublisher.publishEvent(new ProjectChangeEvent(updated.getProjectId(), ProjectChangeEvent.TASK,
+				ProjectChangeEvent.UPDATED, id, updated));
+		if (!previousProjectId.equals(updated.getProjectId())) {
+			eventPublisher.publishEvent(new ProjectChangeEvent(previousProjectId, ProjectChangeEvent.TASK,
+					ProjectChangeEvent.REMOVED, id, null));
+		}
+		return updated;
+	}
+
+	private static String requireText(String field, Object value) {
+		if (value == null || value.toString().isBlank()) {
+			throw new BadRequestException("Field '" + field + "' cannot be null or blank.");
+		}
+		return value.toString();
+	}
+
+	private static Long toLong(Map<String, Object> patch, String field) {
+		Object value = patch.get(field);
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof Number number) {
+			return number.longValue();
+		}
+		throw new BadRequestException("Field '" + field + "' must be a number.");
+	}
+
+	private static LocalDate toDate(Object value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(value.toString());
+		} catch (DateTimeParseException e) {
+			throw new BadRequestException("Field 'dueDate' must be a date in ISO format (YYYY-MM-DD).");
+		}
+	}
+
 	@Override
 	@Transactional
 	public void deleteTask(Long id) {
-		if (!taskRepository.existsById(id)) {
-			throw new ResourceNotFoundException("Task not found with ID: " + id);
+		Task task = taskRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
+		ProjectStatsDelta statsDelta = new ProjectStatsDelta()
+				.removeTask(task.getProject().getId(), task.getStatus(), task.getDueDate());
+		// Los adjuntos de la tarea se eliminan en cascada
+		for (AttachmentTotals row : attachmentRepository.totalsByTaskId(id)) {
+			statsDelta.removeAttachments(row.getProjectId(), row.getTotal(), row.getTotalBytes());
+		}
+		blobReferences.releaseAll(attachmentRepository.countContentHashesByTaskId(id));
+		taskRepository.delete(task);
+		projectStatsService.apply(statsDelta);
+		authorizationIndex.evictTask(id);
+		searchIndex.deleteAfterCommit(SearchDocument.TASK, id);
+		eventPublisher.publishEvent(new ProjectChangeEvent(task.getProject().getId(), ProjectChangeEvent.TASK,
+				ProjectChangeEvent.DELETED, id, null));
+	}
+
+	@Override
+	@Transactional
+	public List<BulkTaskResultDTO> bulkSaveTasks(List<TaskDTO> taskDTOs) {
+		if (taskDTOs.size() > bulkMaxItems) {
+			throw new BadRequestException("A bulk request cannot contain more than " + bulkMaxItems + " tasks.");
+		}
+
+		// 1. Resolver todos los ids referenciados con una consulta por tipo (en lugar de dos findById por tarea)
+		Set<Long> projectIds = new HashSet<>();
+		Set<Long> userIds = new HashSet<>();
+		Set<Long> taskIds = new HashSet<>();
+		for (TaskDTO taskDTO : taskDTOs) {
+			if (taskDTO == null) {
+				continue; // Se reporta como error en la validación
+			}
+			if (taskDTO.getProjectId() != null) {
+				projectIds.add(taskDTO.getProjectId());
+			}
+			if (taskDTO.getAssignedToId() != null) {
+				userIds.add(taskDTO.getAssignedToId());
+			}
+			if (taskDTO.getId() != null) {
+				taskIds.add(taskDTO.getId());
+			}
+		}
+		Set<Long> existingProjects = projectIds.isEmpty() ? Set.of() : new HashSet<>(projectRepository.findExistingIds(projectIds));
+		Set<Long> existingUsers = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(userIds));
+		Set<Long> existingTasks = taskIds.isEmpty() ? Set.of() : new HashSet<>(taskRepository.findExistingIds(taskIds));
+
+		// 2. Validar cada tarea; las inválidas se reportan sin afectar al resto
+		BulkTaskResultDTO[] results = new BulkTaskResultDTO[taskDTOs.size()];
+		List<TaskDTO> toInsert = new ArrayList<>();
+		List<Integer> insertPositions = new ArrayList<>();
+		List<TaskDTO> toUpdate = new ArrayList<>();
+		List<Integer> updatePositions = new ArrayList<>();
+		for (int i = 0; i < taskDTOs.size(); i++) {
+			TaskDTO taskDTO = taskDTOs.get(i);
+			String error = validateBulkTask(taskDTO, existingProjects, existingUsers, existingTasks);
+			if (error != null) {
+				results[i] = new BulkTaskResultDTO(i, taskDTO == null ? null : taskDTO.getId(), BulkTaskResultDTO.ERROR, error);
+				continue;
+			}
+			// Mismos valores por defecto que la entidad Task
+			if (taskDTO.getStatus() == null) {
+				taskDTO.setStatus("PENDIENTE");
+			}
+			if (taskDTO.getPriority() == null) {
+				taskDTO.setPriority("MEDIA");
+			}
+			if (taskDTO.getId() == null) {
+				toInsert.add(taskDTO);
+				insertPositions.add(i);
+			} else {
+				toUpdate.add(taskDTO);
+				updatePositions.add(i);
+			}
+		}
+
+		// 3. Estado previo de las que se actualizan (una sola consulta, que bloquea sus filas hasta confirmar)
+		Map<Long, TaskStatsState> previousById = new HashMap<>();
+		if (!toUpdate.isEmpty()) {
+			Set<Long> updateIds = new HashSet<>();
+			toUpdate.forEach(updated -> updateIds.add(updated.getId()));
+			taskRepository.findStatsStateByIdIn(updateIds).forEach(previous -> previousById.put(previous.getId(), previous));
+		}
+
+		// 4. Escribir con sentencias JDBC por lotes; una actualización con una versión que ya no es la actual
+		//    no modifica la fila y se informa como conflicto
+		List<Long> generatedIds = taskBatchRepository.insertAll(toInsert, bulkBatchSize);
+		List<SearchDocument> searchDocuments = new ArrayList<>(toInsert.size() + toUpdate.size());
+		for (int j = 0; j < insertPositions.size(); j++) {
+			int position = insertPositions.get(j);
+			results[position] = new BulkTaskResultDTO(position, generatedIds.get(j), BulkTaskResultDTO.CREATED, null);
+			searchDocuments.add(toSearchDocument(generatedIds.get(j), toInsert.get(j)));
+		}
+		boolean[] applied = taskBatchRepository.updateAll(toUpdate, bulkBatchSize);
+		Map<Long, TaskDTO> updatesById = new LinkedHashMap<>(); // Si una tarea se repite, prevalece la última (como en la tabla)
+		for (int j = 0; j < toUpdate.size(); j++) {
+			TaskDTO updated = toUpdate.get(j);
+			int position = updatePositions.get(j);
+			if (applied[j]) {
+				results[position] = new BulkTaskResultDTO(position, updated.getId(), BulkTaskResultDTO.UPDATED, null);
+				updatesById.put(updated.getId(), updated);
+			} else {
+				results[position] = new BulkTaskResultDTO(position, updated.getId(), BulkTaskResultDTO.CONFLICT,
+						"Task " + updated.getId() + " was modified by another request (sent version " + updated.getVersion() + ").");
+			}
+		}
+
+		// 5. Cambio en estadisticas_proyectos, solo de las filas escritas
+		ProjectStatsDelta statsDelta = new ProjectStatsDelta();
+		Map<Long, Long> movedFrom = new HashMap<>();
+		Map<Long, Long> movedTo = new HashMap<>();
+		for (TaskDTO inserted : toInsert) {
+			statsDelta.addTask(inserted.getProjectId(), inserted.getStatus(), inserted.getDueDate());
+		}
+		for (TaskDTO updated : updatesById.values()) {
+			TaskStatsState previous = previousById.get(updated.getId());
+			statsDelta.removeTask(previous.getProjectId(), previous.getStatus(), previous.getDueDate());
+			statsDelta.addTask(updated.getProjectId(), updated.getStatus(), updated.getDueDate());
+			if (!previous.getProjectId().equals(updated.getProjectId())) {
+				movedFrom.put(previous.getId(), previous.getProjectId());
+				movedTo.put(previous.getId(), updated.getProjectId());
+			}
+		}
+		moveTaskAttachments(statsDelta, movedFrom, movedTo);
+		projectStatsService.apply(statsDelta);
+		for (TaskDTO updated : updatesById.values()) {
+			authorizationIndex.evictTask(updated.getId());
+			searchDocuments.add(toSearchDocument(updated.getId(), updated));
+		}
+		searchIndex.indexAllAfterCommit(searchDocuments);
+
+		// Un evento por proyecto afectado con los IDs de sus tareas (las movidas también en su proyecto anterior)
+		Map<Long, List<Long>> changedByProject = new HashMap<>();
+		for (int j = 0; j < toInsert.size(); j++) {
+			changedByProject.computeIfAbsent(toInsert.get(j).getProjectId(), key -> new ArrayList<>()).add(generatedIds.get(j));
+		}
+		for (TaskDTO updated : updatesById.values()) {
+			changedByProject.computeIfAbsent(updated.getProjectId(), key -> new ArrayList<>()).add(updated.getId());
+		}
+		movedFrom.forEach((taskId, previousProjectId) ->
+				changedByProject.computeIfAbsent(previousProjectId, key -> new ArrayList<>()).add(taskId));
+		changedByProject.forEach((projectId, changedTaskIds) -> eventPublisher.publishEvent(
+				new ProjectChangeEvent(projectId, ProjectChangeEvent.TASK, ProjectChangeEvent.BULK, null, changedTaskIds)));
+
+		return Arrays.asList(results);
+	}
+
+	@Override
+	@Transactional
+	public TaskTransitionResultDTO transitionTasks(TaskTransitionDTO transition) {
+		if (transition.getTaskIds() == null || transition.getTaskIds().isEmpty()) {
+			throw new BadRequestException("At least one task ID is required.");
+		}
+		if (transition.getStatus() == null && transition.getPriority() == null && transition.getAssignedToId() == null) {
+			throw new BadRequestException("A transition must change the status, the priority or the assigned user.");
+		}
+		if ((transition.getStatus() != null && transition.getStatus().isBlank())
+				|| (transition.getPriority() != null && transition.getPriority().isBlank())) {
+			throw new BadRequestException("Status and priority cannot be blank.");
+		}
+		// Mismas restricciones que el TaskDTO en POST/PUT y en la carga masiva (longitudes de las columnas)
+		String violation = taskFieldViolation("status", transition.getStatus());
+		if (violation == null) {
+			violation = taskFieldViolation("priority", transition.getPriority());
+		}
+		if (violation != null) {
+			throw new BadRequestException(violation);
+		}
+		Set<Long> taskIds = new LinkedHashSet<>(transition.getTaskIds());
+		if (taskIds.size() > bulkMaxItems) {
+			throw new BadRequestException("A transition cannot contain more than " + bulkMaxItems + " tasks.");
+		}
+		if (transition.getAssignedToId() != null && !userRepository.existsById(transition.getAssignedToId())) {
+			throw new ResourceNotFoundException("Assigned user not found with ID: " + transition.getAssignedToId());
+		}
+
+		// Estado previo (una consulta, con las filas bloqueadas hasta confirmar): valida que existan todas
+		// y da el cambio para estadisticas_proyectos
+		List<TaskStatsState> previousStates = taskRepository.findStatsStateByIdIn(taskIds);
+		if (previousStates.size() != taskIds.size()) {
+			Set<Long> missing = new LinkedHashSet<>(taskIds);
+			previousStates.forEach(previous -> missing.remove(previous.getId()));
+			throw new ResourceNotFoundException("Tasks not found with IDs: " + missing);
+		}
+
+		int updated = taskRepository.transitionByIdIn(taskIds, transition.getStatus(), transition.getPriority(),
+				transition.getAssignedToId(), LocalDateTime.now());
+
+		Map<Long, List<Long>> changedByProject = new HashMap<>();
+		ProjectStatsDelta statsDelta = new ProjectStatsDelta();
+		for (TaskStatsState previous : previousStates) {
+			changedByProject.computeIfAbsent(previous.getProjectId(), key -> new ArrayList<>()).add(previous.getId());
+			if (transition.getStatus() != null) {
+				statsDelta.removeTask(previous.getProjectId(), previous.getStatus(), previous.getDueDate());
+				statsDelta.addTask(previous.getProjectId(), transition.getStatus(), previous.getDueDate());
+			}
+		}
+		projectStatsService.apply(statsDelta);
+		if (transition.getAssignedToId() != null) {
+			taskIds.forEach(authorizationIndex::evictTask);
+		}
+		if (transition.getStatus() != null) {
+			// El estado forma parte del documento de búsqueda
+			searchIndex.indexAllAfterCommit(taskRepository.findSearchDocumentsByIdIn(taskIds));
+		}
+		changedByProject.forEach((projectId, changedTaskIds) -> eventPublisher.publishEvent(
+				new ProjectChangeEvent(projectId, ProjectChangeEvent.TASK, ProjectChangeEvent.BULK, null, changedTaskIds)));
+
+		return new TaskTransitionResultDTO(updated, new ArrayList<>(taskIds));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean canTransitionTasks(Collection<Long> taskIds, String username) {
+		if (taskIds == null || taskIds.isEmpty()) {
+			return true; // Nada que autorizar: la petición se rechazará en la validación
+		}
+		TaskAccessCount access = taskRepository.countAccessibleByIdIn(taskIds, username);
+		// Las tareas inexistentes no cuentan aquí: se informan con un 404 al aplicar la transición
+		return access.getAllowed().equals(access.getTotal());
+	}
+
+	private SearchDocument toSearchDocument(Task task) {
+		return SearchDocument.task(task.getId(), task.getProject().getId(), task.getName(), task.getDescription(), task.getStatus());
+	}
+
+	private SearchDocument toSearchDocument(Long id, TaskDTO taskDTO) {
+		return SearchDocument.task(id, taskDTO.getProjectId(), taskDTO.getName(), taskDTO.getDescription(), taskDTO.getStatus());
+	}
+
+	// Los adjuntos de una tarea cuentan para el proyecto de la tarea: si la tarea cambia de proyecto, se mueven con ella
+	private void moveTaskAttachments(ProjectStatsDelta statsDelta, Map<Long, Long> fromProject, Map<Long, Long> toProject) {
+		if (fromProject.isEmpty()) {
+			return;
 		}
-		taskRepository.deleteById(id);
+		for (TaskAttachmentTotals row : attachmentRepository.totalsByTaskIdIn(fromProject.keySet())) {
+			statsDelta.removeAttachments(fromProject.get(row.getTaskId()), row.getTotal(), row.getTotalBytes());
+			statsDelta.addAttachments(toProject.get(row.getTaskId()), row.getTotal(), row.getTotalBytes());
+		}
+	}
+
+	// Primera restricción del campo del TaskDTO que incumple el valor (null si es válido o no se envía)
+	private String taskFieldViolation(String property, Object value) {
+		if (value == null) {
+			return null;
+		}
+		return validator.validateValue(TaskDTO.class, property, value).stream()
+				.findFirst()
+				.map(v -> property + ": " + v.getMessage())
+				.orElse(null);
+	}
+
+	// Una tarea inválida haría fallar el lote JDBC completo: se comprueba todo lo que rechazaría la base de datos
+	private String validateBulkTask(TaskDTO taskDTO, Set<Long> existingProjects, Set<Long> existingUsers, Set<Long> existingTasks) {
+		if (taskDTO == null) {
+			return "Task cannot be null.";
+		}
+		// Restricciones del TaskDTO (las mismas que @Valid en POST/PUT /api/tasks); se informa la primera por campo
+		ConstraintViolation<TaskDTO> violation = validator.validate(taskDTO).stream()
+				.min(Comparator.comparing(v -> v.getPropertyPath().toString()))
+				.orElse(null);
+		if (violation != null) {
+			return violation.getPropertyPath() + ": " + violation.getMessage();
+		}
+		// Nulos se sustituyen por los valores por defecto; en blanco no son válidos
+		if (taskDTO.getStatus() != null && taskDTO.getStatus().isBlank()) {
+			return "Status cannot be blank.";
+		}
+		if (taskDTO.getPriority() != null && taskDTO.getPriority().isBlank()) {
+			return "Priority cannot be blank.";
+		}
+		if (taskDTO.getProjectId() == null) {
+			return "Project ID cannot be null.";
+		}
+		if (!existingProjects.contains(taskDTO.getProjectId())) {
+			return "Project not found with ID: " + taskDTO.getProjectId();
+		}
+		if (taskDTO.getAssignedToId() != null && !existingUsers.contains(taskDTO.getAssignedToId())) {
+			return "Assigned user not found with ID: " + taskDTO.getAssignedToId();
+		}
+		if (taskDTO.getId() != null && !existingTasks.contains(taskDTO.getId())) {
+			return "Task not found with ID: " + taskDTO.getId();
+		}
+		return null;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<TaskDTO> getTasksByProjectId(Long projectId, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPageByProjectId(
+				projectId, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<TaskDTO> getTasksByProjectId(Long projectId) {
-		// Necesitarás añadir List<Task> findByProjectId(Long projectId); a TaskRepository
-		return taskRepository.findByProjectId(projectId).stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public CursorPageDTO<TaskDTO> getTasksByAssignedToId(Long assignedToId, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPageByAssignedToId(
+				assignedToId, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<TaskDTO> getTasksByStatus(String status, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPageByStatus(
+				status, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<TaskDTO> getTasksByPriority(String priority, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPageByPriority(
+				priority, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<TaskDTO> getTasksByProjectIdAndStatus(Long projectId, String status, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		List<TaskDTO> rows = taskRepository.findDtoPageByProjectIdAndStatus(
+				projectId, status, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, TaskDTO::getId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<TaskDTO> getTasksByAssignedToIdAndDueDateUntil(Long assignedToId, LocalDate dueDate, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		CursorPagination.DateKey after = CursorPagination.decodeDateKey(cursor);
+		List<TaskDTO> rows = taskRepository.findDtoPageByAssignedToIdAndDueDateUntil(
+				assignedToId, dueDate, after.date(), after.id(), CursorPagination.limit(pageSize));
+		return CursorPagination.toDateKeyPage(rows, pageSize, task -> new CursorPagination.DateKey(task.getDueDate(), task.getId()));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ResourceVersion getTaskVersion(Long id) {
+		return taskRepository.findVersionById(id)
+				.map(version -> ResourceVersion.of(TASK_ETAG_TYPE, version))
+				.orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + id));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDTO<Map<String, Object>> getTaskFields(String fields, Map<String, Object> filters, String cursor, Integer size) {
+		int pageSize = CursorPagination.pageSize(size);
+		if (filters.containsKey(DUE_DATE_FIELD)) {
+			// Mismo cursor (fecha_limite, id) que getTasksByAssignedToIdAndDueDateUntil
+			List<Map<String, Object>> rows = sparseFieldsetRepository.findPage(TaskRepository.TASK_FIELDS,
+					TaskRepository.TASK_FIELDS.select(fields, DUE_DATE_FIELD), filters, DUE_DATE_FIELD,
+					CursorPagination.decodeDateKey(cursor), CursorPagination.limit(pageSize));
+			return CursorPagination.toDateKeyPage(rows, pageSize,
+					row -> new CursorPagination.DateKey((LocalDate) row.get(DUE_DATE_FIELD), (Long) row.get(SparseFieldset.ID)));
+		}
+		List<Map<String, Object>> rows = sparseFieldsetRepository.findPage(TaskRepository.TASK_FIELDS,
+				TaskRepository.TASK_FIELDS.select(fields), filters, CursorPagination.decode(cursor), CursorPagination.limit(pageSize));
+		return CursorPagination.toPage(rows, pageSize, row -> (Long) row.get(SparseFieldset.ID));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamAllTasks(Consumer<TaskDTO> consumer) {
+		try (Stream<TaskDTO> tasks = taskRepository.streamAllDtos()) {
+			tasks.forEach(consumer);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void streamTasksByProjectId(Long projectId, Consumer<TaskDTO> consumer) {
+		try (Stream<TaskDTO> tasks = taskRepository.streamDtosByProjectId(projectId)) {
+			tasks.forEach(consumer);
+		}
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<TaskDTO> getTasksByAssignedToId(Long assignedToId) {
-		// Necesitarás añadir List<Task> findByAssignedToId(Long assignedToId); a TaskRepository
-		return taskRepository.findByAssignedToId(assignedToId).stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public ResourceVersion getAllTasksVersion(String cursor, Integer size) {
+		Long afterId = CursorPagination.decode(cursor);
+		Long untilId = taskRepository.findIdPage(afterId, CursorPagination.pageEnd(CursorPagination.pageSize(size)))
+				.stream().findFirst().orElse(Long.MAX_VALUE);
+		return ResourceVersion.ofCollection("tasks-" + untilId, taskRepository.findVersionByIdRange(afterId, untilId));
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<TaskDTO> getTasksByStatus(String status) {
-		// Necesitarás añadir List<Task> findByStatus(String status); a TaskRepository
-		return taskRepository.findByStatus(status).stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public ResourceVersion getTasksByProjectIdVersion(Long projectId) {
+		return ResourceVersion.ofCollection("tasks-project-" + projectId, taskRepository.findVersionByProjectId(projectId));
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<TaskDTO> getTasksByPriority(String priority) {
-		// Necesitarás añadir List<Task> findByPriority(String priority); a TaskRepository
-		return taskRepository.findByPriority(priority).stream()
-				.map(this::convertToDto)
-				.collect(Collectors.toList());
+	public ResourceVersion getTasksByAssignedToIdVersion(Long assignedToId) {
+		return ResourceVersion.ofCollection("tasks-assignee-" + assignedToId, taskRepository.findVersionByAssignedToId(assignedToId));
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public boolean isTaskAssignedToUser(Long taskId, String username) {
-		Task task = taskRepository.findById(taskId)
+		String assigneeEmail = authorizationIndex.assigneeEmailOfTask(taskId)
 				.orElseThrow(() -> new ResourceNotFoundException("Task not found with ID: " + taskId));
 		
 		// Verifica si la tarea está asignada a un usuario y si el email de ese usuario coincide
-		return task.getAssignedTo() != null && task.getAssignedTo().getEmail().equals(username);
+		return !AuthorizationIndex.isUnassigned(assigneeEmail) && assigneeEmail.equals(username);
 	}
 
     // --- Métodos de Conversión Auxiliares ---
@@ -216,6 +779,7 @@ public class TaskServiceImplement implements TaskService {
         dto.setPriority(task.getPriority());
         dto.setCreatedAt(task.getCreatedAt());
         dto.setLastUpdated(task.getLastUpdated());
+        dto.setVersion(task.getVersion());
 
         // Si la tarea tiene un proyecto asociado, setea su ID en el DTO
         if (task.getProject() != null) {
@@ -16,6 +16,7 @@ import com.cibertec.entity.Role; // ¡IMPORTANTE! Importar la entidad Role
 import com.cibertec.repository.RoleRepository; // ¡IMPORTANTE! Importar el RoleRepository
 
 import org.springframework.beans.factory.annotation.Autowired;
+import com.cibertec.security.AuthorizationIndex;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 
@@ -25,13 +26,16 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository; // AÑADIDO: Declarar RoleRepository
+    private final AuthorizationIndex authorizationIndex;
 
     // MODIFICADO: Constructor para inyectar RoleRepository
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository,
+                           AuthorizationIndex authorizationIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository; // AÑADIDO: Asignar RoleRepository
+        this.authorizationIndex = authorizationIndex;
     }
 
     @Override
@@ -78,6 +82,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         return userRepository.findById(id).map(existingUser -> {
+            if (userDTO.getEmail() != null && !userDTO.getEmail().equals(existingUser.getEmail())) {
+                // El índice de autorización guarda emails de gerentes y asignados
+                authorizationIndex.evictAll();
+            }
             existingUser.setUsername(userDTO.getUsername());
             existingUser.setEmail(userDTO.getEmail());
             // AÑADIDO: Actualizar firstName y lastName
@@ -112,6 +120,7 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException("User not found with ID: " + id);
         }
         userRepository.deleteById(id);
+        authorizationIndex.evictAll();
     }
 
     @Override
@@ -2,15 +2,17 @@ package com.cibertec.serviceImplement;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cibertec.entity.User;
 import com.cibertec.repository.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 	
 	@Autowired
 	private UserRepository usuarioRepository;
@@ -24,4 +26,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 		return new UserDetailImplement(usuario);
 	}
 	
+	// Llamado por DaoAuthenticationProvider tras un login correcto cuando el coste BCrypt cambió; 'newPassword' ya viene hasheada
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		
+		User usuario = usuarioRepository.findOneByEmail(user.getUsername())
+				.orElseThrow( () -> new UsernameNotFoundException("El usuario buscado con email "+user.getUsername()+",no se encuentra registrado"));
+		usuario.setPassword(newPassword);
+		
+		return new UserDetailImplement(usuario);
+	}
+	
 }
@@ -0,0 +1,91 @@
+package com.cibertec.storage;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Escribe el contenido de un blob en la respuesta HTTP, con soporte de cabecera Range (un solo rango).
+ * Si el conector de Tomcat soporta sendfile, el envío lo hace el sistema operativo directamente desde el archivo;
+ * si no, se copia con FileChannel.transferTo hacia el flujo de salida. En ningún caso se carga el archivo en memoria.
+ */
+public final class BlobDownload {
+
+    // Atributos de petición con los que Tomcat envía un archivo con sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private BlobDownload() {
+    }
+
+    /** Envía el blob como descarga (Content-Disposition: attachment). */
+    public static void write(BlobStore blobStore, String key, String contentType, String fileName,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(blobStore, key, contentType, ContentDisposition.attachment(), fileName, request, response);
+    }
+
+    /** Envía el blob para mostrarse en el navegador (Content-Disposition: inline), por ejemplo una miniatura. */
+    public static void writeInline(BlobStore blobStore, String key, String contentType, String fileName,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        write(blobStore, key, contentType, ContentDisposition.inline(), fileName, request, response);
+    }
+
+    private static void write(BlobStore blobStore, String key, String contentType, ContentDisposition.Builder disposition,
+                              String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = blobStore.size(key);
+        long start = 0;
+        long end = length - 1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Varios rangos (multipart/byteranges) no se soportan: se ignora la cabecera y se envía el archivo completo
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                disposition.filename(fileName, StandardCharsets.UTF_8).build().toString());
+        if (count <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        Optional<Path> localPath = blobStore.localPath(key);
+        if (localPath.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, localPath.get().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count); // Posición final exclusiva
+            return;
+        }
+        blobStore.transferTo(key, start, count, Channels.newChannel(response.getOutputStream()));
+        response.flushBuffer();
+    }
+}
@@ -0,0 +1,153 @@
+package com.cibertec.storage;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cibertec.entity.AttachmentBlob;
+import com.cibertec.repository.AttachmentBlobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Elimina los contenidos sin referencias (fila en contenidos_adjuntos y archivo) y los temporales abandonados.
+ * Cada contenido se borra en su propia transacción y con la fila bloqueada: una subida concurrente del mismo
+ * contenido espera en su INSERT ... ON DUPLICATE KEY UPDATE y, al continuar, vuelve a publicar el archivo.
+ */
+@Component
+public class BlobGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobGarbageCollector.class);
+    private static final int SWEEP_CHUNK_SIZE = 500;
+
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService collector = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "blob-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.storage.gc.staging-max-age:PT24H}")
+    private Duration stagingMaxAge;
+
+    public BlobGarbageCollector(AttachmentBlobRepository attachmentBlobRepository, BlobStore blobStore,
+                                PlatformTransactionManager transactionManager) {
+        this.attachmentBlobRepository = attachmentBlobRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // collect se invoca también desde afterCommit de otra transacción: necesita una transacción propia
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Borra el contenido si sigue sin referencias. Devuelve true si se eliminó.
+     */
+    public boolean collect(String contentHash) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    attachmentBlobRepository.lockIfUnreferenced(contentHash).map(blob -> {
+                        // El archivo se borra con la fila aún bloqueada; si la transacción falla, la fila queda
+                        // con 0 referencias y la próxima subida del mismo contenido lo vuelve a publicar
+                        deleteFile(contentHash);
+                        attachmentBlobRepository.delete(blob);
+                        return true;
+                    }).orElse(false)));
+        } catch (RuntimeException e) {
+            logger.warn("Could not collect blob {}", contentHash, e);
+            return false;
+        }
+    }
+
+    /**
+     * Borra un archivo publicado por una subida cuya transacción se revirtió, si ningún adjunto lo referencia:
+     * la fila pudo no llegar a crearse, así que el barrido periódico no lo encontraría. Devuelve true si se eliminó.
+     */
+    public boolean collectIfOrphaned(String contentHash) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Optional<AttachmentBlob> blob = attachmentBlobRepository.lockByHash(contentHash);
+                if (blob.isPresent() && blob.get().getReferences() > 0) {
+                    return false;
+                }
+                deleteFile(contentHash);
+                blob.ifPresent(attachmentBlobRepository::delete);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Could not collect orphaned blob {}", contentHash, e);
+            return false;
+        }
+    }
+
+    /**
+     * Recolecta los contenidos en el hilo del recolector, fuera de la petición: al eliminar un proyecto
+     * pueden quedar miles de archivos sin referencias. Lo que no llegue a borrarse lo retoma el barrido periódico.
+     */
+    public void collectAsync(Collection<String> contentHashes) {
+        if (contentHashes.isEmpty()) {
+            return;
+        }
+        List<String> hashes = List.copyOf(contentHashes);
+        collector.execute(() -> hashes.forEach(this::collect));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        collector.shutdownNow();
+    }
+
+    /**
+     * Barrido periódico: contenidos que quedaron sin referencias (por ejemplo, si falló la recolección inmediata)
+     * y temporales de subidas interrumpidas.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval:PT1H}", initialDelayString = "${app.storage.gc.initial-delay:PT5M}")
+    public void sweep() {
+        long collected = 0;
+        String afterHash = "";
+        while (true) {
+            List<String> hashes = attachmentBlobRepository.findUnreferencedHashes(afterHash, PageRequest.of(0, SWEEP_CHUNK_SIZE));
+            if (hashes.isEmpty()) {
+                break;
+            }
+            for (String hash : hashes) {
+                if (collect(hash)) {
+                    collected++;
+                }
+            }
+            afterHash = hashes.get(hashes.size() - 1);
+        }
+        int staged = 0;
+        try {
+            staged = blobStore.sweepStaging(stagingMaxAge);
+        } catch (IOException e) {
+            logger.warn("Could not sweep staging files", e);
+        }
+        if (collected > 0 || staged > 0) {
+            logger.info("Blob GC: {} unreferenced blobs and {} stale staging files removed", collected, staged);
+        }
+    }
+
+    private void deleteFile(String contentHash) {
+        try {
+            blobStore.delete(blobStore.keyOf(contentHash));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not delete blob file " + contentHash, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cibertec.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cibertec.repository.AttachmentBlobRepository;
+import com.cibertec.repository.projection.ContentHashCount;
+import com.cibertec.util.TransactionCallbacks;
+
+/**
+ * Conteo de referencias de los contenidos deduplicados (tabla contenidos_adjuntos).
+ * Se invoca dentro de la transacción que crea o elimina los archivos adjuntos; cuando un contenido
+ * se queda sin referencias, se intenta recolectar justo después de confirmar.
+ */
+@Component
+public class BlobReferences {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobReferences.class);
+
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final BlobGarbageCollector blobGarbageCollector;
+    private final LongAdder referenceDrift = new LongAdder();
+
+    public BlobReferences(AttachmentBlobRepository attachmentBlobRepository, BlobGarbageCollector blobGarbageCollector) {
+        this.attachmentBlobRepository = attachmentBlobRepository;
+        this.blobGarbageCollector = blobGarbageCollector;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retain(String contentHash, long sizeBytes) {
+        attachmentBlobRepository.addReference(contentHash, sizeBytes);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String contentHash) {
+        release(contentHash, 1);
+    }
+
+    // Adjuntos eliminados en cascada con su tarea o proyecto: los archivos se recolectan en segundo plano
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseAll(List<ContentHashCount> counts) {
+        List<String> hashes = new ArrayList<>(counts.size());
+        for (ContentHashCount count : counts) {
+            removeReferences(count.getContentHash(), count.getTotal());
+            hashes.add(count.getContentHash());
+        }
+        if (!hashes.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> blobGarbageCollector.collectAsync(hashes));
+        }
+    }
+
+    /**
+     * Liberaciones que encontraron menos referencias de las esperadas desde el arranque (el conteo se había desviado).
+     */
+    public long referenceDrift() {
+        return referenceDrift.sum();
+    }
+
+    private void release(String contentHash, long count) {
+        removeReferences(contentHash, count);
+        // Si era la última referencia se borra ya; si no, collect no encuentra nada que hacer
+        TransactionCallbacks.afterCommit(() -> blobGarbageCollector.collect(contentHash));
+    }
+
+    private void removeReferences(String contentHash, long count) {
+        if (attachmentBlobRepository.removeReferences(contentHash, count) == 0) {
+            // El conteo quedó por debajo de los adjuntos liberados: se deja en 0 para que el recolector pueda
+            // eliminar el contenido (si no, la fila no volvería a llegar a 0 referencias)
+            attachmentBlobRepository.clearReferences(contentHash);
+            referenceDrift.increment();
+            logger.warn("Reference count of blob {} was lower than the {} references released; reset to 0", contentHash, count);
+        }
+    }
+}
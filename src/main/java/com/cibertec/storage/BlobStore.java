@@ -0,0 +1,72 @@
+package com.cibertec.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Almacén del contenido binario de los archivos adjuntos, direccionado por contenido (SHA-256).
+ * Los metadatos (nombre, tipo, tamaño) viven en la tabla archivos_adjuntos; aquí solo se guardan los bytes,
+ * identificados por una clave derivada del hash que se registra en Attachment.storagePath.
+ * Dos subidas con el mismo contenido comparten el mismo blob; las referencias se cuentan en contenidos_adjuntos.
+ */
+public interface BlobStore {
+
+    /**
+     * Escribe el contenido en un área temporal calculando su SHA-256 por bloques (nunca se carga completo en memoria).
+     * El blob no es visible hasta {@link #commit(StagedBlob)}.
+     */
+    StagedBlob stage(InputStream content) throws IOException;
+
+    /**
+     * Publica el blob con su clave definitiva. Si ya existe un blob con el mismo hash, el temporal se descarta.
+     */
+    void commit(StagedBlob staged) throws IOException;
+
+    /** Descarta un blob temporal que no llegó a publicarse. */
+    void discard(StagedBlob staged);
+
+    /** Clave con la que se publica el contenido con ese hash. */
+    String keyOf(String contentHash);
+
+    /** Indica si la clave tiene el formato de las claves generadas por este almacén. */
+    boolean isManagedKey(String key);
+
+    boolean exists(String key);
+
+    long size(String key) throws IOException;
+
+    /**
+     * Copia el rango [position, position + count) al canal destino.
+     * Las implementaciones sobre archivos usan FileChannel.transferTo (copia sin pasar por el heap).
+     */
+    long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException;
+
+    /** Ruta local del blob, si el almacén está respaldado por el sistema de archivos (permite sendfile). */
+    Optional<Path> localPath(String key);
+
+    /** Abre el contenido para lectura secuencial. */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Clave de un archivo derivado del blob (miniatura, vista previa...), guardado junto al original.
+     * Los derivados se eliminan junto con el blob.
+     */
+    String derivedKey(String key, String variant);
+
+    /** Guarda un archivo derivado pequeño (se publica con un movimiento atómico). */
+    void storeDerived(String key, String variant, byte[] content) throws IOException;
+
+    /** Elimina el blob y sus archivos derivados. */
+    boolean delete(String key) throws IOException;
+
+    /** Elimina los temporales abandonados (subidas interrumpidas) más antiguos que la edad indicada. */
+    int sweepStaging(Duration olderThan) throws IOException;
+
+    /** Contenido escrito en el área temporal, con su hash y tamaño ya calculados. */
+    record StagedBlob(String contentHash, long sizeBytes, Path stagingFile) {
+    }
+}
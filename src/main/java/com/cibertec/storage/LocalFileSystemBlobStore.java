@@ -0,0 +1,213 @@
+package com.cibertec.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * BlobStore sobre el sistema de archivos local.
+ * Las claves tienen la forma "ab/cd/&lt;sha-256&gt;" para repartir los archivos en subdirectorios.
+ * También se reconocen las claves "ab/cd/&lt;uuid&gt;" de los adjuntos subidos antes del direccionamiento por contenido.
+ * La escritura se hace en un archivo temporal del mismo volumen y se publica con un movimiento atómico.
+ */
+@Component
+public class LocalFileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64}|[0-9a-f-]{36})(\\.[a-z]+\\.png)?");
+    private static final Pattern VARIANT_PATTERN = Pattern.compile("[a-z]+");
+    private static final String TMP_DIR = "tmp";
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Bytes por llamada a transferTo (los canales no garantizan copiar todo en una llamada)
+    private static final long CHUNK_BYTES = 8L * 1024 * 1024;
+
+    private final Path root;
+    private final Path staging;
+
+    public LocalFileSystemBlobStore(@Value("${app.storage.local.root:data/attachments}") String root) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.staging = this.root.resolve(TMP_DIR);
+        Files.createDirectories(staging);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(staging, "upload-", ".part");
+        try {
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            try (ReadableByteChannel source = Channels.newChannel(content);
+                 FileChannel target = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+            return new StagedBlob(HexFormat.of().formatHex(digest.digest()), size, tmp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    @Override
+    public void commit(StagedBlob staged) throws IOException {
+        Path destination = resolve(keyOf(staged.contentHash()));
+        if (Files.isRegularFile(destination)) {
+            discard(staged); // Contenido duplicado: ya existe el blob con ese hash
+            return;
+        }
+        Files.createDirectories(destination.getParent());
+        try {
+            Files.move(staged.stagingFile(), destination, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            discard(staged); // Otra subida del mismo contenido lo publicó primero
+        }
+    }
+
+    @Override
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.stagingFile());
+        } catch (IOException e) {
+            // Lo elimina el barrido de temporales
+        }
+    }
+
+    @Override
+    public String keyOf(String contentHash) {
+        return contentHash.substring(0, 2) + "/" + contentHash.substring(2, 4) + "/" + contentHash;
+    }
+
+    @Override
+    public boolean isManagedKey(String key) {
+        return key != null && KEY_PATTERN.matcher(key).matches();
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return isManagedKey(key) && Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel source = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long transferred = 0;
+            while (transferred < count) {
+                long sent = source.transferTo(position + transferred, Math.min(CHUNK_BYTES, count - transferred), target);
+                if (sent <= 0) {
+                    break; // Fin del archivo
+                }
+                transferred += sent;
+            }
+            return transferred;
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return exists(key) ? Optional.of(resolve(key)) : Optional.empty();
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public String derivedKey(String key, String variant) {
+        if (!VARIANT_PATTERN.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Invalid variant: " + variant);
+        }
+        return key + "." + variant + ".png";
+    }
+
+    @Override
+    public void storeDerived(String key, String variant, byte[] content) throws IOException {
+        Path destination = resolve(derivedKey(key, variant));
+        Path tmp = Files.createTempFile(staging, "derived-", ".part");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        if (!isManagedKey(key)) {
+            return false;
+        }
+        Path file = resolve(key);
+        if (Files.isDirectory(file.getParent())) {
+            // Derivados: "<nombre>.<variante>.png"
+            try (DirectoryStream<Path> derived = Files.newDirectoryStream(file.getParent(), file.getFileName() + ".*.png")) {
+                for (Path path : derived) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        return Files.deleteIfExists(file);
+    }
+
+    @Override
+    public int sweepStaging(Duration olderThan) throws IOException {
+        Instant limit = Instant.now().minus(olderThan);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(staging, "*.part")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(limit) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Path resolve(String key) {
+        if (!isManagedKey(key)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
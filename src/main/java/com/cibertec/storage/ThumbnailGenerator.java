@@ -0,0 +1,215 @@
+package com.cibertec.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cibertec.dto.ThumbnailMetricsDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Genera en segundo plano una miniatura y una vista previa PNG de los adjuntos de imagen, usando solo ImageIO/Java2D.
+ * Los derivados se guardan junto al original en el BlobStore ("&lt;clave&gt;.thumb.png" y "&lt;clave&gt;.preview.png").
+ *
+ * El ejecutor está acotado (hilos y cola); cuando la cola se llena, el trabajo se descarta y se cuenta. Nunca se
+ * decodifica en el hilo que lo pide: puede ser una petición HTTP con una conexión de base de datos abierta o el hilo
+ * de reintentos. Un derivado descartado se vuelve a solicitar en la siguiente descarga (getDerivedContentKey).
+ * Los errores de E/S se reintentan con espera exponencial; los formatos no soportados se descartan sin reintentar.
+ */
+@Component
+public class ThumbnailGenerator {
+
+    public static final String THUMBNAIL = "thumb";
+    public static final String PREVIEW = "preview";
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailGenerator.class);
+    private static final int THUMBNAIL_SIZE = 256;
+    private static final int PREVIEW_SIZE = 1024;
+
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retryScheduler;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBaseDelayMillis;
+    private final long maxPixels;
+
+    // Claves en cola o en proceso: evita generar dos veces la misma miniatura
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ThumbnailGenerator(BlobStore blobStore,
+                              @Value("${app.thumbnails.threads:2}") int threads,
+                              @Value("${app.thumbnails.queue-capacity:200}") int queueCapacity,
+                              @Value("${app.thumbnails.max-attempts:3}") int maxAttempts,
+                              @Value("${app.thumbnails.retry-base-delay-ms:2000}") long retryBaseDelayMillis,
+                              @Value("${app.thumbnails.max-pixels:100000000}") long maxPixels) {
+        this.blobStore = blobStore;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseDelayMillis = retryBaseDelayMillis;
+        this.maxPixels = maxPixels;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()); // El rechazo se cuenta en submit()
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "thumbnail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Indica si el tipo de contenido es una imagen que ImageIO puede leer (PNG, JPEG, GIF, BMP, WBMP, TIFF). */
+    public static boolean supports(String contentType) {
+        return contentType != null && ImageIO.getImageReadersByMIMEType(contentType).hasNext();
+    }
+
+    /** Encola la generación de los derivados del blob (si no está ya en cola). */
+    public void request(String key) {
+        if (pending.add(key)) {
+            submit(key, 1);
+        }
+    }
+
+    public ThumbnailMetricsDTO getMetrics() {
+        return new ThumbnailMetricsDTO(executor.getQueue().size(), queueCapacity, executor.getActiveCount(),
+                generated.get(), skipped.get(), retried.get(), failed.get(), rejected.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void submit(String key, int attempt) {
+        if (executor.isShutdown()) {
+            pending.remove(key);
+            return;
+        }
+        try {
+            executor.execute(() -> generate(key, attempt));
+        } catch (RejectedExecutionException e) {
+            // Cola llena (o apagado en curso): se descarta y la clave queda libre para una nueva solicitud
+            rejected.incrementAndGet();
+            pending.remove(key);
+        }
+    }
+
+    private void generate(String key, int attempt) {
+        try {
+            BufferedImage source = readSubsampled(key, PREVIEW_SIZE);
+            if (source == null) {
+                skipped.incrementAndGet();
+                pending.remove(key);
+                return;
+            }
+            blobStore.storeDerived(key, PREVIEW, toPng(scale(source, PREVIEW_SIZE)));
+            blobStore.storeDerived(key, THUMBNAIL, toPng(scale(source, THUMBNAIL_SIZE)));
+            generated.incrementAndGet();
+            pending.remove(key);
+        } catch (IOException e) {
+            if (attempt < maxAttempts) {
+                retried.incrementAndGet();
+                long delay = retryBaseDelayMillis << (attempt - 1);
+                retryScheduler.schedule(() -> submit(key, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } else {
+                failed.incrementAndGet();
+                pending.remove(key);
+                logger.warn("Thumbnail generation failed for {} after {} attempts", key, attempt, e);
+            }
+        } catch (RuntimeException e) {
+            // Imagen corrupta o no soportada: reintentar no cambiaría el resultado
+            skipped.incrementAndGet();
+            pending.remove(key);
+            logger.debug("Thumbnail skipped for {}", key, e);
+        }
+    }
+
+    /**
+     * Decodifica la imagen leyendo solo una de cada N filas/columnas cuando es mucho mayor que el tamaño objetivo,
+     * de modo que una foto de 50 MP no se carga completa en memoria. Devuelve null si el formato no es legible
+     * o la imagen supera el máximo de píxeles permitido.
+     */
+    private BufferedImage readSubsampled(String key, int targetSize) throws IOException {
+        try (InputStream content = blobStore.open(key);
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.min(width, height) / (2 * targetSize));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
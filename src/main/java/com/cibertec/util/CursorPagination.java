@@ -0,0 +1,151 @@
+package com.cibertec.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.exception.BadRequestException;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) sobre la columna 'id'.
+ * El cursor es el último 'id' entregado codificado en Base64 URL-safe, de modo que el cliente lo trate como opaco.
+ * Como los 'id' son IDENTITY (crecen junto con 'fecha_creacion'), ordenar por 'id' equivale a ordenar por fecha de creación
+ * y permite usar directamente el índice de la clave primaria.
+ * Los listados filtrados por un rango de fecha límite usan en cambio el cursor (fecha_limite, id): así recorren
+ * en orden el índice (..., fecha_limite) —InnoDB le añade el id— sin ordenar las filas en memoria (filesort).
+ */
+public final class CursorPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String PREFIX = "id:";
+    private static final String DATE_PREFIX = "due:";
+
+    /**
+     * Posición en un recorrido ordenado por (fecha, id). START es anterior a cualquier fila
+     * (fecha mínima de MySQL; LocalDate.MIN no se puede enviar como parámetro).
+     */
+    public record DateKey(LocalDate date, Long id) {
+        public static final DateKey START = new DateKey(LocalDate.of(1000, 1, 1), 0L);
+    }
+
+    private CursorPagination() {
+    }
+
+    /**
+     * Normaliza el tamaño de página solicitado al rango [1, MAX_PAGE_SIZE].
+     */
+    public static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (requested < 1) {
+            throw new BadRequestException("Page size must be greater than zero.");
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Decodifica el cursor recibido. Sin cursor se empieza desde el principio (id > 0).
+     */
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid pagination cursor.");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) { // Incluye NumberFormatException y Base64 inválido
+            throw new BadRequestException("Invalid pagination cursor.", e);
+        }
+    }
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor (fecha, id). Sin cursor se empieza desde el principio (DateKey.START).
+     */
+    public static DateKey decodeDateKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return DateKey.START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(',');
+            if (!raw.startsWith(DATE_PREFIX) || separator < 0) {
+                throw new BadRequestException("Invalid pagination cursor.");
+            }
+            return new DateKey(LocalDate.parse(raw.substring(DATE_PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid pagination cursor.", e);
+        }
+    }
+
+    public static String encode(DateKey lastKey) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((DATE_PREFIX + lastKey.date() + "," + lastKey.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Pide una fila más que el tamaño de página para saber si existe una página siguiente
+     * sin ejecutar un COUNT(*) adicional.
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Pide solo la última fila que leería {@link #limit(int)}. Su id acota la consulta de versión de la página
+     * al rango (cursor, id] en lugar de recorrer la tabla completa; si no existe, la página es la última.
+     */
+    public static Pageable pageEnd(int size) {
+        return PageRequest.of(size, 1);
+    }
+
+    /**
+     * Construye la página cuando el repositorio ya devuelve DTOs (proyecciones).
+     */
+    public static <D> CursorPageDTO<D> toPage(List<D> rows, int size, Function<D, Long> idOf) {
+        return toPage(rows, size, idOf, Function.identity());
+    }
+
+    /**
+     * Construye la página a partir de las filas obtenidas con {@link #limit(int)}.
+     */
+    public static <E, D> CursorPageDTO<D> toPage(List<E> rows, int size, Function<E, Long> idOf, Function<E, D> mapper) {
+        return page(rows, size, row -> encode(idOf.apply(row)), mapper);
+    }
+
+    /**
+     * Construye la página de un recorrido por (fecha, id); el cursor siguiente es la clave de la última fila.
+     */
+    public static <D> CursorPageDTO<D> toDateKeyPage(List<D> rows, int size, Function<D, DateKey> keyOf) {
+        return page(rows, size, row -> encode(keyOf.apply(row)), Function.identity());
+    }
+
+    private static <E, D> CursorPageDTO<D> page(List<E> rows, int size, Function<E, String> cursorOf, Function<E, D> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        List<D> items = pageRows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, nextCursor, hasMore, size);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cibertec.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializa una colección como un arreglo JSON escrito directamente en la respuesta, elemento a elemento,
+ * con un JsonGenerator de Jackson. Nunca se arma la lista completa: la memoria por petición es la de una fila
+ * más los búferes del generador, sea cual sea el tamaño de la colección.
+ */
+public final class JsonArrayStream {
+
+    private JsonArrayStream() {
+    }
+
+    /**
+     * @param source Recorre la colección entregando cada elemento al consumidor que recibe
+     *               (por ejemplo, un método de servicio que itera un Stream de JPA).
+     */
+    public static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            // El flujo de la respuesta lo cierra el contenedor; el generador solo vacía su búfer
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                try {
+                    source.accept(item -> {
+                        try {
+                            generator.writeObject(item);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    // Normalmente el cliente cerró la conexión: se aborta la consulta y se propaga el error original
+                    throw e.getCause();
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+}
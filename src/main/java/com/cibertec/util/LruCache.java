@@ -0,0 +1,113 @@
+package com.cibertec.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU acotada y segura para hilos.
+ * Cuando se supera 'maxEntries' se descarta la entrada menos usada recientemente,
+ * de modo que la memoria ocupada no crece con el tamaño de las tablas.
+ * Usa ReentrantLock en lugar de 'synchronized': en Java 21 un hilo virtual que espera un monitor
+ * bloquea su hilo portador, mientras que la espera sobre un Lock lo libera.
+ *
+ * Para llenar la caché desde una fuente que otro hilo puede modificar e invalidar mientras se lee, se toma
+ * {@link #generation()} antes de leer y se guarda con {@link #putIfUnchanged}: si entretanto se invalidó la clave,
+ * el valor leído puede ser anterior al cambio y no se guarda. Las invalidaciones se registran por franja de claves
+ * (memoria fija); una colisión de franja solo descarta un put de más, nunca deja pasar un valor obsoleto.
+ */
+public class LruCache<K, V> {
+
+    private static final int STRIPES = 1024; // Potencia de dos
+
+    private final Map<K, V> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Contador de invalidaciones, y valor del contador en la última invalidación de cada franja y en el último clear/removeIf
+    private final long[] invalidatedAt = new long[STRIPES];
+    private long invalidations;
+    private long clearedAt;
+
+    public LruCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero.");
+        }
+        // accessOrder = true: cada get() mueve la entrada al final (más reciente)
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key) {
+        return locked(() -> entries.get(key));
+    }
+
+    public void put(K key, V value) {
+        locked(() -> entries.put(key, value));
+    }
+
+    /** Marca a tomar antes de leer de la fuente el valor que se guardará con {@link #putIfUnchanged}. */
+    public long generation() {
+        return locked(() -> invalidations);
+    }
+
+    /**
+     * Guarda el valor solo si la clave no se invalidó (remove, removeIf o clear) desde 'generation'.
+     * @return true si se guardó.
+     */
+    public boolean putIfUnchanged(K key, V value, long generation) {
+        return locked(() -> {
+            if (invalidatedAt[stripe(key)] > generation || clearedAt > generation) {
+                return false;
+            }
+            entries.put(key, value);
+            return true;
+        });
+    }
+
+    public void remove(K key) {
+        locked(() -> {
+            invalidatedAt[stripe(key)] = ++invalidations;
+            return entries.remove(key);
+        });
+    }
+
+    public void removeIf(BiPredicate<K, V> predicate) {
+        locked(() -> {
+            clearedAt = ++invalidations;
+            return entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+        });
+    }
+
+    public void clear() {
+        locked(() -> {
+            clearedAt = ++invalidations;
+            entries.clear();
+            return null;
+        });
+    }
+
+    public int size() {
+        return locked(entries::size);
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
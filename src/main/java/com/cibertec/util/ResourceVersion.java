@@ -0,0 +1,73 @@
+package com.cibertec.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.cibertec.repository.projection.CollectionVersion;
+import com.cibertec.repository.projection.VersionedEntityVersion;
+
+/**
+ * ETag y Last-Modified de un recurso, calculados con una consulta de versión sin cargar ni serializar las entidades.
+ * El ETag sale de la columna @Version (id + versión, o conteo y sumas de ids y versiones para las colecciones,
+ * limitado al rango de ids de la página en los listados completos); ultima_actualizacion, con precisión de segundos,
+ * solo da el Last-Modified: dos escrituras en el mismo segundo producen ETags distintos.
+ * Uso en un controlador: {@code if (version.isNotModified(webRequest)) return null;} responde 304 sin cuerpo.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    /** ETag fuerte de una entidad con @Version: cambia con cada UPDATE y es el que se compara con If-Match. */
+    public static ResourceVersion of(String type, VersionedEntityVersion version) {
+        return of(type, version.getId(), version.getVersion(), version.getLastUpdated());
+    }
+
+    public static ResourceVersion of(String type, Long id, Long version, LocalDateTime lastUpdated) {
+        return new ResourceVersion("\"" + type + "-" + id + "-v" + version + "\"", toMillis(lastUpdated));
+    }
+
+    /** ETag débil de una colección: la misma versión puede serializarse distinto (p. ej. el orden de un Map). */
+    public static ResourceVersion ofCollection(String name, CollectionVersion version) {
+        return new ResourceVersion("W/\"" + name + "-" + version.getTotal() + "-" + version.getIdSum() + "-" + version.getVersionSum() + "\"",
+                toMillis(version.getLastUpdated()));
+    }
+
+    /** Distingue cada página (cursor, tamaño, campos...) de la misma colección. */
+    public ResourceVersion forPage(Object... page) {
+        String hash = Integer.toHexString(Objects.hash(page));
+        return new ResourceVersion(etag.substring(0, etag.length() - 1) + "-" + hash + "\"", lastModified);
+    }
+
+    /**
+     * Evalúa una cabecera If-Match ('*' o lista de ETags). Usa la comparación fuerte: un ETag débil nunca coincide.
+     */
+    public boolean matches(String ifMatch) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evalúa If-None-Match / If-Modified-Since. Siempre añade ETag y Last-Modified a la respuesta,
+     * y 'Cache-Control: no-cache' para que el cliente guarde la respuesta pero la revalide en cada uso.
+     * @return true si la respuesta ya es un 304 y el controlador no debe generar el cuerpo.
+     */
+    public boolean isNotModified(ServletWebRequest webRequest) {
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return webRequest.checkNotModified(etag, lastModified);
+    }
+
+    // Sin fecha (colección vacía o filas antiguas): solo se usa el ETag
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,115 @@
+package com.cibertec.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.cibertec.exception.BadRequestException;
+
+/**
+ * Define los campos que un listado puede devolver con el parámetro 'fields=' y la expresión JPQL de cada uno,
+ * junto con los filtros admitidos. SparseFieldsetRepository arma con ellos una consulta que solo lee las
+ * columnas pedidas: un listado que muestra nombre y estado nunca lee la columna LOB 'descripcion'.
+ */
+public final class SparseFieldset {
+
+    public static final String ID = "id";
+
+    /**
+     * Un campo de la respuesta. 'join' (opcional) se añade a la consulta solo si el campo se pide;
+     * 'mapper' arma el valor a partir de las columnas de 'expressions' (p. ej. un objeto anidado).
+     */
+    public record Field(String name, String join, List<String> expressions, Function<Object[], Object> mapper) {
+    }
+
+    private final String from;
+    private final String idExpression;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    private final Map<String, String> filters;
+
+    public SparseFieldset(String from, String idExpression, List<Field> fields, Map<String, String> filters) {
+        this.from = from;
+        this.idExpression = idExpression;
+        for (Field field : fields) {
+            this.fields.put(field.name(), field);
+        }
+        this.filters = Map.copyOf(filters);
+    }
+
+    /** Campo de una sola columna. */
+    public static Field column(String name, String expression) {
+        return new Field(name, null, List.of(expression), values -> values[0]);
+    }
+
+    /**
+     * Interpreta 'fields=name,status'. Los campos se devuelven en el orden de la definición y el id
+     * siempre se incluye (lo necesita el cursor de paginación), igual que 'required' (p. ej. la fecha de un cursor por fecha).
+     */
+    public List<Field> select(String requested, String... required) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : requested.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        for (String name : names) {
+            if (!fields.containsKey(name)) {
+                throw new BadRequestException("Unknown field '" + name + "'. Allowed fields: " + fields.keySet());
+            }
+        }
+        names.addAll(Arrays.asList(required));
+        List<Field> selected = new ArrayList<>();
+        for (Field field : fields.values()) {
+            if (field.name().equals(ID) || names.contains(field.name())) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getIdExpression() {
+        return idExpression;
+    }
+
+    /** Expresión JPQL de un campo de una sola columna (p. ej. la clave de ordenación de un cursor). */
+    public String expression(String name) {
+        Field field = fields.get(name);
+        if (field == null || field.expressions().size() != 1) {
+            throw new IllegalArgumentException("Unknown single-column field: " + name);
+        }
+        return field.expressions().get(0);
+    }
+
+    /** Condición JPQL del filtro; usa un parámetro con el mismo nombre (p. ej. "t.status = :status"). */
+    public String filter(String name) {
+        String condition = filters.get(name);
+        if (condition == null) {
+            throw new IllegalArgumentException("Unknown filter: " + name);
+        }
+        return condition;
+    }
+
+    /** Arma un objeto anidado {clave: columna} con los nombres indicados, en el mismo orden que las expresiones. */
+    public static Function<Object[], Object> nested(String... keys) {
+        List<String> names = Arrays.asList(keys);
+        return values -> {
+            if (values[0] == null) {
+                return null;
+            }
+            Map<String, Object> nested = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                nested.put(names.get(i), values[i]);
+            }
+            return nested;
+        };
+    }
+}
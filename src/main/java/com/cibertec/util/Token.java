@@ -1,27 +1,58 @@
 package com.cibertec.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List; // Necesario para List
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors; // Necesario para Collectors
 
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority; // Necesario para GrantedAuthority
 import org.springframework.security.core.authority.SimpleGrantedAuthority; // Necesario para SimpleGrantedAuthority
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 
 public class Token {
 	
+	private static final Logger logger = LoggerFactory.getLogger(Token.class);
+	
 	private final static String TOKEN_FIRMA = "aLg3eqbV254pZd9AFiMh4mAcRAt1Y0Jb";//32 caracteres
 	private final static Long TOKEN_DURACION = 3_600L;//TIEMPO DE DURACIÓN (en segundos)
 	
+	// La clave HMAC y el parser son inmutables y seguros para hilos: se construyen una sola vez
+	private final static SecretKey CLAVE_FIRMA = Keys.hmacShaKeyFor(TOKEN_FIRMA.getBytes());
+	private final static JwtParser PARSER = Jwts.parserBuilder()
+			.setSigningKey(CLAVE_FIRMA)
+			.build();
+	
+	// Caché de tokens ya verificados, indexada por el hash SHA-256 del token (no se guarda el token en claro).
+	// Cada entrada caduca en el 'exp' del token; al llenarse se descartan las menos usadas.
+	// Caffeine atiende las lecturas sin bloqueo global: todas las peticiones autenticadas pasan por aquí.
+	private final static int MAX_TOKENS_EN_CACHE = 10_000;
+	private final static Cache<String, TokenVerificado> TOKENS_VERIFICADOS = Caffeine.newBuilder()
+			.maximumSize(MAX_TOKENS_EN_CACHE)
+			.expireAfter(new HastaExpiracion())
+			.build();
+	
 	// Modificación: Ahora acepta una colección de GrantedAuthority para incluir los roles
 	public static String crearToken(String user, String email, Collection<? extends GrantedAuthority> authorities) {
 		
@@ -42,16 +73,24 @@ public class Token {
 				.setSubject(email)
 				.setExpiration(expiracionFecha)
 				.addClaims(claims) // Usar addClaims para añadir el mapa
-				.signWith(Keys.hmacShaKeyFor(TOKEN_FIRMA.getBytes()))
+				.signWith(CLAVE_FIRMA)
 				.compact();
 	}
 	
 	public static UsernamePasswordAuthenticationToken getAuth(String token) {
 		
+		long ahora = System.currentTimeMillis();
+		String claveCache = hash(token);
+		
+		// 1. Token ya verificado anteriormente: se evita volver a parsear y validar la firma
+		// (las entradas vencidas ya no se devuelven: el token se vuelve a validar y se rechaza por expirado)
+		TokenVerificado verificado = TOKENS_VERIFICADOS.getIfPresent(claveCache);
+		if (verificado != null) {
+			return verificado.toAuthentication();
+		}
+		
 		try {
-			Claims claims = Jwts.parserBuilder()
-					.setSigningKey(TOKEN_FIRMA.getBytes())
-					.build()
+			Claims claims = PARSER
 					.parseClaimsJws(token)
 					.getBody();
 			
@@ -65,16 +104,64 @@ public class Token {
 			List<GrantedAuthority> authorities = rolesFromToken != null ? 
 					rolesFromToken.stream()
 							.map(SimpleGrantedAuthority::new) // Convertir cada String a SimpleGrantedAuthority
-							.collect(Collectors.toList()) : 
+							.collect(Collectors.toUnmodifiableList()) : 
 					Collections.emptyList(); // Si no hay roles, devuelve una lista vacía
+			
+			verificado = new TokenVerificado(email, authorities,
+					claims.getExpiration() != null ? claims.getExpiration().getTime() : ahora);
+			guardarEnCache(claveCache, verificado, ahora);
 					
-			return new UsernamePasswordAuthenticationToken(email, null, authorities); // <-- ¡Pasar las autoridades!
+			return verificado.toAuthentication(); // <-- ¡Pasar las autoridades!
 					
 		} catch (Exception e) {
-			System.out.println("Sucedio un error al comprobar el token: " + e.getMessage());
+			logger.debug("Sucedio un error al comprobar el token: {}", e.getMessage());
 			// Es crucial devolver null o lanzar una excepción si el token es inválido
 			// para que JWTAuthorizationFilter pueda manejarlo.
 			return null;
 		}
 	}
+	
+	private static void guardarEnCache(String claveCache, TokenVerificado verificado, long ahora) {
+		if (verificado.expiraEn() <= ahora) {
+			return; // Sin 'exp' no se cachea
+		}
+		TOKENS_VERIFICADOS.put(claveCache, verificado);
+	}
+	
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 no está disponible en la JVM", e);
+		}
+	}
+	
+	// Datos inmutables de un token verificado. Se crea un UsernamePasswordAuthenticationToken nuevo
+	// en cada petición porque ese objeto es mutable (detalles, estado de autenticación) y no debe compartirse entre hilos.
+	private record TokenVerificado(String email, List<GrantedAuthority> authorities, long expiraEn) {
+		
+		UsernamePasswordAuthenticationToken toAuthentication() {
+			return new UsernamePasswordAuthenticationToken(email, null, authorities);
+		}
+	}
+	
+	// Vigencia de cada entrada: el tiempo que le queda al token; leerla o reemplazarla no la prolonga
+	private static class HastaExpiracion implements Expiry<String, TokenVerificado> {
+		
+		@Override
+		public long expireAfterCreate(String clave, TokenVerificado verificado, long tiempoActual) {
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(verificado.expiraEn() - System.currentTimeMillis(), 0));
+		}
+		
+		@Override
+		public long expireAfterUpdate(String clave, TokenVerificado verificado, long tiempoActual, long duracionActual) {
+			return expireAfterCreate(clave, verificado, tiempoActual);
+		}
+		
+		@Override
+		public long expireAfterRead(String clave, TokenVerificado verificado, long tiempoActual, long duracionActual) {
+			return duracionActual;
+		}
+	}
 }
\ No newline at end of file
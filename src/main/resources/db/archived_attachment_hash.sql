@@ -0,0 +1,6 @@
+-- Índice por contenido de los adjuntos archivados (ver project_archive.sql).
+-- Ejecutar una sola vez sobre una base existente, después de project_archive.sql (el esquema no lo genera Hibernate).
+-- El recolector comprueba que ningún adjunto, activo o archivado, use un contenido antes de borrarlo: si el conteo
+-- de referencias se desvió y se dejó en 0, el archivo de un contenido todavía en uso no se elimina.
+
+CREATE INDEX idx_adjuntos_archivados_hash_contenido ON archivos_adjuntos_archivados (hash_contenido);
@@ -0,0 +1,13 @@
+-- Almacén de contenidos deduplicado (entidad AttachmentBlob) y hash del contenido en archivos_adjuntos.
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+-- Los adjuntos subidos antes de este cambio conservan hash_contenido = NULL y su archivo exclusivo.
+
+CREATE TABLE contenidos_adjuntos (
+    hash           CHAR(64)    NOT NULL PRIMARY KEY,
+    tamano_bytes   BIGINT      NOT NULL,
+    referencias    BIGINT      NOT NULL DEFAULT 0,
+    fecha_creacion DATETIME(6)
+);
+
+ALTER TABLE archivos_adjuntos ADD COLUMN hash_contenido CHAR(64) NULL;
+CREATE INDEX idx_archivos_adjuntos_hash_contenido ON archivos_adjuntos (hash_contenido);
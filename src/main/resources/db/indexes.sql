@@ -0,0 +1,19 @@
+-- Índices secundarios para las columnas de búsqueda (MySQL).
+-- Coinciden con los @Index declarados en las entidades Task, Project y Milestone.
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+
+-- tareas
+CREATE INDEX idx_tareas_proyecto_estado ON tareas (proyecto_id, estado);
+CREATE INDEX idx_tareas_asignado_fecha_limite ON tareas (asignado_a_usuario_id, fecha_limite);
+CREATE INDEX idx_tareas_estado ON tareas (estado);
+CREATE INDEX idx_tareas_prioridad ON tareas (prioridad);
+CREATE INDEX idx_tareas_proyecto_ultima_actualizacion ON tareas (proyecto_id, ultima_actualizacion);
+
+-- proyectos
+CREATE INDEX idx_proyectos_estado ON proyectos (estado);
+CREATE INDEX idx_proyectos_fecha_inicio ON proyectos (fecha_inicio);
+
+-- hitos
+CREATE INDEX idx_hitos_completado_fecha_limite ON hitos (completado, fecha_limite);
+CREATE INDEX idx_hitos_fecha_limite ON hitos (fecha_limite);
+CREATE INDEX idx_hitos_proyecto_ultima_actualizacion ON hitos (proyecto_id, ultima_actualizacion);
@@ -0,0 +1,25 @@
+-- Tareas e hitos vencidos detectados por el escaneo periódico (GET /api/tasks/overdue, GET /api/milestones/overdue).
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+-- El primer escaneo recorre por bloques todas las fechas límite pasadas; los siguientes solo las nuevas.
+
+CREATE TABLE elementos_vencidos (
+    tipo            VARCHAR(20) NOT NULL, -- 'task' o 'milestone'
+    elemento_id     BIGINT      NOT NULL,
+    proyecto_id     BIGINT      NOT NULL,
+    fecha_limite    DATE        NOT NULL,
+    fecha_deteccion DATETIME(6) NOT NULL,
+    PRIMARY KEY (tipo, elemento_id),
+    INDEX idx_elementos_vencidos_proyecto (tipo, proyecto_id, elemento_id)
+);
+
+-- Marca de agua de cada tipo: fechas límite ya recorridas (anteriores a fecha_limite_hasta) e inicio del último escaneo
+CREATE TABLE escaneo_vencimientos (
+    tipo               VARCHAR(20) NOT NULL PRIMARY KEY,
+    fecha_limite_hasta DATE        NOT NULL,
+    ultimo_escaneo     DATETIME(6) NOT NULL
+);
+
+-- Índices de los rangos que recorre el escaneo (coinciden con los @Index de Task y Milestone)
+CREATE INDEX idx_tareas_fecha_limite ON tareas (fecha_limite);
+CREATE INDEX idx_tareas_ultima_actualizacion ON tareas (ultima_actualizacion);
+CREATE INDEX idx_hitos_ultima_actualizacion ON hitos (ultima_actualizacion);
@@ -0,0 +1,68 @@
+-- Archivo de proyectos completados (POST /api/projects/{id}/archive).
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+-- Las filas se mueven aquí con sus ids originales y vuelven a las tablas activas con
+-- POST /api/projects/archived/{id}/restore. Sin claves foráneas: un usuario puede eliminarse
+-- mientras su proyecto está archivado. Al restaurar, los usuarios asignados y los proyecto_id de adjuntos de tarea
+-- que ya no existen quedan en NULL; si falta el gerente o el usuario que subió un adjunto, la restauración responde 409.
+-- Se archivan los adjuntos que pertenecen al proyecto: los de sus tareas y los suyos sin tarea (ver Attachment.task).
+-- Los adjuntos archivados conservan sus referencias en contenidos_adjuntos, así que sus archivos no se recolectan.
+
+CREATE TABLE proyectos_archivados (
+    id                   BIGINT         NOT NULL PRIMARY KEY,
+    nombre               VARCHAR(255)   NOT NULL,
+    descripcion          LONGTEXT,
+    fecha_inicio         DATE           NOT NULL,
+    fecha_fin_esperada   DATE,
+    estado               VARCHAR(50)    NOT NULL,
+    presupuesto          DECIMAL(15, 2),
+    gerente_proyecto_id  BIGINT         NOT NULL,
+    fecha_creacion       DATETIME(6),
+    ultima_actualizacion DATETIME(6),
+    total_tareas         BIGINT         NOT NULL DEFAULT 0,
+    total_hitos          BIGINT         NOT NULL DEFAULT 0,
+    total_adjuntos       BIGINT         NOT NULL DEFAULT 0,
+    fecha_archivado      DATETIME(6)    NOT NULL
+);
+
+CREATE TABLE tareas_archivadas (
+    id                    BIGINT       NOT NULL PRIMARY KEY,
+    nombre                VARCHAR(255) NOT NULL,
+    descripcion           LONGTEXT,
+    fecha_limite          DATE,
+    estado                VARCHAR(50)  NOT NULL,
+    prioridad             VARCHAR(20)  NOT NULL,
+    proyecto_id           BIGINT       NOT NULL,
+    asignado_a_usuario_id BIGINT,
+    fecha_creacion        DATETIME(6),
+    ultima_actualizacion  DATETIME(6),
+    version               BIGINT       NOT NULL DEFAULT 0,
+    INDEX idx_tareas_archivadas_proyecto (proyecto_id)
+);
+
+CREATE TABLE hitos_archivados (
+    id                   BIGINT       NOT NULL PRIMARY KEY,
+    nombre               VARCHAR(255) NOT NULL,
+    descripcion          LONGTEXT,
+    fecha_limite         DATE,
+    completado           BOOLEAN      NOT NULL,
+    proyecto_id          BIGINT       NOT NULL,
+    fecha_creacion       DATETIME(6),
+    ultima_actualizacion DATETIME(6),
+    INDEX idx_hitos_archivados_proyecto (proyecto_id)
+);
+
+-- proyecto_archivado_id: proyecto con el que se archivó (los adjuntos de tareas pueden tener proyecto_id nulo)
+CREATE TABLE archivos_adjuntos_archivados (
+    id                    BIGINT       NOT NULL PRIMARY KEY,
+    nombre_archivo        VARCHAR(255) NOT NULL,
+    tipo_contenido        VARCHAR(100),
+    ruta_almacenamiento   VARCHAR(255) NOT NULL,
+    tamano_bytes          BIGINT,
+    hash_contenido        VARCHAR(64),
+    fecha_subida          DATETIME(6),
+    usuario_subida_id     BIGINT       NOT NULL,
+    tarea_id              BIGINT,
+    proyecto_id           BIGINT,
+    proyecto_archivado_id BIGINT       NOT NULL,
+    INDEX idx_adjuntos_archivados_proyecto (proyecto_archivado_id)
+);
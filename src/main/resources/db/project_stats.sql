@@ -0,0 +1,16 @@
+-- Estadísticas materializadas por proyecto (entidad ProjectStats).
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate)
+-- y después lanzar POST /api/projects/stats/rebuild para poblarla.
+
+CREATE TABLE estadisticas_proyectos (
+    proyecto_id          BIGINT    NOT NULL PRIMARY KEY,
+    tareas_abiertas      BIGINT    NOT NULL DEFAULT 0,
+    tareas_cerradas      BIGINT    NOT NULL DEFAULT 0,
+    tareas_vencidas      BIGINT    NOT NULL DEFAULT 0,
+    hitos_total          BIGINT    NOT NULL DEFAULT 0,
+    hitos_completados    BIGINT    NOT NULL DEFAULT 0,
+    adjuntos_total       BIGINT    NOT NULL DEFAULT 0,
+    adjuntos_bytes       BIGINT    NOT NULL DEFAULT 0,
+    ultima_actualizacion DATETIME(6),
+    CONSTRAINT fk_estadisticas_proyectos_proyecto FOREIGN KEY (proyecto_id) REFERENCES proyectos (id) ON DELETE CASCADE
+);
@@ -0,0 +1,16 @@
+-- Columnas de bloqueo optimista de proyectos, hitos y usuarios (@Version en las entidades Project, Milestone y User).
+-- Ejecutar una sola vez sobre una base existente, después de project_archive.sql (el esquema no lo genera Hibernate).
+-- Son la base de los ETag: ultima_actualizacion tiene precisión de segundos y no distingue dos escrituras seguidas.
+-- Las filas existentes empiezan en la versión 0; cada UPDATE la incrementa.
+
+ALTER TABLE proyectos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE hitos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE usuarios ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE proyectos_archivados ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE hitos_archivados ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- La versión de las tareas e hitos de un proyecto (conteo, sumas de id y versión, máximo de fecha) se resuelve solo con el índice
+DROP INDEX idx_tareas_proyecto_ultima_actualizacion ON tareas;
+CREATE INDEX idx_tareas_proyecto_ultima_actualizacion ON tareas (proyecto_id, ultima_actualizacion, version);
+DROP INDEX idx_hitos_proyecto_ultima_actualizacion ON hitos;
+CREATE INDEX idx_hitos_proyecto_ultima_actualizacion ON hitos (proyecto_id, ultima_actualizacion, version);
@@ -0,0 +1,5 @@
+-- Columna de bloqueo optimista de tareas (@Version en la entidad Task).
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+-- Las tareas existentes empiezan en la versión 0; cada UPDATE (JPA o carga masiva JDBC) la incrementa.
+
+ALTER TABLE tareas ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
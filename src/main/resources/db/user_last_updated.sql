@@ -0,0 +1,6 @@
+-- Fecha de última modificación de usuarios (@UpdateTimestamp en la entidad User).
+-- Ejecutar una sola vez sobre una base existente (el esquema no lo genera Hibernate).
+-- Forma parte del ETag de los proyectos que gestiona el usuario; las filas existentes quedan en NULL
+-- hasta su próxima modificación y, mientras tanto, la versión del proyecto usa solo su propia fecha.
+
+ALTER TABLE usuarios ADD COLUMN ultima_actualizacion DATETIME(6);
@@ -0,0 +1,85 @@
+package com.cibertec.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class CsvExportRowWriterTest {
+
+    private static final String HEADER = String.join(",", ExportRowWriter.COLUMNS) + "\r\n";
+
+    @Test
+    void writesHeaderAndEmptyColumnsForNulls() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+        values[ExportRowWriter.TYPE] = ExportRowWriter.ATTACHMENT;
+        values[ExportRowWriter.ID] = 7L;
+        values[ExportRowWriter.PROJECT_ID] = 3L;
+        values[ExportRowWriter.SIZE_BYTES] = 1024L;
+
+        try (CsvExportRowWriter writer = new CsvExportRowWriter(output)) {
+            writer.writeRow(values);
+        }
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .isEqualTo(HEADER + "attachment,7,3,,,,,,,,,,,1024,,,\r\n");
+    }
+
+    @Test
+    void quotesValuesWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+        values[ExportRowWriter.TYPE] = ExportRowWriter.TASK;
+        values[ExportRowWriter.NAME] = "Diseño, fase \"1\"";
+        values[ExportRowWriter.DESCRIPTION] = "línea 1\r\nlínea 2";
+
+        try (CsvExportRowWriter writer = new CsvExportRowWriter(output)) {
+            writer.writeRow(values);
+        }
+
+        String row = output.toString(StandardCharsets.UTF_8).substring(HEADER.length());
+        assertThat(row).isEqualTo("task,,,,\"Diseño, fase \"\"1\"\"\",\"línea 1\r\nlínea 2\",,,,,,,,,,,\r\n");
+    }
+
+    @Test
+    void reusesValuesArrayBetweenRows() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Object[] values = new Object[ExportRowWriter.COLUMNS.length];
+
+        try (CsvExportRowWriter writer = new CsvExportRowWriter(output)) {
+            values[ExportRowWriter.TYPE] = ExportRowWriter.MILESTONE;
+            values[ExportRowWriter.COMPLETED] = true;
+            writer.writeRow(values);
+            Arrays.fill(values, null);
+            values[ExportRowWriter.TYPE] = ExportRowWriter.TASK;
+            writer.writeRow(values);
+        }
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(HEADER
+                + "milestone,,,,,,,,,true,,,,,,,\r\n"
+                + "task,,,,,,,,,,,,,,,,\r\n");
+    }
+
+    @Test
+    void closeFlushesWithoutClosingResponseStream() throws IOException {
+        boolean[] closed = {false};
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        CsvExportRowWriter writer = new CsvExportRowWriter(output);
+        assertThat(output.size()).isZero(); // La cabecera sigue en el búfer
+        writer.close();
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(HEADER);
+        assertThat(closed[0]).isFalse();
+    }
+}
@@ -0,0 +1,130 @@
+package com.cibertec.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cibertec.dto.AttachmentDTO;
+import com.cibertec.dto.MilestoneDTO;
+import com.cibertec.dto.ProjectDTO;
+import com.cibertec.dto.TaskDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Las lecturas de listados y detalle se resuelven con una sola sentencia SQL, sin cargar entidades
+ * (ni el gerente del proyecto ni sus roles): se cuenta con las estadísticas de Hibernate.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class DtoProjectionQueryCountTest {
+
+    private static final int PROJECTS = 5;
+    private static final int TASKS_PER_PROJECT = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MilestoneRepository milestoneRepository;
+
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO roles (id, nombre) VALUES (1, 'PROJECT_MANAGER')");
+        long taskId = 100;
+        for (long project = 1; project <= PROJECTS; project++) {
+            // Un gerente distinto por proyecto: con carga perezosa serían N consultas más
+            jdbcTemplate.update("INSERT INTO usuarios (id, nombre_usuario, contrasena, nombre, apellido, email, activo, rol_id, version) "
+                    + "VALUES (?, ?, 'x', 'Ana', 'Pérez', ?, TRUE, 1, 0)", project, "manager" + project, "manager" + project + "@techwave.test");
+            jdbcTemplate.update("INSERT INTO proyectos (id, nombre, fecha_inicio, estado, presupuesto, gerente_proyecto_id, version) "
+                    + "VALUES (?, ?, DATE '2026-01-01', 'EN_PROGRESO', 0, ?, 0)", project, "Proyecto " + project, project);
+            jdbcTemplate.update("INSERT INTO hitos (id, nombre, completado, proyecto_id, version) VALUES (?, 'Entrega', FALSE, ?, 0)",
+                    project, project);
+            for (int i = 0; i < TASKS_PER_PROJECT; i++, taskId++) {
+                jdbcTemplate.update("INSERT INTO tareas (id, nombre, estado, prioridad, proyecto_id, asignado_a_usuario_id, version) "
+                        + "VALUES (?, 'Tarea', 'PENDIENTE', 'MEDIA', ?, ?, 0)", taskId, project, project);
+                jdbcTemplate.update("INSERT INTO archivos_adjuntos (id, nombre_archivo, ruta_almacenamiento, usuario_subida_id, tarea_id) "
+                        + "VALUES (?, 'plan.pdf', ?, ?, ?)", taskId, "legacy/" + taskId, project, taskId);
+            }
+        }
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void projectListAndDetailIncludeManagerInOneQuery() {
+        List<ProjectDTO> page = singleQuery(() -> projectRepository.findDtoPage(0L, PageRequest.of(0, 50)));
+        assertThat(page).hasSize(PROJECTS);
+        assertThat(page.get(PROJECTS - 1).getProjectManager().getUsername()).isEqualTo("manager" + PROJECTS);
+
+        ProjectDTO project = singleQuery(() -> projectRepository.findDtoById(3L)).orElseThrow();
+        assertThat(project.getProjectManager().getEmail()).isEqualTo("manager3@techwave.test");
+    }
+
+    @Test
+    void taskListAndDetailAreOneQuery() {
+        List<TaskDTO> all = singleQuery(() -> taskRepository.findDtoPage(0L, PageRequest.of(0, 50)));
+        assertThat(all).hasSize(PROJECTS * TASKS_PER_PROJECT);
+
+        List<TaskDTO> byProject = singleQuery(() -> taskRepository.findDtoPageByProjectId(2L, 0L, PageRequest.of(0, 50)));
+        assertThat(byProject).hasSize(TASKS_PER_PROJECT);
+        assertThat(byProject.get(0).getAssignedToId()).isEqualTo(2L);
+
+        TaskDTO task = singleQuery(() -> taskRepository.findDtoById(100L)).orElseThrow();
+        assertThat(task.getProjectId()).isEqualTo(1L);
+    }
+
+    @Test
+    void milestoneAndAttachmentReadsAreOneQuery() {
+        List<MilestoneDTO> milestones = singleQuery(() -> milestoneRepository.findDtoPage(0L, PageRequest.of(0, 50)));
+        assertThat(milestones).hasSize(PROJECTS);
+        assertThat(singleQuery(() -> milestoneRepository.findDtoById(1L)).orElseThrow().getProjectId()).isEqualTo(1L);
+
+        List<AttachmentDTO> attachments = singleQuery(() -> attachmentRepository.findDtoPage(0L, PageRequest.of(0, 50)));
+        assertThat(attachments).hasSize(PROJECTS * TASKS_PER_PROJECT);
+        AttachmentDTO attachment = singleQuery(() -> attachmentRepository.findDtoById(100L)).orElseThrow();
+        assertThat(attachment.getTaskId()).isEqualTo(100L);
+        assertThat(attachment.getUploadedById()).isEqualTo(1L);
+    }
+
+    private <T> T singleQuery(Supplier<T> read) {
+        statistics.clear();
+        T result = read.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1L);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+package com.cibertec.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import com.cibertec.dto.ArchivedProjectDTO;
+
+/**
+ * Archivado y restauración sobre H2 (modo MySQL): las tablas activas las crea Hibernate y las de archivo
+ * los scripts de db/, igual que en una base existente.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import(ProjectArchiveRepository.class)
+@Sql(scripts = "/db/project_archive.sql", statements = {
+        "ALTER TABLE proyectos_archivados ADD COLUMN version BIGINT NOT NULL DEFAULT 0",
+        "ALTER TABLE hitos_archivados ADD COLUMN version BIGINT NOT NULL DEFAULT 0"
+}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(statements = {
+        "DROP TABLE archivos_adjuntos_archivados", "DROP TABLE hitos_archivados",
+        "DROP TABLE tareas_archivadas", "DROP TABLE proyectos_archivados"
+}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class ProjectArchiveRepositoryTest {
+
+    private static final long MANAGER = 1L;
+    private static final long DEVELOPER = 2L;
+    private static final long UPLOADER = 3L;
+    private static final long PROJECT = 10L;
+    private static final long OTHER_PROJECT = 11L;
+    private static final long TASK = 100L;
+    private static final long OTHER_TASK = 101L;
+    private static final long MILESTONE = 200L;
+    private static final LocalDateTime ARCHIVED_AT = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectArchiveRepository projectArchiveRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO roles (id, nombre) VALUES (1, 'DEVELOPER')");
+        insertUser(MANAGER, "manager");
+        insertUser(DEVELOPER, "developer");
+        insertUser(UPLOADER, "uploader");
+        insertProject(PROJECT, 3);
+        insertProject(OTHER_PROJECT, 0);
+        jdbcTemplate.update("INSERT INTO tareas (id, nombre, estado, prioridad, proyecto_id, asignado_a_usuario_id, version) "
+                + "VALUES (?, 'Cerrar sprint', 'COMPLETADA', 'ALTA', ?, ?, 2)", TASK, PROJECT, DEVELOPER);
+        jdbcTemplate.update("INSERT INTO tareas (id, nombre, estado, prioridad, proyecto_id, version) "
+                + "VALUES (?, 'Otra tarea', 'PENDIENTE', 'MEDIA', ?, 0)", OTHER_TASK, OTHER_PROJECT);
+        jdbcTemplate.update("INSERT INTO hitos (id, nombre, completado, proyecto_id, version) VALUES (?, 'Entrega', TRUE, ?, 0)",
+                MILESTONE, PROJECT);
+        // Pertenecen al proyecto: 1000 (sin tarea), 1001 y 1002 (de su tarea, aunque 1002 apunte a otro proyecto).
+        // 1003 es de una tarea de otro proyecto: se queda activo aunque su proyecto_id sea el archivado
+        insertAttachment(1000L, UPLOADER, null, PROJECT);
+        insertAttachment(1001L, MANAGER, TASK, null);
+        insertAttachment(1002L, MANAGER, TASK, OTHER_PROJECT);
+        insertAttachment(1003L, MANAGER, OTHER_TASK, PROJECT);
+    }
+
+    @Test
+    void archiveCopiesProjectAndOwnedRows() {
+        ArchivedProjectDTO archived = projectArchiveRepository.archive(PROJECT, ARCHIVED_AT);
+
+        assertThat(archived.getId()).isEqualTo(PROJECT);
+        assertThat(archived.getProjectManagerId()).isEqualTo(MANAGER);
+        assertThat(archived.getTasks()).isEqualTo(1L);
+        assertThat(archived.getMilestones()).isEqualTo(1L);
+        assertThat(archived.getAttachments()).isEqualTo(3L);
+        assertThat(archived.getArchivedAt()).isEqualTo(ARCHIVED_AT);
+        assertThat(ids("SELECT id FROM archivos_adjuntos_archivados ORDER BY id")).containsExactly(1000L, 1001L, 1002L);
+        assertThat(ids("SELECT id FROM tareas_archivadas")).containsExactly(TASK);
+        assertThat(ids("SELECT id FROM hitos_archivados")).containsExactly(MILESTONE);
+    }
+
+    @Test
+    void restoreReturnsRowsWithBumpedVersionsAndEmptiesArchive() {
+        projectArchiveRepository.archive(PROJECT, ARCHIVED_AT);
+        deleteActiveRows();
+
+        projectArchiveRepository.restore(PROJECT);
+
+        assertThat(version("proyectos", PROJECT)).isEqualTo(4L);
+        assertThat(version("tareas", TASK)).isEqualTo(3L);
+        assertThat(version("hitos", MILESTONE)).isEqualTo(1L);
+        assertThat(ids("SELECT id FROM archivos_adjuntos WHERE id <> 1003 ORDER BY id")).containsExactly(1000L, 1001L, 1002L);
+        assertThat(jdbcTemplate.queryForObject("SELECT proyecto_id FROM archivos_adjuntos WHERE id = 1002", Long.class))
+                .isEqualTo(OTHER_PROJECT);
+        assertThat(projectArchiveRepository.findById(PROJECT)).isEmpty();
+        assertThat(count("archivos_adjuntos_archivados") + count("tareas_archivadas") + count("hitos_archivados")).isZero();
+    }
+
+    @Test
+    void restoreUnassignsTasksOfDeletedUsers() {
+        projectArchiveRepository.archive(PROJECT, ARCHIVED_AT);
+        deleteActiveRows();
+        jdbcTemplate.update("DELETE FROM usuarios WHERE id = ?", DEVELOPER);
+
+        projectArchiveRepository.restore(PROJECT);
+
+        Map<String, Object> task = jdbcTemplate.queryForMap("SELECT asignado_a_usuario_id, proyecto_id FROM tareas WHERE id = ?", TASK);
+        assertThat(task.get("asignado_a_usuario_id")).isNull();
+        assertThat(((Number) task.get("proyecto_id")).longValue()).isEqualTo(PROJECT);
+    }
+
+    @Test
+    void countsArchivedAttachmentsWhoseUploaderWasDeleted() {
+        projectArchiveRepository.archive(PROJECT, ARCHIVED_AT);
+        deleteActiveRows();
+        assertThat(projectArchiveRepository.countAttachmentsWithMissingUploader(PROJECT)).isZero();
+
+        jdbcTemplate.update("DELETE FROM usuarios WHERE id = ?", UPLOADER);
+
+        assertThat(projectArchiveRepository.countAttachmentsWithMissingUploader(PROJECT)).isEqualTo(1L);
+    }
+
+    @Test
+    void findPageIsOrderedById() {
+        projectArchiveRepository.archive(PROJECT, ARCHIVED_AT);
+
+        assertThat(projectArchiveRepository.findPage(0L, PageRequest.of(0, 10)))
+                .extracting(ArchivedProjectDTO::getId).containsExactly(PROJECT);
+        assertThat(projectArchiveRepository.findPage(PROJECT, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    // Lo que hace ProjectDeletionService.deleteArchivedProject después de archivar
+    private void deleteActiveRows() {
+        jdbcTemplate.update("DELETE FROM archivos_adjuntos WHERE id IN (1000, 1001, 1002)");
+        jdbcTemplate.update("UPDATE archivos_adjuntos SET proyecto_id = NULL WHERE proyecto_id = ?", PROJECT);
+        jdbcTemplate.update("DELETE FROM tareas WHERE proyecto_id = ?", PROJECT);
+        jdbcTemplate.update("DELETE FROM hitos WHERE proyecto_id = ?", PROJECT);
+        jdbcTemplate.update("DELETE FROM proyectos WHERE id = ?", PROJECT);
+    }
+
+    private void insertUser(long id, String username) {
+        jdbcTemplate.update("INSERT INTO usuarios (id, nombre_usuario, contrasena, nombre, apellido, email, activo, rol_id, version) "
+                + "VALUES (?, ?, 'x', ?, ?, ?, TRUE, 1, 0)", id, username, username, username, username + "@techwave.test");
+    }
+
+    private void insertProject(long id, long version) {
+        jdbcTemplate.update("INSERT INTO proyectos (id, nombre, fecha_inicio, estado, presupuesto, gerente_proyecto_id, version) "
+                + "VALUES (?, ?, DATE '2026-01-01', 'COMPLETADO', 0, ?, ?)", id, "Proyecto " + id, MANAGER, version);
+    }
+
+    private void insertAttachment(long id, long uploaderId, Long taskId, Long projectId) {
+        jdbcTemplate.update("INSERT INTO archivos_adjuntos (id, nombre_archivo, ruta_almacenamiento, usuario_subida_id, tarea_id, proyecto_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", id, "adjunto-" + id + ".pdf", "legacy/" + id, uploaderId, taskId, projectId);
+    }
+
+    private List<Long> ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+
+    private long version(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
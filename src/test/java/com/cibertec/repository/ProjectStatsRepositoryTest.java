@@ -0,0 +1,78 @@
+package com.cibertec.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cibertec.entity.ProjectStats;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class ProjectStatsRepositoryTest {
+
+    private static final long PROJECT = 1L;
+    private static final long NEW_PROJECT = 2L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO roles (id, nombre) VALUES (1, 'PROJECT_MANAGER')");
+        jdbcTemplate.update("INSERT INTO usuarios (id, nombre_usuario, contrasena, nombre, apellido, email, activo, rol_id, version) "
+                + "VALUES (1, 'manager', 'x', 'Ana', 'Pérez', 'manager@techwave.test', TRUE, 1, 0)");
+        for (long project : new long[] { PROJECT, NEW_PROJECT }) {
+            jdbcTemplate.update("INSERT INTO proyectos (id, nombre, fecha_inicio, estado, presupuesto, gerente_proyecto_id, version) "
+                    + "VALUES (?, ?, DATE '2026-01-01', 'EN_PROGRESO', 0, 1, 0)", project, "Proyecto " + project);
+        }
+        projectStatsRepository.applyDelta(PROJECT, 2, 1, 1, 1, 0, 1, 500);
+    }
+
+    @Test
+    void applyDeltaNeverLeavesNegativeCounters() {
+        // Un decremento mayor que el valor guardado (deriva) se queda en cero también al actualizar la fila
+        projectStatsRepository.applyDelta(PROJECT, -3, -1, -2, 0, 0, -1, -800);
+
+        ProjectStats stats = reload(PROJECT);
+        assertThat(stats.getOpenTasks()).isZero();
+        assertThat(stats.getClosedTasks()).isZero();
+        assertThat(stats.getOverdueTasks()).isZero();
+        assertThat(stats.getTotalMilestones()).isEqualTo(1L);
+        assertThat(stats.getAttachmentCount()).isZero();
+        assertThat(stats.getAttachmentBytes()).isZero();
+    }
+
+    @Test
+    void insertMissingCreatesOnlyAbsentRows() {
+        projectStatsRepository.insertMissing(List.of(PROJECT, NEW_PROJECT, 99L));
+
+        // La fila existente conserva sus contadores; la nueva empieza en cero y no se crea fila sin proyecto
+        assertThat(reload(PROJECT).getOpenTasks()).isEqualTo(2L);
+        assertThat(reload(PROJECT).getAttachmentBytes()).isEqualTo(500L);
+        assertThat(reload(NEW_PROJECT).getOpenTasks()).isZero();
+        assertThat(projectStatsRepository.lockAllByProjectIdIn(List.of(PROJECT, NEW_PROJECT, 99L)))
+                .extracting(ProjectStats::getProjectId).containsExactlyInAnyOrder(PROJECT, NEW_PROJECT);
+    }
+
+    private ProjectStats reload(long projectId) {
+        entityManager.clear();
+        return projectStatsRepository.findById(projectId).orElseThrow();
+    }
+}
@@ -0,0 +1,114 @@
+package com.cibertec.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cibertec.entity.Task;
+
+class ProjectStatsDeltaTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    void overdueOnlyWhenOpenAndDueBeforeToday() {
+        assertThat(ProjectStatsDelta.isOverdue("PENDIENTE", TODAY.minusDays(1), TODAY)).isTrue();
+        assertThat(ProjectStatsDelta.isOverdue("PENDIENTE", TODAY, TODAY)).isFalse();
+        assertThat(ProjectStatsDelta.isOverdue("PENDIENTE", null, TODAY)).isFalse();
+        assertThat(ProjectStatsDelta.isOverdue(Task.STATUS_COMPLETED, TODAY.minusDays(1), TODAY)).isFalse();
+    }
+
+    @Test
+    void addTaskCountsOpenClosedAndOverdue() {
+        Map<Long, long[]> counters = collect(new ProjectStatsDelta()
+                .addTask(1L, "PENDIENTE", TODAY.minusDays(3))
+                .addTask(1L, "EN_PROGRESO", null)
+                .addTask(1L, Task.STATUS_COMPLETED, TODAY.minusDays(3)));
+
+        long[] project = counters.get(1L);
+        assertThat(project[ProjectStatsDelta.OPEN_TASKS]).isEqualTo(2L);
+        assertThat(project[ProjectStatsDelta.CLOSED_TASKS]).isEqualTo(1L);
+        assertThat(project[ProjectStatsDelta.OVERDUE_TASKS]).isEqualTo(1L);
+    }
+
+    @Test
+    void statusChangeMovesTaskBetweenCounters() {
+        LocalDate overdue = TODAY.minusDays(1);
+        Map<Long, long[]> counters = collect(new ProjectStatsDelta()
+                .removeTask(1L, "PENDIENTE", overdue)
+                .addTask(1L, Task.STATUS_COMPLETED, overdue));
+
+        long[] project = counters.get(1L);
+        assertThat(project[ProjectStatsDelta.OPEN_TASKS]).isEqualTo(-1L);
+        assertThat(project[ProjectStatsDelta.CLOSED_TASKS]).isEqualTo(1L);
+        assertThat(project[ProjectStatsDelta.OVERDUE_TASKS]).isEqualTo(-1L);
+    }
+
+    @Test
+    void moveBetweenProjectsUpdatesBoth() {
+        Map<Long, long[]> counters = collect(new ProjectStatsDelta()
+                .removeTask(1L, "PENDIENTE", null)
+                .addTask(2L, "PENDIENTE", null));
+
+        assertThat(counters.keySet()).containsExactly(1L, 2L);
+        assertThat(counters.get(1L)[ProjectStatsDelta.OPEN_TASKS]).isEqualTo(-1L);
+        assertThat(counters.get(2L)[ProjectStatsDelta.OPEN_TASKS]).isEqualTo(1L);
+    }
+
+    @Test
+    void forEachSkipsProjectsWhoseChangesCancelOut() {
+        ProjectStatsDelta delta = new ProjectStatsDelta()
+                .removeTask(1L, "PENDIENTE", null)
+                .addTask(1L, "PENDIENTE", null)
+                .addMilestone(2L, false);
+
+        assertThat(delta.isEmpty()).isFalse();
+        assertThat(collect(delta).keySet()).containsExactly(2L);
+    }
+
+    @Test
+    void milestonesCountCompleted() {
+        Map<Long, long[]> counters = collect(new ProjectStatsDelta()
+                .addMilestone(1L, true)
+                .addMilestone(1L, null)
+                .removeMilestone(1L, false));
+
+        long[] project = counters.get(1L);
+        assertThat(project[ProjectStatsDelta.MILESTONES]).isEqualTo(1L);
+        assertThat(project[ProjectStatsDelta.COMPLETED_MILESTONES]).isEqualTo(1L);
+    }
+
+    @Test
+    void attachmentsAddCountAndBytes() {
+        Map<Long, long[]> counters = collect(new ProjectStatsDelta()
+                .addAttachments(1L, 3, 300L)
+                .removeAttachments(1L, 1, null)
+                .addAttachments(2L, 0, 100L));
+
+        long[] project = counters.get(1L);
+        assertThat(project[ProjectStatsDelta.ATTACHMENTS]).isEqualTo(2L);
+        assertThat(project[ProjectStatsDelta.ATTACHMENT_BYTES]).isEqualTo(300L);
+        assertThat(counters.keySet()).containsExactly(1L);
+    }
+
+    @Test
+    void ignoresChangesWithoutProject() {
+        ProjectStatsDelta delta = new ProjectStatsDelta()
+                .addTask(null, "PENDIENTE", null)
+                .addMilestone(null, true)
+                .addAttachments(null, 1, 10L);
+
+        assertThat(delta.isEmpty()).isTrue();
+        assertThat(collect(delta).keySet()).isEmpty();
+    }
+
+    private static Map<Long, long[]> collect(ProjectStatsDelta delta) {
+        Map<Long, long[]> counters = new LinkedHashMap<>();
+        delta.forEach(counters::put);
+        return counters;
+    }
+}
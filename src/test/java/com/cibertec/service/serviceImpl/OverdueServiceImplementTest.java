@@ -0,0 +1,140 @@
+package com.cibertec.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cibertec.dto.OverdueScanDTO;
+import com.cibertec.repository.OverdueItemRepository;
+import com.cibertec.repository.OverdueItemRepository.OverdueCandidate;
+import com.cibertec.repository.OverdueItemRepository.ScanState;
+
+class OverdueServiceImplementTest {
+
+    private static final String TASK = OverdueItemRepository.TASK;
+    private static final int CHUNK_SIZE = 2;
+    private static final LocalDate WATERMARK = LocalDate.of(2026, 3, 10);
+    private static final LocalDateTime LAST_SCAN = LocalDateTime.of(2026, 3, 10, 8, 0);
+
+    private final OverdueItemRepository overdueItemRepository = mock(OverdueItemRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private OverdueServiceImplement service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OverdueServiceImplement(overdueItemRepository, transactionManager);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+    }
+
+    @Test
+    void firstScanWalksAllPastDueDatesAndSkipsUpdatedPass() {
+        OverdueCandidate first = candidate(1L, LocalDate.of(2026, 1, 5));
+        OverdueCandidate second = candidate(2L, LocalDate.of(2026, 1, 5));
+        OverdueCandidate third = candidate(3L, LocalDate.of(2026, 2, 1));
+        when(overdueItemRepository.findOpenByDueDate(eq(TASK), eq(OverdueItemRepository.SCAN_START), eq(0L), any(), eq(CHUNK_SIZE)))
+                .thenReturn(List.of(first, second));
+        // El siguiente bloque continúa después del último (fecha límite, id) del anterior
+        when(overdueItemRepository.findOpenByDueDate(eq(TASK), eq(second.dueDate()), eq(2L), any(), eq(CHUNK_SIZE)))
+                .thenReturn(List.of(third));
+
+        OverdueScanDTO result = service.scan();
+
+        assertThat(result.getTasksFlagged()).isEqualTo(3L);
+        verify(overdueItemRepository).flag(eq(TASK), eq(List.of(first, second)), any());
+        verify(overdueItemRepository).flag(eq(TASK), eq(List.of(third)), any());
+        // Sin escaneo anterior no hay modificados que revisar
+        verify(overdueItemRepository, never()).findOpenUpdatedSince(anyString(), any(), anyLong(), any(), anyInt());
+        verify(overdueItemRepository).saveScanState(eq(TASK), eq(LocalDate.now()), any());
+    }
+
+    @Test
+    void scanResumesFromWatermark() {
+        when(overdueItemRepository.findScanState(TASK)).thenReturn(Optional.of(new ScanState(WATERMARK, LAST_SCAN)));
+
+        service.scan();
+
+        verify(overdueItemRepository).findOpenByDueDate(eq(TASK), eq(WATERMARK), eq(0L), eq(LocalDate.now()), eq(CHUNK_SIZE));
+        verify(overdueItemRepository, never()).findOpenByDueDate(eq(TASK), eq(OverdueItemRepository.SCAN_START), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void reopenedItemsAreFlaggedFromLastScanMinusCommitLag() {
+        when(overdueItemRepository.findScanState(TASK)).thenReturn(Optional.of(new ScanState(WATERMARK, LAST_SCAN)));
+        // Reabiertas (o con la fecha límite movida hacia atrás) después del escaneo anterior
+        OverdueCandidate reopened = candidate(7L, LocalDate.of(2026, 1, 20), LAST_SCAN.plusHours(1));
+        OverdueCandidate moved = candidate(8L, LocalDate.of(2026, 2, 2), LAST_SCAN.plusHours(2));
+        OverdueCandidate later = candidate(4L, LocalDate.of(2026, 2, 3), LAST_SCAN.plusHours(3));
+        when(overdueItemRepository.findOpenUpdatedSince(eq(TASK), eq(LAST_SCAN.minusMinutes(5)), eq(0L), any(), eq(CHUNK_SIZE)))
+                .thenReturn(List.of(reopened, moved));
+        when(overdueItemRepository.findOpenUpdatedSince(eq(TASK), eq(moved.lastUpdated()), eq(8L), any(), eq(CHUNK_SIZE)))
+                .thenReturn(List.of(later));
+
+        OverdueScanDTO result = service.scan();
+
+        assertThat(result.getTasksFlagged()).isEqualTo(3L);
+        InOrder order = inOrder(overdueItemRepository);
+        order.verify(overdueItemRepository).findOpenByDueDate(eq(TASK), eq(WATERMARK), eq(0L), any(), eq(CHUNK_SIZE));
+        order.verify(overdueItemRepository).flag(eq(TASK), eq(List.of(reopened, moved)), any());
+        order.verify(overdueItemRepository).flag(eq(TASK), eq(List.of(later)), any());
+        order.verify(overdueItemRepository).saveScanState(eq(TASK), any(), any());
+    }
+
+    @Test
+    void clearResolvedWalksFlaggedIdRanges() {
+        when(overdueItemRepository.findFlaggedIdPage(TASK, 0L, CHUNK_SIZE)).thenReturn(List.of(5L, 9L));
+        when(overdueItemRepository.findFlaggedIdPage(TASK, 9L, CHUNK_SIZE)).thenReturn(List.of(12L));
+        when(overdueItemRepository.clearResolved(eq(TASK), eq(0L), eq(9L), any())).thenReturn(1);
+        when(overdueItemRepository.clearResolved(eq(TASK), eq(9L), eq(12L), any())).thenReturn(1);
+
+        OverdueScanDTO result = service.scan();
+
+        // Cada rango (afterId, lastId] se revisa en su propia transacción
+        assertThat(result.getFlagsCleared()).isEqualTo(2L);
+        verify(overdueItemRepository).findFlaggedIdPage(TASK, 12L, CHUNK_SIZE);
+        InOrder order = inOrder(overdueItemRepository);
+        order.verify(overdueItemRepository).clearResolved(eq(TASK), eq(0L), eq(9L), eq(LocalDate.now()));
+        order.verify(overdueItemRepository).clearResolved(eq(TASK), eq(9L), eq(12L), eq(LocalDate.now()));
+        order.verify(overdueItemRepository).saveScanState(eq(TASK), any(), any());
+    }
+
+    @Test
+    void scanCoversTasksAndMilestones() {
+        when(overdueItemRepository.findOpenByDueDate(eq(OverdueItemRepository.MILESTONE), any(), anyLong(), any(), anyInt()))
+                .thenReturn(List.of(candidate(30L, LocalDate.of(2026, 1, 1))));
+
+        OverdueScanDTO result = service.scan();
+
+        assertThat(result.getTasksFlagged()).isZero();
+        assertThat(result.getMilestonesFlagged()).isEqualTo(1L);
+        verify(overdueItemRepository).saveScanState(eq(TASK), any(), any());
+        verify(overdueItemRepository).saveScanState(eq(OverdueItemRepository.MILESTONE), any(), any());
+    }
+
+    private static OverdueCandidate candidate(Long id, LocalDate dueDate) {
+        return candidate(id, dueDate, LAST_SCAN.minusDays(30));
+    }
+
+    private static OverdueCandidate candidate(Long id, LocalDate dueDate, LocalDateTime lastUpdated) {
+        return new OverdueCandidate(id, 1L, dueDate, lastUpdated);
+    }
+}
@@ -0,0 +1,157 @@
+package com.cibertec.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.cibertec.dto.ProjectDeletionDTO;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.storage.BlobReferences;
+
+class ProjectDeletionServiceImplementTest {
+
+    private static final Long PROJECT_ID = 7L;
+    private static final int CHUNK_SIZE = 2;
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final MilestoneRepository milestoneRepository = mock(MilestoneRepository.class);
+    private final AttachmentRepository attachmentRepository = mock(AttachmentRepository.class);
+    private final BlobReferences blobReferences = mock(BlobReferences.class);
+    private final ProjectStatsService projectStatsService = mock(ProjectStatsService.class);
+    private final AuthorizationIndex authorizationIndex = mock(AuthorizationIndex.class);
+    private final SearchIndex searchIndex = mock(SearchIndex.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private ProjectDeletionServiceImplement service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProjectDeletionServiceImplement(projectRepository, taskRepository, milestoneRepository,
+                attachmentRepository, blobReferences, projectStatsService, authorizationIndex, searchIndex,
+                eventPublisher, transactionManager);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK_SIZE);
+        when(projectRepository.existsById(PROJECT_ID)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void deleteProjectDeletesRowsInDependencyOrder() {
+        service.deleteProject(PROJECT_ID);
+
+        // Las referencias se liberan antes de borrar los adjuntos; el proyecto es lo último que se borra
+        InOrder order = inOrder(blobReferences, attachmentRepository, taskRepository, milestoneRepository,
+                projectStatsService, projectRepository);
+        order.verify(attachmentRepository).countContentHashesByProjectId(PROJECT_ID);
+        order.verify(blobReferences).releaseAll(any());
+        order.verify(attachmentRepository).bulkDeleteByTaskProjectId(PROJECT_ID);
+        order.verify(attachmentRepository).bulkDeleteByProjectId(PROJECT_ID);
+        order.verify(attachmentRepository).detachFromProject(PROJECT_ID);
+        order.verify(taskRepository).bulkDeleteByProjectId(PROJECT_ID);
+        order.verify(milestoneRepository).bulkDeleteByProjectId(PROJECT_ID);
+        order.verify(projectStatsService).removeProject(PROJECT_ID);
+        order.verify(projectRepository).bulkDeleteById(PROJECT_ID);
+        verify(authorizationIndex).evictProject(PROJECT_ID);
+        verify(searchIndex).deleteProjectAfterCommit(PROJECT_ID);
+    }
+
+    @Test
+    void deleteArchivedProjectKeepsBlobReferences() {
+        service.deleteArchivedProject(PROJECT_ID);
+
+        // Los adjuntos archivados siguen usando sus contenidos
+        verify(blobReferences, never()).releaseAll(any());
+        verify(projectRepository).bulkDeleteById(PROJECT_ID);
+    }
+
+    @Test
+    void startDeletionDeletesInChunksAndProjectLast() throws InterruptedException {
+        when(taskRepository.findIdsByProjectId(PROJECT_ID, PageRequest.of(0, CHUNK_SIZE)))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+        when(attachmentRepository.bulkDeleteByTaskIdIn(anyCollection())).thenReturn(1);
+        when(taskRepository.bulkDeleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(taskRepository.bulkDeleteByIdIn(List.of(3L))).thenReturn(1);
+        when(milestoneRepository.findIdsByProjectId(PROJECT_ID, PageRequest.of(0, CHUNK_SIZE)))
+                .thenReturn(List.of(10L), List.of());
+        when(milestoneRepository.bulkDeleteByIdIn(List.of(10L))).thenReturn(1);
+        when(attachmentRepository.findIdsByProjectId(PROJECT_ID, PageRequest.of(0, CHUNK_SIZE)))
+                .thenReturn(List.of(20L, 21L), List.of());
+        when(attachmentRepository.bulkDeleteByIdIn(List.of(20L, 21L))).thenReturn(2);
+        when(taskRepository.countByProjectId(PROJECT_ID)).thenReturn(3L);
+        when(milestoneRepository.countByProjectId(PROJECT_ID)).thenReturn(1L);
+
+        ProjectDeletionDTO started = service.startDeletion(PROJECT_ID);
+        assertThat(started.getState()).isEqualTo(ProjectDeletionDTO.RUNNING);
+        ProjectDeletionDTO finished = awaitFinished();
+
+        assertThat(finished.getState()).isEqualTo(ProjectDeletionDTO.COMPLETED);
+        assertThat(finished.getTasksDeleted()).isEqualTo(3L);
+        assertThat(finished.getMilestonesDeleted()).isEqualTo(1L);
+        assertThat(finished.getAttachmentsDeleted()).isEqualTo(4L); // 1 + 1 de las tareas y 2 del proyecto
+
+        // Cada lote en su transacción: tareas (con sus adjuntos), hitos, adjuntos y, al final, el proyecto
+        InOrder order = inOrder(attachmentRepository, taskRepository, milestoneRepository, projectRepository);
+        order.verify(attachmentRepository).bulkDeleteByTaskIdIn(List.of(1L, 2L));
+        order.verify(taskRepository).bulkDeleteByIdIn(List.of(1L, 2L));
+        order.verify(attachmentRepository).bulkDeleteByTaskIdIn(List.of(3L));
+        order.verify(taskRepository).bulkDeleteByIdIn(List.of(3L));
+        order.verify(milestoneRepository).bulkDeleteByIdIn(List.of(10L));
+        order.verify(attachmentRepository).bulkDeleteByIdIn(List.of(20L, 21L));
+        order.verify(taskRepository).bulkDeleteByProjectId(PROJECT_ID);
+        order.verify(projectRepository).bulkDeleteById(PROJECT_ID);
+        // 3 lotes de tareas, 2 de hitos, 2 de adjuntos y la eliminación final
+        verify(transactionManager, times(8)).commit(any());
+    }
+
+    @Test
+    void failedChunkMarksDeletionFailedAndKeepsProject() throws InterruptedException {
+        when(taskRepository.findIdsByProjectId(eq(PROJECT_ID), any())).thenThrow(new IllegalStateException("Lock wait timeout"));
+
+        service.startDeletion(PROJECT_ID);
+        ProjectDeletionDTO finished = awaitFinished();
+
+        assertThat(finished.getState()).isEqualTo(ProjectDeletionDTO.FAILED);
+        assertThat(finished.getError()).isEqualTo("Lock wait timeout");
+        verify(projectRepository, never()).bulkDeleteById(PROJECT_ID);
+    }
+
+    private ProjectDeletionDTO awaitFinished() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ProjectDeletionDTO deletion = service.getDeletion(PROJECT_ID);
+            if (deletion.getFinishedAt() != null) {
+                return deletion;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Deletion of project " + PROJECT_ID + " did not finish");
+    }
+}
@@ -0,0 +1,137 @@
+package com.cibertec.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.cibertec.dto.ArchivedProjectDTO;
+import com.cibertec.dto.ProjectDTO;
+import com.cibertec.entity.Project;
+import com.cibertec.exception.ConflictException;
+import com.cibertec.exception.ResourceNotFoundException;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.MilestoneRepository;
+import com.cibertec.repository.ProjectArchiveRepository;
+import com.cibertec.repository.ProjectExportRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.SparseFieldsetRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.repository.UserRepository;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.service.ProjectDeletionService;
+import com.cibertec.service.ProjectStatsService;
+
+/**
+ * Reglas de archivado y restauración de ProjectServiceImplement (las sentencias SQL se prueban en ProjectArchiveRepositoryTest).
+ */
+class ProjectServiceImplementTest {
+
+    private static final Long PROJECT_ID = 10L;
+    private static final Long MANAGER_ID = 1L;
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final MilestoneRepository milestoneRepository = mock(MilestoneRepository.class);
+    private final ProjectStatsService projectStatsService = mock(ProjectStatsService.class);
+    private final ProjectDeletionService projectDeletionService = mock(ProjectDeletionService.class);
+    private final SearchIndex searchIndex = mock(SearchIndex.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ProjectArchiveRepository projectArchiveRepository = mock(ProjectArchiveRepository.class);
+
+    private ProjectServiceImplement service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProjectServiceImplement(projectRepository, userRepository, taskRepository, milestoneRepository,
+                mock(AttachmentRepository.class), mock(AuthorizationIndex.class), projectStatsService, projectDeletionService,
+                searchIndex, eventPublisher, mock(SparseFieldsetRepository.class), mock(ProjectExportRepository.class),
+                projectArchiveRepository);
+        when(projectArchiveRepository.findById(PROJECT_ID)).thenReturn(Optional.of(new ArchivedProjectDTO(
+                PROJECT_ID, "Migración", Project.STATUS_COMPLETED, MANAGER_ID, 3, 1, 2, LocalDateTime.now())));
+    }
+
+    @Test
+    void archiveRejectsProjectsThatAreNotCompleted() {
+        when(projectRepository.findDtoById(PROJECT_ID)).thenReturn(Optional.of(project("EN_PROGRESO")));
+
+        assertThatThrownBy(() -> service.archiveProject(PROJECT_ID)).isInstanceOf(ConflictException.class);
+        verify(projectArchiveRepository, never()).archive(anyLong(), any());
+        verify(projectDeletionService, never()).deleteArchivedProject(anyLong());
+    }
+
+    @Test
+    void archiveCopiesBeforeDeletingActiveRows() {
+        when(projectRepository.findDtoById(PROJECT_ID)).thenReturn(Optional.of(project(Project.STATUS_COMPLETED)));
+
+        service.archiveProject(PROJECT_ID);
+
+        InOrder order = inOrder(projectArchiveRepository, projectDeletionService);
+        order.verify(projectArchiveRepository).archive(eq(PROJECT_ID), any());
+        order.verify(projectDeletionService).deleteArchivedProject(PROJECT_ID);
+    }
+
+    @Test
+    void restoreRejectsMissingProjectManager() {
+        when(userRepository.existsById(MANAGER_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.restoreProject(PROJECT_ID))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Project manager with ID " + MANAGER_ID);
+        verify(projectArchiveRepository, never()).restore(anyLong());
+    }
+
+    @Test
+    void restoreRejectsAttachmentsOfDeletedUploaders() {
+        when(userRepository.existsById(MANAGER_ID)).thenReturn(true);
+        when(projectArchiveRepository.countAttachmentsWithMissingUploader(PROJECT_ID)).thenReturn(2L);
+
+        assertThatThrownBy(() -> service.restoreProject(PROJECT_ID))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("2 archived attachment(s)");
+        verify(projectArchiveRepository, never()).restore(anyLong());
+    }
+
+    @Test
+    void restoreRecalculatesStatsOfRestoredProject() {
+        when(userRepository.existsById(MANAGER_ID)).thenReturn(true);
+        when(projectArchiveRepository.countAttachmentsWithMissingUploader(PROJECT_ID)).thenReturn(0L);
+        when(projectRepository.findDtoById(PROJECT_ID)).thenReturn(Optional.of(project(Project.STATUS_COMPLETED)));
+
+        ProjectDTO restored = service.restoreProject(PROJECT_ID);
+
+        assertThat(restored.getId()).isEqualTo(PROJECT_ID);
+        InOrder order = inOrder(projectArchiveRepository, projectStatsService);
+        order.verify(projectArchiveRepository).restore(PROJECT_ID);
+        order.verify(projectStatsService).recalculateProject(PROJECT_ID);
+    }
+
+    @Test
+    void restoreOfUnknownProjectIsNotFound() {
+        when(projectArchiveRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.restoreProject(99L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static ProjectDTO project(String status) {
+        return new ProjectDTO(PROJECT_ID, "Migración", null, LocalDate.of(2026, 1, 1), null, status, null,
+                MANAGER_ID, "manager", "manager@techwave.test", null, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.cibertec.service.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cibertec.dto.TaskTransitionDTO;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.repository.AttachmentRepository;
+import com.cibertec.repository.ProjectRepository;
+import com.cibertec.repository.SparseFieldsetRepository;
+import com.cibertec.repository.TaskBatchRepository;
+import com.cibertec.repository.TaskRepository;
+import com.cibertec.repository.UserRepository;
+import com.cibertec.search.SearchIndex;
+import com.cibertec.security.AuthorizationIndex;
+import com.cibertec.service.ProjectStatsService;
+import com.cibertec.storage.BlobReferences;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+class TaskServiceImplementTest {
+
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    private TaskServiceImplement service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskServiceImplement(taskRepository, mock(ProjectRepository.class), mock(UserRepository.class),
+                mock(AuthorizationIndex.class), mock(TaskBatchRepository.class), mock(AttachmentRepository.class),
+                mock(ProjectStatsService.class), mock(BlobReferences.class), mock(SearchIndex.class),
+                mock(ApplicationEventPublisher.class), mock(SparseFieldsetRepository.class), validatorFactory.getValidator());
+        ReflectionTestUtils.setField(service, "bulkMaxItems", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void transitionRejectsStatusLongerThanColumn() {
+        TaskTransitionDTO transition = new TaskTransitionDTO(List.of(1L, 2L), "x".repeat(51), null, null);
+
+        assertThatThrownBy(() -> service.transitionTasks(transition))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("status");
+        verifyNothingWritten();
+    }
+
+    @Test
+    void transitionRejectsPriorityLongerThanColumn() {
+        TaskTransitionDTO transition = new TaskTransitionDTO(List.of(1L), null, "URGENTE".repeat(3), null);
+
+        assertThatThrownBy(() -> service.transitionTasks(transition))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("priority");
+        verifyNothingWritten();
+    }
+
+    @Test
+    void transitionRejectsBlankStatus() {
+        TaskTransitionDTO transition = new TaskTransitionDTO(List.of(1L), " ", null, null);
+
+        assertThatThrownBy(() -> service.transitionTasks(transition)).isInstanceOf(BadRequestException.class);
+        verifyNothingWritten();
+    }
+
+    // La validación ocurre antes de bloquear o escribir filas
+    private void verifyNothingWritten() {
+        verify(taskRepository, never()).findStatsStateByIdIn(anyCollection());
+        verify(taskRepository, never()).transitionByIdIn(anyCollection(), any(), any(), any(), any());
+    }
+}
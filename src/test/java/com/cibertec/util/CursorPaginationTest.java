@@ -0,0 +1,117 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.cibertec.dto.CursorPageDTO;
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.util.CursorPagination.DateKey;
+
+class CursorPaginationTest {
+
+    @Test
+    void pageSizeDefaultsAndCapsRequestedSize() {
+        assertThat(CursorPagination.pageSize(null)).isEqualTo(CursorPagination.DEFAULT_PAGE_SIZE);
+        assertThat(CursorPagination.pageSize(10)).isEqualTo(10);
+        assertThat(CursorPagination.pageSize(100_000)).isEqualTo(CursorPagination.MAX_PAGE_SIZE);
+        assertThatThrownBy(() -> CursorPagination.pageSize(0)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void limitRequestsOneExtraRow() {
+        Pageable pageable = CursorPagination.limit(50);
+        assertThat(pageable.getPageNumber()).isEqualTo(0);
+        assertThat(pageable.getPageSize()).isEqualTo(51);
+    }
+
+    @Test
+    void pageEndSelectsOnlyTheExtraRow() {
+        Pageable pageable = CursorPagination.pageEnd(50);
+        assertThat(pageable.getOffset()).isEqualTo(50L);
+        assertThat(pageable.getPageSize()).isEqualTo(1);
+    }
+
+    @Test
+    void idCursorRoundTrips() {
+        assertThat(CursorPagination.decode(null)).isEqualTo(0L);
+        assertThat(CursorPagination.decode(" ")).isEqualTo(0L);
+        assertThat(CursorPagination.decode(CursorPagination.encode(123456789L))).isEqualTo(123456789L);
+    }
+
+    @Test
+    void rejectsMalformedIdCursors() {
+        assertThatThrownBy(() -> CursorPagination.decode("%%%")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagination.decode(base64("id:abc"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagination.decode(base64("42"))).isInstanceOf(BadRequestException.class);
+        // Un cursor por fecha no sirve para un listado por id
+        assertThatThrownBy(() -> CursorPagination.decode(CursorPagination.encode(new DateKey(LocalDate.of(2026, 3, 1), 7L))))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void dateKeyCursorRoundTrips() {
+        DateKey key = new DateKey(LocalDate.of(2026, 3, 1), 42L);
+        assertThat(CursorPagination.decodeDateKey(CursorPagination.encode(key))).isEqualTo(key);
+        assertThat(CursorPagination.decodeDateKey(null)).isEqualTo(DateKey.START);
+    }
+
+    @Test
+    void rejectsMalformedDateKeyCursors() {
+        assertThatThrownBy(() -> CursorPagination.decodeDateKey(CursorPagination.encode(42L))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagination.decodeDateKey(base64("due:2026-13-01,1"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagination.decodeDateKey(base64("due:2026-03-01"))).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> CursorPagination.decodeDateKey(base64("due:2026-03-01,x"))).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void toPageTrimsExtraRowAndPointsCursorAtLastItem() {
+        CursorPageDTO<Long> page = CursorPagination.toPage(List.of(1L, 2L, 3L, 4L), 3, Function.identity());
+
+        assertThat(page.getItems()).containsExactly(1L, 2L, 3L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getSize()).isEqualTo(3);
+        assertThat(CursorPagination.decode(page.getNextCursor())).isEqualTo(3L);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPageDTO<Long> page = CursorPagination.toPage(List.of(1L, 2L), 3, Function.identity());
+
+        assertThat(page.getItems()).containsExactly(1L, 2L);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void toPageMapsOnlyReturnedRows() {
+        CursorPageDTO<String> page = CursorPagination.toPage(List.of(10L, 20L, 30L), 2, Function.identity(), id -> "item-" + id);
+
+        assertThat(page.getItems()).containsExactly("item-10", "item-20");
+        assertThat(CursorPagination.decode(page.getNextCursor())).isEqualTo(20L);
+    }
+
+    @Test
+    void dateKeyPageCursorContinuesAfterLastDateAndId() {
+        List<DateKey> rows = List.of(new DateKey(LocalDate.of(2026, 1, 1), 9L), new DateKey(LocalDate.of(2026, 1, 1), 12L),
+                new DateKey(LocalDate.of(2026, 1, 2), 3L));
+
+        CursorPageDTO<DateKey> page = CursorPagination.toDateKeyPage(rows, 2, Function.identity());
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(CursorPagination.decodeDateKey(page.getNextCursor())).isEqualTo(new DateKey(LocalDate.of(2026, 1, 1), 12L));
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
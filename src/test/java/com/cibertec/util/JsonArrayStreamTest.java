@@ -0,0 +1,138 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.cibertec.dto.TaskDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class JsonArrayStreamTest {
+
+    private static final int ELEMENTS = 500_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void writesLargeCollectionWithConstantHeap() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        AtomicLong heapAtStart = new AtomicLong();
+        AtomicLong heapAtHalf = new AtomicLong();
+        AtomicLong bytesAtHalf = new AtomicLong();
+
+        JsonArrayStream.<TaskDTO>of(objectMapper, consumer -> {
+            for (int i = 0; i < ELEMENTS; i++) {
+                if (i == 0) {
+                    heapAtStart.set(usedHeapAfterGc());
+                } else if (i == ELEMENTS / 2) {
+                    heapAtHalf.set(usedHeapAfterGc());
+                    bytesAtHalf.set(output.bytes);
+                }
+                consumer.accept(task(i));
+            }
+        }).writeTo(output);
+
+        assertThat(output.objects).isEqualTo(ELEMENTS);
+        assertThat(output.first).isEqualTo('[');
+        assertThat(output.last).isEqualTo(']');
+        // La mitad de la salida ya llegó al flujo antes de terminar de recorrer la colección
+        assertThat(bytesAtHalf.get()).isGreaterThan(output.bytes / 3);
+        // La salida (más de 100 MB) no se acumula en memoria
+        assertThat(output.bytes).isGreaterThan(100L * 1024 * 1024);
+        assertThat(heapAtHalf.get() - heapAtStart.get()).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    @Test
+    void emptySourceWritesEmptyArray() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        JsonArrayStream.<TaskDTO>of(objectMapper, consumer -> { }).writeTo(output);
+        assertThat(output.toString()).isEqualTo("[]");
+    }
+
+    @Test
+    void stopsReadingSourceWhenClientDisconnects() {
+        AtomicInteger produced = new AtomicInteger();
+        OutputStream closedAfterFirstWrite = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> JsonArrayStream.<TaskDTO>of(objectMapper, consumer -> {
+            for (int i = 0; i < ELEMENTS; i++) {
+                produced.incrementAndGet();
+                consumer.accept(task(i));
+            }
+        }).writeTo(closedAfterFirstWrite)).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+        // El generador vacía su búfer cada pocos KB: la fuente se aborta mucho antes del final
+        assertThat(produced.get()).isLessThan(ELEMENTS);
+    }
+
+    private static TaskDTO task(int i) {
+        TaskDTO task = new TaskDTO();
+        task.setId((long) i);
+        task.setName("Tarea " + i);
+        task.setDescription("Descripción de prueba para la tarea número " + i + " con texto suficiente para ocupar espacio");
+        task.setDueDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+        task.setStatus("PENDIENTE");
+        task.setPriority("MEDIA");
+        task.setProjectId((long) (i % 100));
+        task.setAssignedToId((long) (i % 50));
+        task.setCreatedAt(LocalDateTime.of(2026, 1, 1, 12, 0));
+        task.setLastUpdated(LocalDateTime.of(2026, 1, 2, 12, 0));
+        task.setVersion(0L);
+        return task;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** Descarta la salida: solo cuenta bytes y objetos y guarda el primer y el último carácter. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long objects;
+        private int first = -1;
+        private int last = -1;
+
+        @Override
+        public void write(int b) {
+            if (first < 0) {
+                first = b;
+            }
+            if (b == '{') {
+                objects++;
+            }
+            last = b;
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
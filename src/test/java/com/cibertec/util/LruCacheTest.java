@@ -0,0 +1,83 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        LruCache<Long, String> cache = new LruCache<>(2);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        cache.get(1L); // 1 pasa a ser la más reciente
+        cache.put(3L, "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1L)).isEqualTo("a");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("c");
+    }
+
+    @Test
+    void removeIfDropsMatchingEntries() {
+        LruCache<Long, Long> cache = new LruCache<>(10);
+        cache.put(1L, 7L);
+        cache.put(2L, 8L);
+        cache.put(3L, 7L);
+
+        cache.removeIf((key, value) -> value == 7L);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(2L)).isEqualTo(8L);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new LruCache<Long, String>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void putIfUnchangedStoresWhenNothingWasInvalidated() {
+        LruCache<Long, String> cache = new LruCache<>(10);
+        long generation = cache.generation();
+
+        assertThat(cache.putIfUnchanged(1L, "a", generation)).isTrue();
+        assertThat(cache.get(1L)).isEqualTo("a");
+    }
+
+    @Test
+    void putIfUnchangedSkipsValueReadBeforeRemoveOfSameKey() {
+        LruCache<Long, String> cache = new LruCache<>(10);
+        long generation = cache.generation(); // Lectura que empieza antes del commit
+        cache.remove(1L);                     // Invalidación tras el commit
+
+        assertThat(cache.putIfUnchanged(1L, "stale", generation)).isFalse();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.putIfUnchanged(1L, "fresh", cache.generation())).isTrue();
+    }
+
+    @Test
+    void putIfUnchangedIgnoresRemoveOfOtherStripe() {
+        LruCache<Long, String> cache = new LruCache<>(10);
+        long generation = cache.generation();
+        cache.remove(2L);
+
+        assertThat(cache.putIfUnchanged(1L, "a", generation)).isTrue();
+    }
+
+    @Test
+    void putIfUnchangedSkipsAfterClearOrRemoveIf() {
+        LruCache<Long, String> cache = new LruCache<>(10);
+        long beforeClear = cache.generation();
+        cache.clear();
+        assertThat(cache.putIfUnchanged(1L, "a", beforeClear)).isFalse();
+
+        long beforeRemoveIf = cache.generation();
+        cache.removeIf((key, value) -> false);
+        assertThat(cache.putIfUnchanged(1L, "a", beforeRemoveIf)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+}
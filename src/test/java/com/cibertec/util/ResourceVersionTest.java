@@ -0,0 +1,153 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.cibertec.repository.projection.CollectionVersion;
+import com.cibertec.repository.projection.VersionedEntityVersion;
+
+class ResourceVersionTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 1, 10, 30);
+    private static final long UPDATED_MILLIS = UPDATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Test
+    void entityVersionUsesVersionNumberNotTimestamp() {
+        ResourceVersion version = ResourceVersion.of("project", entity(7L, 5L, UPDATED));
+
+        assertThat(version.etag()).isEqualTo("\"project-7-v5\"");
+        assertThat(version.lastModified()).isEqualTo(UPDATED_MILLIS);
+        // Segunda escritura en el mismo segundo: misma fecha, otro ETag
+        assertThat(ResourceVersion.of("project", entity(7L, 6L, UPDATED)).etag()).isNotEqualTo(version.etag());
+    }
+
+    @Test
+    void versionedEntityUsesVersionNumber() {
+        ResourceVersion version = ResourceVersion.of("task", 3L, 5L, UPDATED);
+
+        assertThat(version.etag()).isEqualTo("\"task-3-v5\"");
+        assertThat(version.lastModified()).isEqualTo(UPDATED_MILLIS);
+    }
+
+    @Test
+    void collectionVersionIsWeakAndTracksCountIdsAndVersions() {
+        ResourceVersion version = ResourceVersion.ofCollection("tasks", collection(10L, 55L, 20L, UPDATED));
+
+        assertThat(version.etag()).isEqualTo("W/\"tasks-10-55-20\"");
+        assertThat(version.lastModified()).isEqualTo(UPDATED_MILLIS);
+    }
+
+    @Test
+    void collectionEtagChangesOnEditWithinTheSameSecond() {
+        ResourceVersion before = ResourceVersion.ofCollection("tasks", collection(10L, 55L, 20L, UPDATED));
+
+        // Una edición aumenta la suma de versiones aunque no cambien el conteo ni la fecha máxima
+        assertThat(ResourceVersion.ofCollection("tasks", collection(10L, 55L, 21L, UPDATED)).etag()).isNotEqualTo(before.etag());
+        // Una tarea que sale y otra que entra en el conjunto cambian la suma de ids
+        assertThat(ResourceVersion.ofCollection("tasks", collection(10L, 57L, 20L, UPDATED)).etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void emptyCollectionHasNoLastModified() {
+        ResourceVersion version = ResourceVersion.ofCollection("tasks", collection(0L, 0L, 0L, null));
+
+        assertThat(version.lastModified()).isEqualTo(-1L);
+        assertThat(version.etag()).isEqualTo("W/\"tasks-0-0-0\"");
+    }
+
+    @Test
+    void forPageKeepsQuotesAndDistinguishesPages() {
+        ResourceVersion version = ResourceVersion.ofCollection("tasks", collection(10L, 55L, 20L, UPDATED));
+        ResourceVersion first = version.forPage(null, 50, null);
+        ResourceVersion second = version.forPage("Mg", 50, null);
+
+        assertThat(first.etag()).startsWith("W/\"tasks-10-").endsWith("\"");
+        assertThat(first.etag()).isNotEqualTo(second.etag());
+        assertThat(first.etag()).isEqualTo(version.forPage(null, 50, null).etag());
+        assertThat(first.lastModified()).isEqualTo(version.lastModified());
+    }
+
+    @Test
+    void matchesAcceptsWildcardAndListsButNotWeakTags() {
+        ResourceVersion version = ResourceVersion.of("task", 3L, 5L, UPDATED);
+
+        assertThat(version.matches("*")).isTrue();
+        assertThat(version.matches("\"task-3-v4\", \"task-3-v5\"")).isTrue();
+        assertThat(version.matches("\"task-3-v4\"")).isFalse();
+        assertThat(version.matches("W/\"task-3-v5\"")).isFalse();
+    }
+
+    @Test
+    void isNotModifiedWhenIfNoneMatchEqualsEtag() {
+        ResourceVersion version = ResourceVersion.of("task", 3L, 5L, UPDATED);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/3");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, version.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(version.isNotModified(new ServletWebRequest(request, response))).isTrue();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("no-cache");
+    }
+
+    @Test
+    void isModifiedWhenEtagDiffers() {
+        ResourceVersion version = ResourceVersion.of("task", 3L, 5L, UPDATED);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks/3");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"task-3-v4\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(version.isNotModified(new ServletWebRequest(request, response))).isFalse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(version.etag());
+    }
+
+    private static VersionedEntityVersion entity(Long id, Long version, LocalDateTime lastUpdated) {
+        return new VersionedEntityVersion() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return lastUpdated;
+            }
+        };
+    }
+
+    private static CollectionVersion collection(Long total, Long idSum, Long versionSum, LocalDateTime lastUpdated) {
+        return new CollectionVersion() {
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+
+            @Override
+            public Long getIdSum() {
+                return idSum;
+            }
+
+            @Override
+            public Long getVersionSum() {
+                return versionSum;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return lastUpdated;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.cibertec.exception.BadRequestException;
+import com.cibertec.util.SparseFieldset.Field;
+
+class SparseFieldsetTest {
+
+    private final SparseFieldset fieldset = new SparseFieldset("from Task t", "t.id", List.of(
+            SparseFieldset.column("id", "t.id"),
+            SparseFieldset.column("name", "t.name"),
+            SparseFieldset.column("status", "t.status"),
+            SparseFieldset.column("dueDate", "t.dueDate"),
+            new Field("assignedTo", "left join t.assignedTo a", List.of("a.id", "a.username"),
+                    SparseFieldset.nested("id", "username"))),
+            Map.of("status", "t.status = :status"));
+
+    @Test
+    void selectAlwaysIncludesIdAndKeepsDefinitionOrder() {
+        assertThat(names(fieldset.select("status,name"))).containsExactly("id", "name", "status");
+    }
+
+    @Test
+    void selectIgnoresBlanksAndDuplicates() {
+        assertThat(names(fieldset.select(" name , ,name"))).containsExactly("id", "name");
+        assertThat(names(fieldset.select(""))).containsExactly("id");
+    }
+
+    @Test
+    void selectAddsRequiredFields() {
+        assertThat(names(fieldset.select("name", "dueDate"))).containsExactly("id", "name", "dueDate");
+    }
+
+    @Test
+    void selectRejectsUnknownField() {
+        assertThatThrownBy(() -> fieldset.select("name,password"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown field 'password'");
+    }
+
+    @Test
+    void expressionReturnsSingleColumnOnly() {
+        assertThat(fieldset.expression("dueDate")).isEqualTo("t.dueDate");
+        assertThatThrownBy(() -> fieldset.expression("assignedTo")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fieldset.expression("missing")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void filterReturnsConditionOrRejectsUnknown() {
+        assertThat(fieldset.filter("status")).isEqualTo("t.status = :status");
+        assertThatThrownBy(() -> fieldset.filter("name")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nestedBuildsOrderedMapOrNull() {
+        Object assignee = SparseFieldset.nested("id", "username").apply(new Object[] { 5L, "ana" });
+
+        assertThat(assignee).isEqualTo(Map.of("id", 5L, "username", "ana"));
+        assertThat(new ArrayList<Object>(((Map<?, ?>) assignee).keySet())).containsExactly("id", "username");
+        assertThat(SparseFieldset.nested("id", "username").apply(new Object[] { null, null })).isNull();
+    }
+
+    @Test
+    void columnMapsFirstValue() {
+        assertThat(SparseFieldset.column("name", "t.name").mapper().apply(new Object[] { "Diseño" })).isEqualTo("Diseño");
+    }
+
+    private static List<String> names(List<Field> fields) {
+        return fields.stream().map(Field::name).toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.cibertec.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class TokenTest {
+
+    @Test
+    void cachedTokenReturnsFreshAuthenticationWithSameRoles() {
+        String token = Token.crearToken("Ana", "ana@techwave.test", List.of(new SimpleGrantedAuthority("ROLE_DEVELOPER")));
+
+        UsernamePasswordAuthenticationToken first = Token.getAuth(token);
+        UsernamePasswordAuthenticationToken second = Token.getAuth(token);
+
+        assertThat(first.getPrincipal()).isEqualTo("ana@techwave.test");
+        assertThat(second.getPrincipal()).isEqualTo("ana@techwave.test");
+        assertThat(second.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_DEVELOPER");
+        // El objeto de autenticación es mutable: cada petición recibe el suyo
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void invalidTokenIsRejected() {
+        String token = Token.crearToken("Ana", "ana@techwave.test", List.of());
+
+        assertThat(Token.getAuth(token + "x")).isNull();
+        assertThat(Token.getAuth("no-es-un-jwt")).isNull();
+    }
+}